@@ -0,0 +1,39 @@
+package com.joshwa.urlshortener.allocator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost of the default sequence strategy, for comparison with
+ * {@code UrlUtilsBenchmark.generateShortCode}. Lives in the allocator package to reach the
+ * package-private encoder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequenceShortCodeAllocatorBenchmark {
+
+    private long nextId = 1;
+
+    @Benchmark
+    public String encodeObfuscated() {
+        return SequenceShortCodeAllocator.encode(nextId++, true);
+    }
+
+    @Benchmark
+    public String encodePlain() {
+        return SequenceShortCodeAllocator.encode(nextId++, false);
+    }
+}
@@ -0,0 +1,34 @@
+package com.joshwa.urlshortener.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once single-threaded and once with one thread per core, with
+ * the GC profiler attached so every result also reports bytes allocated per operation. Accepts
+ * the usual JMH command line; an explicit {@code -t} runs only that thread count.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int[] threadCounts = commandLine.getThreads().hasValue()
+                ? new int[]{commandLine.getThreads().get()}
+                : new int[]{1, Math.max(2, Runtime.getRuntime().availableProcessors())};
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build())
+                    .run();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.joshwa.urlshortener.benchmark;
+
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
+import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
+import com.joshwa.urlshortener.entity.ShortUrl;
+import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShortUrlMapperBenchmark {
+
+    private static final String SHORT_CODE = "2gU8SHsz";
+    private static final String NORMALIZED_URL = "https://www.example.com/products/shoes?id=42";
+
+    private final ShortUrlMapper shortUrlMapper = new ShortUrlMapper();
+    private ShortUrlRequestDTO request;
+    private ShortUrl entity;
+    private String shortUrl;
+
+    @Setup
+    public void setUp() {
+        request = new ShortUrlRequestDTO();
+        request.setOriginalUrl(NORMALIZED_URL);
+        request.setExpiryDate(OffsetDateTime.parse("2030-01-01T00:00:00Z"));
+
+        entity = new ShortUrl();
+        entity.setShortCode(SHORT_CODE);
+        entity.setOriginalUrl(NORMALIZED_URL);
+        entity.setClickCount(42L);
+        entity.setCreatedAt(Instant.parse("2026-01-01T10:00:00Z"));
+        entity.setExpiryDate(Instant.parse("2030-01-01T00:00:00Z"));
+
+        shortUrl = "http://localhost:8081/" + SHORT_CODE;
+    }
+
+    @Benchmark
+    public ShortUrl toEntity() {
+        return shortUrlMapper.toEntity(request, SHORT_CODE, NORMALIZED_URL);
+    }
+
+    @Benchmark
+    public ShortUrlResponseDTO toResponseDTO() {
+        return shortUrlMapper.toResponseDTO(entity, shortUrl);
+    }
+
+    @Benchmark
+    public ShortUrlStatsResponseDTO toStatsDTO() {
+        return shortUrlMapper.toStatsDTO(entity);
+    }
+}
@@ -0,0 +1,71 @@
+package com.joshwa.urlshortener.benchmark;
+
+import com.joshwa.urlshortener.utility.UrlUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link UrlUtils}: code generation on the shared {@code SecureRandom}, URL
+ * normalization, and validation of accepted and rejected URLs (the latter goes through an
+ * exception).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlUtilsBenchmark {
+
+    private static final int SHORT_CODE_LENGTH = 8;
+
+    private final String urlWithScheme = "https://www.example.com/products/shoes?utm_source=newsletter&id=42";
+    private final String urlWithoutScheme = "  www.example.com/products/shoes?utm_source=newsletter&id=42 ";
+    private final String validUrl = "https://www.example.com/products/shoes?utm_source=newsletter&id=42";
+    private final String malformedUrl = "https://www.example .com/products/shoes";
+    private final String unsupportedSchemeUrl = "ftp://files.example.com/archive.zip";
+
+    @Benchmark
+    public String generateShortCode() {
+        return UrlUtils.generateShortCode(SHORT_CODE_LENGTH);
+    }
+
+    @Benchmark
+    public String normalizeUrlWithScheme() {
+        return UrlUtils.normalizeUrl(urlWithScheme);
+    }
+
+    @Benchmark
+    public String normalizeUrlWithoutScheme() {
+        return UrlUtils.normalizeUrl(urlWithoutScheme);
+    }
+
+    @Benchmark
+    public boolean isValidUrlAccepted() {
+        return UrlUtils.isValidUrl(validUrl);
+    }
+
+    @Benchmark
+    public boolean isValidUrlMalformed() {
+        return UrlUtils.isValidUrl(malformedUrl);
+    }
+
+    @Benchmark
+    public boolean isValidUrlUnsupportedScheme() {
+        return UrlUtils.isValidUrl(unsupportedSchemeUrl);
+    }
+
+    @Benchmark
+    public long hashUrl() {
+        return UrlUtils.hashUrl(validUrl);
+    }
+}
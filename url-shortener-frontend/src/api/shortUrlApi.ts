@@ -25,6 +25,7 @@ export interface ShortUrlStatsResponse {
   originalUrl: string;
   shortCode: string;
   clickCount: number;
+  uniqueVisitors?: number;
   createdAt: string;
   expiryDate?: string;
   updatedAt?: string;
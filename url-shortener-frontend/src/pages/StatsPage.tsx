@@ -5,6 +5,7 @@ import { getStats } from "../api/shortUrlApi";
 interface ShortUrlStats {
   originalUrl: string;
   clickCount: number;
+  uniqueVisitors?: number;
   createdAt: string;
 }
 
@@ -34,6 +35,9 @@ function StatsPage() {
         <div>
           <p><strong>Original URL:</strong> {stats.originalUrl}</p>
           <p><strong>Click Count:</strong> {stats.clickCount}</p>
+          {stats.uniqueVisitors != null && (
+            <p><strong>Unique Visitors (30 days):</strong> {stats.uniqueVisitors}</p>
+          )}
           <p><strong>Created At:</strong> {stats.createdAt}</p>
         </div>
       )}
@@ -0,0 +1,42 @@
+package com.joshwa.urlshortener.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram and error count of one endpoint. Each worker owns its own instance; they
+ * are merged once the run is over.
+ */
+public class EndpointStats {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new Histogram(MAX_TRACKED_NANOS, 3);
+    private long errors;
+
+    public void recordSuccess(long latencyNanos) {
+        latencies.recordValue(Math.min(latencyNanos, MAX_TRACKED_NANOS));
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void add(EndpointStats other) {
+        latencies.add(other.latencies);
+        errors += other.errors;
+    }
+
+    public long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getPercentileNanos(double percentile) {
+        return latencies.getValueAtPercentile(percentile);
+    }
+}
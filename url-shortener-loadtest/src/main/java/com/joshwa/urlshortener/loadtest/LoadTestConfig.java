@@ -0,0 +1,48 @@
+package com.joshwa.urlshortener.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load-test settings, given as {@code --name=value} arguments. Switches may also be given as
+ * a bare {@code --name}.
+ *
+ * @param links            number of links seeded before the run
+ * @param zipfExponent     skew of redirect and stats popularity; 0.99 is typical web traffic
+ * @param maxRedirectP99   when set, the run fails if the redirect p99 is higher
+ * @param virtualThreads   runs the service with {@code spring.threads.virtual.enabled}; needs Java 21+
+ * @param viaRedirectTier  sends redirects through an in-process redirect tier instead of the service
+ */
+public record LoadTestConfig(long links, Duration warmup, Duration duration, int concurrency,
+                             int redirectWeight, int createWeight, int statsWeight, double zipfExponent,
+                             Duration maxRedirectP99, boolean virtualThreads, boolean viaRedirectTier) {
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value or --name but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        String maxRedirectP99 = values.get("max-redirect-p99");
+        return new LoadTestConfig(
+                Long.parseLong(values.getOrDefault("links", "1000000")),
+                Duration.parse(values.getOrDefault("warmup", "PT30S")),
+                Duration.parse(values.getOrDefault("duration", "PT2M")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Integer.parseInt(values.getOrDefault("redirect-weight", "90")),
+                Integer.parseInt(values.getOrDefault("create-weight", "2")),
+                Integer.parseInt(values.getOrDefault("stats-weight", "8")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "0.99")),
+                maxRedirectP99 != null ? Duration.parse(maxRedirectP99) : null,
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Boolean.parseBoolean(values.getOrDefault("via-redirect-tier", "false")));
+    }
+}
@@ -0,0 +1,303 @@
+package com.joshwa.urlshortener.loadtest;
+
+import com.joshwa.urlshortener.UrlShortenerServiceApplication;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.config.ShortUrlIdSequenceInitializer;
+import com.joshwa.urlshortener.redirect.RedirectServer;
+import com.joshwa.urlshortener.redirect.RedirectServerConfig;
+import com.joshwa.urlshortener.scheduler.ShortCodeBloomFilterScheduler;
+import com.joshwa.urlshortener.utility.UrlUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the service against throwaway MySQL and Redis containers, seeds it with links and
+ * drives a closed-loop mix of redirects, creates and stats calls. Redirect and stats targets
+ * follow a Zipfian popularity distribution. Prints throughput, latency percentiles and cache
+ * hit ratios for the measured window (warm-up excluded), and exits non-zero when the redirect
+ * p99 exceeds {@code --max-redirect-p99}. The service runs on platform or virtual threads as
+ * chosen with {@code --virtual-threads}, and redirects can be sent through the redirect tier
+ * with {@code --via-redirect-tier}; the report states both.
+ */
+public final class LoadTestRunner {
+
+    private static final int SEED_BATCH_SIZE = 5000;
+    private static final String SEED_CODE_PREFIX = "L";
+    private static final int SEED_CODE_DIGITS = 7;
+    private static final int DEFAULT_TOMCAT_MAX_CONNECTIONS = 8192;
+    private static final int CONNECTION_HEADROOM = 1024;
+    private static final Duration REDIRECT_TIER_TIMEOUT = Duration.ofSeconds(5);
+
+    enum Endpoint {
+        REDIRECT,
+        CREATE,
+        STATS
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        if (config.virtualThreads() && Runtime.version().feature() < 21) {
+            // Spring Boot silently ignores the property below Java 21, which would mislabel the run.
+            throw new IllegalStateException("--virtual-threads needs Java 21 or newer, running on "
+                    + Runtime.version());
+        }
+        boolean passed;
+        try (MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8"));
+             GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7")).withExposedPorts(6379)) {
+            mysql.start();
+            redis.start();
+            try (ConfigurableApplicationContext context = startService(config, mysql, redis)) {
+                seed(context, config.links());
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                if (!config.viaRedirectTier()) {
+                    passed = run(config, baseUrl, baseUrl, context);
+                } else {
+                    try (RedirectServer redirectTier = RedirectServer.start(new RedirectServerConfig(
+                            0, redis.getHost(), redis.getMappedPort(6379), baseUrl, REDIRECT_TIER_TIMEOUT,
+                            context.getEnvironment().getProperty("joshwa.shorturlapp.click-analytics.region-header"),
+                            context.getEnvironment().getProperty("joshwa.shorturlapp.hot-keys.pin-ttl", Duration.class)))) {
+                        passed = run(config, baseUrl, "http://localhost:" + redirectTier.getPort(), context);
+                    }
+                }
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startService(LoadTestConfig config, MySQLContainer<?> mysql,
+                                                               GenericContainer<?> redis) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.threads.virtual.enabled", config.virtualThreads());
+        // Every worker holds a connection; beyond the default the surplus would queue in the backlog.
+        properties.put("server.tomcat.max-connections",
+                Math.max(DEFAULT_TOMCAT_MAX_CONNECTIONS, config.concurrency() + CONNECTION_HEADROOM));
+        properties.put("spring.datasource.url", mysql.getJdbcUrl());
+        properties.put("spring.datasource.username", mysql.getUsername());
+        properties.put("spring.datasource.password", mysql.getPassword());
+        properties.put("spring.data.redis.host", redis.getHost());
+        properties.put("spring.data.redis.port", redis.getMappedPort(6379));
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("server.port", 0);
+        return new SpringApplicationBuilder(UrlShortenerServiceApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static void seed(ConfigurableApplicationContext context, long links) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long startNanos = System.nanoTime();
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long id = 1; id <= links; id++) {
+            String originalUrl = "https://loadtest.example.com/seed/" + id;
+            batch.add(new Object[]{id, originalUrl, UrlUtils.hashUrl(originalUrl), seedShortCode(id), now, now});
+            if (batch.size() == SEED_BATCH_SIZE || id == links) {
+                jdbcTemplate.batchUpdate("INSERT INTO short_urls (id, original_url, original_url_hash, short_code, "
+                        + "click_count, created_at, updated_at) VALUES (?, ?, ?, ?, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        context.getBean(ShortUrlIdSequenceInitializer.class).alignSequenceWithExistingIds();
+        context.getBean(ShortCodeBloomFilterScheduler.class).rebuildBloomFilter();
+        System.out.printf(Locale.ROOT, "Seeded %,d links in %d s%n",
+                links, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+    }
+
+    static String seedShortCode(long id) {
+        return SEED_CODE_PREFIX + UrlUtils.toBase62(id, SEED_CODE_DIGITS);
+    }
+
+    private static boolean run(LoadTestConfig config, String baseUrl, String redirectBaseUrl,
+                               ConfigurableApplicationContext context) throws Exception {
+        ShortUrlCache shortUrlCache = context.getBean(ShortUrlCache.class);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        ZipfianSampler sampler = new ZipfianSampler(config.links(), config.zipfExponent());
+        long measureStartNanos = System.nanoTime() + config.warmup().toNanos();
+        long endNanos = measureStartNanos + config.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+        List<Future<Map<Endpoint, EndpointStats>>> results = new ArrayList<>();
+        for (int i = 0; i < config.concurrency(); i++) {
+            results.add(workers.submit(() -> drive(config, baseUrl, redirectBaseUrl, httpClient, sampler,
+                    measureStartNanos, endNanos)));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureStartNanos - System.nanoTime()));
+        CacheCounters cacheBefore = CacheCounters.of(shortUrlCache);
+
+        Map<Endpoint, EndpointStats> merged = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            merged.put(endpoint, new EndpointStats());
+        }
+        for (Future<Map<Endpoint, EndpointStats>> result : results) {
+            result.get().forEach((endpoint, stats) -> merged.get(endpoint).add(stats));
+        }
+        workers.shutdown();
+        CacheCounters cacheAfter = CacheCounters.of(shortUrlCache);
+
+        return report(config, merged, cacheAfter.minus(cacheBefore), describeThreads(context));
+    }
+
+    private static Map<Endpoint, EndpointStats> drive(LoadTestConfig config, String baseUrl, String redirectBaseUrl,
+                                                      HttpClient httpClient, ZipfianSampler sampler,
+                                                      long measureStartNanos, long endNanos) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = config.redirectWeight() + config.createWeight() + config.statsWeight();
+        long now;
+        while ((now = System.nanoTime()) < endNanos) {
+            int pick = random.nextInt(totalWeight);
+            Endpoint endpoint = pick < config.redirectWeight() ? Endpoint.REDIRECT
+                    : pick < config.redirectWeight() + config.createWeight() ? Endpoint.CREATE
+                    : Endpoint.STATS;
+            HttpRequest request = buildRequest(endpoint, endpoint == Endpoint.REDIRECT ? redirectBaseUrl : baseUrl,
+                    sampler, random);
+            boolean ok;
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status == expectedStatus(endpoint);
+            } catch (Exception ex) {
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                ok = false;
+            }
+            long latencyNanos = System.nanoTime() - now;
+            if (now >= measureStartNanos) {
+                if (ok) {
+                    stats.get(endpoint).recordSuccess(latencyNanos);
+                } else {
+                    stats.get(endpoint).recordError();
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static HttpRequest buildRequest(Endpoint endpoint, String baseUrl, ZipfianSampler sampler,
+                                            ThreadLocalRandom random) {
+        return switch (endpoint) {
+            case REDIRECT -> HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/" + seedShortCode(sampler.sample(random)))).GET().build();
+            case STATS -> HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/api/v1/short-urls/" + seedShortCode(sampler.sample(random)) + "/stats"))
+                    .GET().build();
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/short-urls"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"originalUrl\":\"https://loadtest.example.com/new/" + random.nextLong() + "\"}"))
+                    .build();
+        };
+    }
+
+    private static int expectedStatus(Endpoint endpoint) {
+        return switch (endpoint) {
+            case REDIRECT -> 302;
+            case CREATE -> 201;
+            case STATS -> 200;
+        };
+    }
+
+    /**
+     * Describes the thread mode the service actually runs in, read back from its environment.
+     */
+    private static String describeThreads(ConfigurableApplicationContext context) {
+        boolean virtual = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() >= 21;
+        if (virtual) {
+            return "virtual threads, Java " + Runtime.version().feature();
+        }
+        return "platform threads (Tomcat pool of "
+                + context.getEnvironment().getProperty("server.tomcat.threads.max", "200")
+                + "), Java " + Runtime.version().feature();
+    }
+
+    private static boolean report(LoadTestConfig config, Map<Endpoint, EndpointStats> stats, CacheCounters cache,
+                                  String threads) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        System.out.printf(Locale.ROOT, "%nLoad test: %,d links, %d workers, %s measured after %s warm-up, zipf %.2f%n",
+                config.links(), config.concurrency(), config.duration(), config.warmup(), config.zipfExponent());
+        System.out.printf(Locale.ROOT, "Service: %s; redirects sent %s%n",
+                threads, config.viaRedirectTier() ? "through the redirect tier" : "to the service");
+        System.out.printf(Locale.ROOT, "%-9s %12s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-9s %,12d %10.0f %10.2f %10.2f %10.2f %,8d%n",
+                    entry.getKey().name().toLowerCase(Locale.ROOT),
+                    endpointStats.getCount(),
+                    endpointStats.getCount() / seconds,
+                    toMillis(endpointStats.getPercentileNanos(50)),
+                    toMillis(endpointStats.getPercentileNanos(99)),
+                    toMillis(endpointStats.getPercentileNanos(99.9)),
+                    endpointStats.getErrors());
+        }
+        System.out.printf(Locale.ROOT, "L1 cache hit ratio: %.1f%% (%,d hits)%n",
+                ratio(cache.l1Hits(), cache.l1Misses()), cache.l1Hits());
+        System.out.printf(Locale.ROOT, "L2 (Redis) hit ratio on L1 misses: %.1f%% (%,d hits)%n",
+                ratio(cache.l2Hits(), cache.l2Misses()), cache.l2Hits());
+
+        if (config.maxRedirectP99() != null) {
+            long redirectP99 = stats.get(Endpoint.REDIRECT).getPercentileNanos(99);
+            if (redirectP99 > config.maxRedirectP99().toNanos()) {
+                System.out.printf(Locale.ROOT, "FAILED: redirect p99 %.2f ms exceeds %s%n",
+                        toMillis(redirectP99), config.maxRedirectP99());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+    }
+
+    private record CacheCounters(long l1Hits, long l1Misses, long l2Hits, long l2Misses) {
+
+        static CacheCounters of(ShortUrlCache shortUrlCache) {
+            return new CacheCounters(shortUrlCache.getL1Hits(), shortUrlCache.getL1Misses(),
+                    shortUrlCache.getL2Hits(), shortUrlCache.getL2Misses());
+        }
+
+        CacheCounters minus(CacheCounters other) {
+            return new CacheCounters(l1Hits - other.l1Hits, l1Misses - other.l1Misses,
+                    l2Hits - other.l2Hits, l2Misses - other.l2Misses);
+        }
+    }
+}
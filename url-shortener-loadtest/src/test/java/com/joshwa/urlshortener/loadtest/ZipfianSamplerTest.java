@@ -0,0 +1,37 @@
+package com.joshwa.urlshortener.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfianSamplerTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void shouldFollowZipfDistribution() {
+        int n = 1000;
+        ZipfianSampler sampler = new ZipfianSampler(n, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < SAMPLES; i++) {
+            long rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= n);
+            counts[(int) rank]++;
+        }
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += 1.0 / k;
+        }
+        assertEquals(1 / harmonic, (double) counts[1] / SAMPLES, 0.005);
+        assertEquals(1 / (2 * harmonic), (double) counts[2] / SAMPLES, 0.005);
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianSampler(10, 0));
+    }
+}
@@ -0,0 +1,32 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+
+import java.util.Arrays;
+
+/**
+ * Follows the service's cache channels: codes announced as hot on {@link #HOT_KEYS_CHANNEL} are
+ * pinned in the store, and codes evicted on {@link #INVALIDATION_CHANNEL} are unpinned. The
+ * channel names and the comma-separated payload match the service's {@code ShortUrlCache}.
+ */
+public class CacheChannelListener extends RedisPubSubAdapter<String, String> {
+
+    static final String HOT_KEYS_CHANNEL = "shorturl:hot";
+    static final String INVALIDATION_CHANNEL = "shorturl:invalidate";
+    private static final String MESSAGE_DELIMITER = ",";
+
+    private final RedisRedirectStore redirectStore;
+
+    public CacheChannelListener(RedisRedirectStore redirectStore) {
+        this.redirectStore = redirectStore;
+    }
+
+    @Override
+    public void message(String channel, String message) {
+        if (HOT_KEYS_CHANNEL.equals(channel)) {
+            redirectStore.pin(Arrays.asList(message.split(MESSAGE_DELIMITER)));
+        } else if (INVALIDATION_CHANNEL.equals(channel)) {
+            redirectStore.unpin(Arrays.asList(message.split(MESSAGE_DELIMITER)));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.joshwa.urlshortener.redirect;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Forwards GET requests with the JDK's asynchronous HTTP client. Redirects are returned to the
+ * caller as-is rather than followed. A request target the client cannot encode, such as an
+ * unescaped {@code |} in the query, fails the returned stage with an
+ * {@link IllegalArgumentException}.
+ */
+public class HttpServiceForwarder implements ServiceForwarder {
+
+    private final HttpClient httpClient;
+    private final String serviceBaseUrl;
+    private final Duration timeout;
+
+    public HttpServiceForwarder(HttpClient httpClient, String serviceBaseUrl, Duration timeout) {
+        this.httpClient = httpClient;
+        this.serviceBaseUrl = serviceBaseUrl;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletionStage<ForwardedResponse> forward(String pathAndQuery, Map<String, String> headers) {
+        URI uri;
+        try {
+            uri = URI.create(serviceBaseUrl + pathAndQuery);
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .GET();
+        headers.forEach(request::setHeader);
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> new ForwardedResponse(
+                        response.statusCode(),
+                        response.headers().firstValue("Location").orElse(null),
+                        response.headers().firstValue("Content-Type").orElse(null),
+                        response.body()));
+    }
+}
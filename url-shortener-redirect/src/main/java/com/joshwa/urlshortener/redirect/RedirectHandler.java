@@ -0,0 +1,210 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Serves {@code GET /{shortCode}} straight from the redirect cache. Anything it cannot answer
+ * (unknown or uncached codes, expired links, other paths) is forwarded to the service, which
+ * also populates the cache for the next request. Forwarded requests carry the client's
+ * address in {@code X-Forwarded-For} along with its User-Agent, Referer and region headers, so
+ * the service records the same analytics as for a direct request. A request target that cannot
+ * be forwarded is answered with {@code 400} and the connection is closed.
+ */
+@ChannelHandler.Sharable
+public class RedirectHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+    static final int MAX_SHORT_CODE_LENGTH = 32;
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectHandler.class);
+
+    private final RedirectStore redirectStore;
+    private final ServiceForwarder serviceForwarder;
+    private final String regionHeader;
+
+    public RedirectHandler(RedirectStore redirectStore, ServiceForwarder serviceForwarder, String regionHeader) {
+        this.redirectStore = redirectStore;
+        this.serviceForwarder = serviceForwarder;
+        this.regionHeader = regionHeader;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        if (!HttpMethod.GET.equals(request.method())) {
+            write(ctx, emptyResponse(HttpResponseStatus.METHOD_NOT_ALLOWED), keepAlive);
+            return;
+        }
+        String pathAndQuery = request.uri();
+        // Read up front: the request is released once this method returns, before the lookup completes.
+        HttpHeaders headers = request.headers();
+        String forwardedFor = headers.get(X_FORWARDED_FOR);
+        String referrer = headers.get(HttpHeaderNames.REFERER);
+        String userAgent = headers.get(HttpHeaderNames.USER_AGENT);
+        String region = headers.get(regionHeader);
+        String shortCode = shortCodeOf(pathAndQuery);
+        if (shortCode == null) {
+            forward(ctx, pathAndQuery, forwardedHeaders(ctx, forwardedFor, referrer, userAgent, region), keepAlive);
+            return;
+        }
+        redirectStore.findLocation(shortCode).whenComplete((location, error) -> {
+            if (error != null) {
+                log.warn("Redirect cache lookup failed for {}", shortCode, error);
+            }
+            if (location == null) {
+                forward(ctx, pathAndQuery,
+                        forwardedHeaders(ctx, forwardedFor, referrer, userAgent, region), keepAlive);
+                return;
+            }
+            redirectStore.recordClick(shortCode, new RedirectStore.Click(System.currentTimeMillis(),
+                    clientAddress(ctx.channel().remoteAddress(), forwardedFor), referrer, userAgent, region));
+            FullHttpResponse response = emptyResponse(HttpResponseStatus.FOUND);
+            response.headers().set(HttpHeaderNames.LOCATION, location);
+            write(ctx, response, keepAlive);
+        });
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.warn("Closing connection after error", cause);
+        ctx.close();
+    }
+
+    /**
+     * @return the short code of a {@code /{shortCode}} path, or {@code null} for any other path
+     */
+    static String shortCodeOf(String uri) {
+        int end = uri.indexOf('?');
+        if (end < 0) {
+            end = uri.length();
+        }
+        if (end < 2 || end - 1 > MAX_SHORT_CODE_LENGTH || uri.charAt(0) != '/') {
+            return null;
+        }
+        for (int i = 1; i < end; i++) {
+            char c = uri.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return null;
+            }
+        }
+        return uri.substring(1, end);
+    }
+
+    /**
+     * The visitor's address: the connecting peer, unless that is a private or loopback address,
+     * in which case it is a proxy in front of this tier and the address it appended to
+     * {@code X-Forwarded-For} is used instead.
+     *
+     * @return the address, or {@code null} when the peer is not an IP socket
+     */
+    static String clientAddress(SocketAddress remoteAddress, String forwardedFor) {
+        if (!(remoteAddress instanceof InetSocketAddress socketAddress) || socketAddress.getAddress() == null) {
+            return null;
+        }
+        InetAddress peer = socketAddress.getAddress();
+        if (forwardedFor != null && (peer.isSiteLocalAddress() || peer.isLoopbackAddress())) {
+            String forwarded = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!forwarded.isEmpty()) {
+                return forwarded;
+            }
+        }
+        return peer.getHostAddress();
+    }
+
+    private Map<String, String> forwardedHeaders(ChannelHandlerContext ctx, String forwardedFor, String referrer,
+                                                 String userAgent, String region) {
+        Map<String, String> forwarded = new HashMap<>(8);
+        SocketAddress remoteAddress = ctx.channel().remoteAddress();
+        if (remoteAddress instanceof InetSocketAddress socketAddress && socketAddress.getAddress() != null) {
+            String peer = socketAddress.getAddress().getHostAddress();
+            forwarded.put(X_FORWARDED_FOR, forwardedFor != null ? forwardedFor + ", " + peer : peer);
+        } else if (forwardedFor != null) {
+            forwarded.put(X_FORWARDED_FOR, forwardedFor);
+        }
+        putIfPresent(forwarded, HttpHeaderNames.REFERER.toString(), referrer);
+        putIfPresent(forwarded, HttpHeaderNames.USER_AGENT.toString(), userAgent);
+        putIfPresent(forwarded, regionHeader, region);
+        return forwarded;
+    }
+
+    private static void putIfPresent(Map<String, String> headers, String name, String value) {
+        if (value != null) {
+            headers.put(name, value);
+        }
+    }
+
+    private void forward(ChannelHandlerContext ctx, String pathAndQuery, Map<String, String> headers,
+                         boolean keepAlive) {
+        CompletionStage<ServiceForwarder.ForwardedResponse> pending;
+        try {
+            pending = serviceForwarder.forward(pathAndQuery, headers);
+        } catch (RuntimeException ex) {
+            pending = CompletableFuture.failedFuture(ex);
+        }
+        pending.whenComplete((forwarded, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof IllegalArgumentException) {
+                log.debug("Rejecting malformed request target {}", pathAndQuery, cause);
+                write(ctx, emptyResponse(HttpResponseStatus.BAD_REQUEST), false);
+                return;
+            }
+            if (error != null) {
+                log.warn("Forwarding {} to the service failed", pathAndQuery, error);
+                write(ctx, emptyResponse(HttpResponseStatus.BAD_GATEWAY), keepAlive);
+                return;
+            }
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                    HttpResponseStatus.valueOf(forwarded.status()), Unpooled.wrappedBuffer(forwarded.body()));
+            if (forwarded.location() != null) {
+                response.headers().set(HttpHeaderNames.LOCATION, forwarded.location());
+            }
+            if (forwarded.contentType() != null) {
+                response.headers().set(HttpHeaderNames.CONTENT_TYPE, forwarded.contentType());
+            }
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, forwarded.body().length);
+            write(ctx, response, keepAlive);
+        });
+    }
+
+    private static FullHttpResponse emptyResponse(HttpResponseStatus status) {
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+        return response;
+    }
+
+    private static void write(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+        if (keepAlive) {
+            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            ctx.writeAndFlush(response);
+        } else {
+            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+}
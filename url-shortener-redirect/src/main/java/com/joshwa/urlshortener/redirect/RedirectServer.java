@@ -0,0 +1,125 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+
+/**
+ * Entry point of the redirect tier: a Netty HTTP server in front of the service that answers
+ * cached redirects without going through the servlet stack. {@link #start} also lets the load
+ * test run the tier in-process.
+ */
+public final class RedirectServer implements AutoCloseable {
+
+    private static final int MAX_REQUEST_SIZE = 8192;
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectServer.class);
+
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final Channel channel;
+
+    private RedirectServer(RedisClient redisClient, StatefulRedisConnection<byte[], byte[]> redisConnection,
+                           StatefulRedisPubSubConnection<String, String> pubSubConnection,
+                           EventLoopGroup bossGroup, EventLoopGroup workerGroup, Channel channel) {
+        this.redisClient = redisClient;
+        this.redisConnection = redisConnection;
+        this.pubSubConnection = pubSubConnection;
+        this.bossGroup = bossGroup;
+        this.workerGroup = workerGroup;
+        this.channel = channel;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        try (RedirectServer server = start(RedirectServerConfig.fromEnvironment(System.getenv()))) {
+            server.channel.closeFuture().sync();
+        }
+    }
+
+    /**
+     * Connects to Redis, subscribes to the service's hot-key and invalidation channels and binds
+     * the configured port; port {@code 0} picks a free one.
+     */
+    public static RedirectServer start(RedirectServerConfig config) throws InterruptedException {
+        RedisClient redisClient = RedisClient.create(RedisURI.create(config.redisHost(), config.redisPort()));
+        StatefulRedisConnection<byte[], byte[]> redisConnection = redisClient.connect(ByteArrayCodec.INSTANCE);
+        RedisRedirectStore redirectStore = new RedisRedirectStore(redisConnection.async(), config.hotKeyPinTtl());
+        StatefulRedisPubSubConnection<String, String> pubSubConnection = redisClient.connectPubSub();
+        pubSubConnection.addListener(new CacheChannelListener(redirectStore));
+        pubSubConnection.sync().subscribe(CacheChannelListener.HOT_KEYS_CHANNEL, CacheChannelListener.INVALIDATION_CHANNEL);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(config.serviceTimeout())
+                .build();
+        RedirectHandler redirectHandler = new RedirectHandler(
+                redirectStore,
+                new HttpServiceForwarder(httpClient, config.serviceBaseUrl(), config.serviceTimeout()),
+                config.regionHeader());
+
+        EventLoopGroup bossGroup = new MultiThreadIoEventLoopGroup(1, NioIoHandler.newFactory());
+        EventLoopGroup workerGroup = new MultiThreadIoEventLoopGroup(NioIoHandler.newFactory());
+        try {
+            Channel channel = new ServerBootstrap()
+                    .group(bossGroup, workerGroup)
+                    .channel(NioServerSocketChannel.class)
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            ch.pipeline()
+                                    .addLast(new HttpServerCodec())
+                                    .addLast(new HttpObjectAggregator(MAX_REQUEST_SIZE))
+                                    .addLast(redirectHandler);
+                        }
+                    })
+                    .bind(config.port())
+                    .sync()
+                    .channel();
+            RedirectServer server = new RedirectServer(redisClient, redisConnection, pubSubConnection,
+                    bossGroup, workerGroup, channel);
+            log.info("Redirect server listening on port {}, forwarding misses to {}",
+                    server.getPort(), config.serviceBaseUrl());
+            return server;
+        } catch (InterruptedException | RuntimeException ex) {
+            workerGroup.shutdownGracefully();
+            bossGroup.shutdownGracefully();
+            pubSubConnection.close();
+            redisConnection.close();
+            redisClient.shutdown();
+            throw ex;
+        }
+    }
+
+    public int getPort() {
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+
+    @Override
+    public void close() {
+        channel.close().syncUninterruptibly();
+        workerGroup.shutdownGracefully();
+        bossGroup.shutdownGracefully();
+        pubSubConnection.close();
+        redisConnection.close();
+        redisClient.shutdown();
+    }
+}
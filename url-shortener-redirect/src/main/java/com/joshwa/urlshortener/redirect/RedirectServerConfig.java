@@ -0,0 +1,23 @@
+package com.joshwa.urlshortener.redirect;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of the redirect tier, read from environment variables so the module can share the
+ * service's {@code .env} file.
+ */
+public record RedirectServerConfig(int port, String redisHost, int redisPort, String serviceBaseUrl,
+                                   Duration serviceTimeout, String regionHeader, Duration hotKeyPinTtl) {
+
+    public static RedirectServerConfig fromEnvironment(Map<String, String> env) {
+        return new RedirectServerConfig(
+                Integer.parseInt(env.getOrDefault("REDIRECT_PORT", "8082")),
+                env.getOrDefault("REDIS_HOST", "localhost"),
+                Integer.parseInt(env.getOrDefault("REDIS_PORT", "6379")),
+                env.getOrDefault("SERVICE_BASE_URL", "http://localhost:8081"),
+                Duration.parse(env.getOrDefault("SERVICE_TIMEOUT", "PT5S")),
+                env.getOrDefault("CLIENT_REGION_HEADER", "CF-IPCountry"),
+                Duration.parse(env.getOrDefault("HOT_KEY_PIN_TTL", "PT30S")));
+    }
+}
@@ -0,0 +1,28 @@
+package com.joshwa.urlshortener.redirect;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking view of the service's redirect cache.
+ */
+public interface RedirectStore {
+
+    /**
+     * @return the ready-to-send {@code Location} header value, or {@code null} when the code
+     * is not cached
+     */
+    CompletionStage<CharSequence> findLocation(String shortCode);
+
+    /**
+     * Counts a redirect served by this tier and queues its click event for the service's
+     * analytics. Fire-and-forget.
+     */
+    void recordClick(String shortCode, Click click);
+
+    /**
+     * Raw request details of a redirect, classified later by the service like its own clicks.
+     * Any value may be {@code null}.
+     */
+    record Click(long timestampMillis, String clientAddress, String referrer, String userAgent, String region) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.netty.util.AsciiString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the {@code shorturl:{code}} entries written by the service's {@code ShortUrlCache}
+ * and counts clicks in the {@code shorturl:clicks} hash that the service drains into MySQL.
+ * Each click's raw details are appended to {@code shorturl:redirect-tier-click-events}, a
+ * capped stream the service relays into its click analytics. Redis entries expire with the
+ * link, so an entry that is present is always redirectable.
+ * <p>
+ * Hot codes announced by the service are pinned in memory for {@code pinTtl}, so a viral link
+ * stops sending every redirect to the same Redis key. A pin never outlives the Redis entry it
+ * was read from, and codes the service evicts are unpinned.
+ */
+public class RedisRedirectStore implements RedirectStore {
+
+    static final String CACHE_KEY_PREFIX = "shorturl:";
+    static final byte[] CLICKS_KEY = "shorturl:clicks".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] CLICK_EVENTS_KEY = "shorturl:redirect-tier-click-events".getBytes(StandardCharsets.US_ASCII);
+    static final String FIELD_TIMESTAMP = "t";
+    static final String FIELD_SHORT_CODE = "c";
+    static final String FIELD_CLIENT_ADDRESS = "a";
+    static final String FIELD_REFERRER = "r";
+    static final String FIELD_USER_AGENT = "u";
+    static final String FIELD_REGION = "g";
+
+    // Bounds the backlog if no service node relays it; older events are trimmed first.
+    private static final long MAX_PENDING_CLICK_EVENTS = 100_000;
+    private static final XAddArgs CLICK_EVENT_ARGS = XAddArgs.Builder.maxlen(MAX_PENDING_CLICK_EVENTS)
+            .approximateTrimming();
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRedirectStore.class);
+
+    private final RedisAsyncCommands<byte[], byte[]> commands;
+    private final Duration pinTtl;
+    private final Map<String, PinnedLocation> pinnedLocations = new ConcurrentHashMap<>();
+
+    public RedisRedirectStore(RedisAsyncCommands<byte[], byte[]> commands, Duration pinTtl) {
+        this.commands = commands;
+        this.pinTtl = pinTtl;
+    }
+
+    @Override
+    public CompletionStage<CharSequence> findLocation(String shortCode) {
+        PinnedLocation pinned = pinnedLocations.get(shortCode);
+        if (pinned != null) {
+            if (System.nanoTime() - pinned.pinnedUntilNanos() < 0) {
+                return CompletableFuture.completedFuture(pinned.location());
+            }
+            pinnedLocations.remove(shortCode, pinned);
+        }
+        return commands.get(cacheKey(shortCode)).thenApply(RedisRedirectStore::toLocationHeader);
+    }
+
+    /**
+     * Pins the given codes for {@code pinTtl}. Codes pinned already are extended, unless their
+     * link expires sooner; the others are read from Redis together with their remaining TTL.
+     * Lapsed pins are dropped here, which bounds the map by the codes announced within one
+     * {@code pinTtl}.
+     */
+    public void pin(Collection<String> shortCodes) {
+        long nowNanos = System.nanoTime();
+        long pinnedUntilNanos = nowNanos + pinTtl.toNanos();
+        pinnedLocations.values().removeIf(pinned -> nowNanos - pinned.pinnedUntilNanos() >= 0);
+        for (String shortCode : shortCodes) {
+            PinnedLocation extended = pinnedLocations.computeIfPresent(shortCode, (code, pinned) ->
+                    pinned.extendedTo(pinnedUntilNanos));
+            if (extended != null) {
+                continue;
+            }
+            byte[] key = cacheKey(shortCode);
+            commands.get(key).thenCombine(commands.pttl(key), (originalUrl, remainingMillis) -> {
+                if (originalUrl != null && remainingMillis != null && remainingMillis != -2) {
+                    Long linkDeadlineNanos = remainingMillis < 0
+                            ? null
+                            : nowNanos + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+                    pinnedLocations.put(shortCode, new PinnedLocation(toLocationHeader(originalUrl), linkDeadlineNanos, 0)
+                            .extendedTo(pinnedUntilNanos));
+                }
+                return null;
+            }).exceptionally(ex -> {
+                log.warn("Could not pin hot code {}", shortCode, ex);
+                return null;
+            });
+        }
+    }
+
+    public void unpin(Collection<String> shortCodes) {
+        pinnedLocations.keySet().removeAll(shortCodes);
+    }
+
+    Set<String> getPinnedShortCodes() {
+        return Set.copyOf(pinnedLocations.keySet());
+    }
+
+    private static byte[] cacheKey(String shortCode) {
+        return (CACHE_KEY_PREFIX + shortCode).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void recordClick(String shortCode, Click click) {
+        byte[] code = shortCode.getBytes(StandardCharsets.US_ASCII);
+        commands.hincrby(CLICKS_KEY, code, 1)
+                .exceptionally(ex -> {
+                    log.warn("Could not count click for {}", shortCode, ex);
+                    return null;
+                });
+        commands.xadd(CLICK_EVENTS_KEY, CLICK_EVENT_ARGS, toFields(code, click))
+                .exceptionally(ex -> {
+                    log.warn("Could not queue click event for {}", shortCode, ex);
+                    return null;
+                });
+    }
+
+    static Map<byte[], byte[]> toFields(byte[] shortCode, Click click) {
+        Map<byte[], byte[]> fields = new HashMap<>(12);
+        fields.put(bytes(FIELD_TIMESTAMP), bytes(Long.toString(click.timestampMillis())));
+        fields.put(bytes(FIELD_SHORT_CODE), shortCode);
+        putIfPresent(fields, FIELD_CLIENT_ADDRESS, click.clientAddress());
+        putIfPresent(fields, FIELD_REFERRER, click.referrer());
+        putIfPresent(fields, FIELD_USER_AGENT, click.userAgent());
+        putIfPresent(fields, FIELD_REGION, click.region());
+        return fields;
+    }
+
+    private static void putIfPresent(Map<byte[], byte[]> fields, String field, String value) {
+        if (value != null) {
+            fields.put(bytes(field), value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Wraps the cached bytes as the header value without decoding them. Non-ASCII URLs are
+     * escaped the same way the service's {@code ResponseEntity.location} does.
+     */
+    static CharSequence toLocationHeader(byte[] originalUrl) {
+        if (originalUrl == null) {
+            return null;
+        }
+        for (byte b : originalUrl) {
+            if (b < 0) {
+                return URI.create(new String(originalUrl, StandardCharsets.UTF_8)).toASCIIString();
+            }
+        }
+        return new AsciiString(originalUrl, false);
+    }
+
+    /**
+     * @param linkDeadlineNanos when the link's Redis entry expires, or {@code null} if it does not
+     */
+    private record PinnedLocation(CharSequence location, Long linkDeadlineNanos, long pinnedUntilNanos) {
+
+        PinnedLocation extendedTo(long untilNanos) {
+            boolean expiresFirst = linkDeadlineNanos != null && linkDeadlineNanos - untilNanos < 0;
+            return new PinnedLocation(location, linkDeadlineNanos, expiresFirst ? linkDeadlineNanos : untilNanos);
+        }
+    }
+}
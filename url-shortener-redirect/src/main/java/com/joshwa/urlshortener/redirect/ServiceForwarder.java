@@ -0,0 +1,20 @@
+package com.joshwa.urlshortener.redirect;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Passes requests this tier cannot answer to the full service.
+ */
+public interface ServiceForwarder {
+
+    /**
+     * @param headers request headers to pass on, such as {@code X-Forwarded-For}
+     * @return the service's response; fails with an {@link IllegalArgumentException} when
+     * {@code pathAndQuery} is not a valid request target
+     */
+    CompletionStage<ForwardedResponse> forward(String pathAndQuery, Map<String, String> headers);
+
+    record ForwardedResponse(int status, String location, String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.joshwa.urlshortener.redirect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheChannelListenerTest {
+
+    @Mock
+    private RedisRedirectStore redirectStore;
+
+    @Test
+    void shouldPinAnnouncedHotCodes() {
+        new CacheChannelListener(redirectStore).message(CacheChannelListener.HOT_KEYS_CHANNEL, "viral001,viral002");
+
+        verify(redirectStore).pin(List.of("viral001", "viral002"));
+    }
+
+    @Test
+    void shouldUnpinInvalidatedCodes() {
+        new CacheChannelListener(redirectStore).message(CacheChannelListener.INVALIDATION_CHANNEL, "deleted1");
+
+        verify(redirectStore).unpin(List.of("deleted1"));
+        verifyNoMoreInteractions(redirectStore);
+    }
+}
@@ -0,0 +1,195 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectHandlerTest {
+
+    @Mock
+    private RedirectStore redirectStore;
+
+    @Mock
+    private ServiceForwarder serviceForwarder;
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel(new RedirectHandler(redirectStore, serviceForwarder, "CF-IPCountry"));
+    }
+
+    @Test
+    void shouldRedirectFromCache_andCountClick() {
+        when(redirectStore.findLocation("abc12345"))
+                .thenReturn(CompletableFuture.completedFuture("https://example.com"));
+
+        FullHttpResponse response = request(HttpMethod.GET, "/abc12345");
+
+        assertEquals(HttpResponseStatus.FOUND, response.status());
+        assertEquals("https://example.com", response.headers().get(HttpHeaderNames.LOCATION));
+        verify(redirectStore).recordClick(eq("abc12345"), any(RedirectStore.Click.class));
+        verifyNoInteractions(serviceForwarder);
+        response.release();
+    }
+
+    @Test
+    void shouldForwardToService_whenCodeNotCached() {
+        when(redirectStore.findLocation("abc12345")).thenReturn(CompletableFuture.completedFuture(null));
+        when(serviceForwarder.forward(eq("/abc12345"), anyMap())).thenReturn(CompletableFuture.completedFuture(
+                new ServiceForwarder.ForwardedResponse(404, null, "text/plain",
+                        "The requested short URL does not exist.".getBytes(StandardCharsets.UTF_8))));
+
+        FullHttpResponse response = request(HttpMethod.GET, "/abc12345");
+
+        assertEquals(HttpResponseStatus.NOT_FOUND, response.status());
+        assertEquals("The requested short URL does not exist.", response.content().toString(StandardCharsets.UTF_8));
+        verify(redirectStore, never()).recordClick(anyString(), any());
+        response.release();
+    }
+
+    @Test
+    void shouldReturnBadGateway_whenServiceUnreachable() {
+        when(serviceForwarder.forward(eq("/swagger-ui.html"), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new java.net.ConnectException()));
+
+        FullHttpResponse response = request(HttpMethod.GET, "/swagger-ui.html");
+
+        assertEquals(HttpResponseStatus.BAD_GATEWAY, response.status());
+        verifyNoInteractions(redirectStore);
+        response.release();
+    }
+
+    @Test
+    void shouldReturnBadRequestAndClose_whenQueryCannotBeForwarded() {
+        channel = new EmbeddedChannel(new RedirectHandler(redirectStore,
+                new HttpServiceForwarder(HttpClient.newHttpClient(), "http://localhost:8081", Duration.ofSeconds(1)),
+                "CF-IPCountry"));
+        when(redirectStore.findLocation("abc12345")).thenReturn(CompletableFuture.completedFuture(null));
+
+        FullHttpResponse response = request(HttpMethod.GET, "/abc12345?q=|");
+
+        assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+        assertFalse(channel.isOpen());
+        response.release();
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenForwarderThrows() {
+        when(serviceForwarder.forward(eq("/%zz"), anyMap())).thenThrow(new IllegalArgumentException("Malformed escape"));
+
+        FullHttpResponse response = request(HttpMethod.GET, "/%zz");
+
+        assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+        response.release();
+    }
+
+    @Test
+    void shouldPassClientHeadersToService_whenForwarding() {
+        when(redirectStore.findLocation("abc12345")).thenReturn(CompletableFuture.completedFuture(null));
+        when(serviceForwarder.forward(eq("/abc12345"), anyMap())).thenReturn(CompletableFuture.completedFuture(
+                new ServiceForwarder.ForwardedResponse(302, "https://example.com", null, new byte[0])));
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/abc12345");
+        request.headers()
+                .set("X-Forwarded-For", "203.0.113.7")
+                .set(HttpHeaderNames.USER_AGENT, "Mozilla/5.0 (iPhone)")
+                .set(HttpHeaderNames.REFERER, "https://t.co/x")
+                .set("CF-IPCountry", "DE")
+                .set(HttpHeaderNames.COOKIE, "session=secret");
+
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+
+        assertEquals(HttpResponseStatus.FOUND, response.status());
+        verify(serviceForwarder).forward("/abc12345", Map.of(
+                "X-Forwarded-For", "203.0.113.7",
+                "user-agent", "Mozilla/5.0 (iPhone)",
+                "referer", "https://t.co/x",
+                "CF-IPCountry", "DE"));
+        response.release();
+    }
+
+    @Test
+    void shouldRecordClickWithRequestDetails() {
+        when(redirectStore.findLocation("abc12345"))
+                .thenReturn(CompletableFuture.completedFuture("https://example.com"));
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/abc12345");
+        request.headers()
+                .set(HttpHeaderNames.USER_AGENT, "Mozilla/5.0")
+                .set("CF-IPCountry", "US");
+
+        channel.writeInbound(request);
+        ((FullHttpResponse) channel.readOutbound()).release();
+
+        ArgumentCaptor<RedirectStore.Click> click = ArgumentCaptor.forClass(RedirectStore.Click.class);
+        verify(redirectStore).recordClick(eq("abc12345"), click.capture());
+        assertEquals("Mozilla/5.0", click.getValue().userAgent());
+        assertEquals("US", click.getValue().region());
+        assertNull(click.getValue().referrer());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "198.51.100.4,,198.51.100.4",
+            "198.51.100.4,203.0.113.7,198.51.100.4",
+            "10.0.0.5,'203.0.113.7, 192.0.2.1',192.0.2.1",
+            "127.0.0.1,,127.0.0.1"
+    })
+    void clientAddressTest(String peer, String forwardedFor, String expected) throws Exception {
+        InetSocketAddress remoteAddress = new InetSocketAddress(InetAddress.getByName(peer), 40000);
+
+        assertEquals(expected, RedirectHandler.clientAddress(remoteAddress, forwardedFor));
+    }
+
+    @Test
+    void shouldRejectNonGetRequests() {
+        FullHttpResponse response = request(HttpMethod.POST, "/abc12345");
+
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, response.status());
+        verifyNoInteractions(redirectStore, serviceForwarder);
+        response.release();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/abc12345,abc12345",
+            "/abc12345?utm=x,abc12345",
+            "/,",
+            "/api/v1/short-urls,",
+            "/abc-123,",
+            "/swagger-ui.html,"
+    })
+    void shortCodeOfTest(String uri, String expected) {
+        assertEquals(expected, RedirectHandler.shortCodeOf(uri));
+    }
+
+    private FullHttpResponse request(HttpMethod method, String uri) {
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri));
+        return channel.readOutbound();
+    }
+}
@@ -0,0 +1,119 @@
+package com.joshwa.urlshortener.redirect;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisRedirectStoreTest {
+
+    @Mock
+    private RedisAsyncCommands<byte[], byte[]> commands;
+
+    @Test
+    void shouldUseAsciiBytesAsHeaderValue() {
+        CharSequence location = RedisRedirectStore.toLocationHeader(
+                "https://example.com/a?b=c".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("https://example.com/a?b=c", location.toString());
+    }
+
+    @Test
+    void shouldEscapeNonAsciiUrls() {
+        CharSequence location = RedisRedirectStore.toLocationHeader(
+                "https://example.com/café".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("https://example.com/caf%C3%A9", location.toString());
+    }
+
+    @Test
+    void shouldWriteOnlyPresentClickFields() {
+        Map<byte[], byte[]> fields = RedisRedirectStore.toFields("abc12345".getBytes(StandardCharsets.US_ASCII),
+                new RedirectStore.Click(1_700_000_000_000L, "203.0.113.7", null, "Mozilla/5.0", "DE"));
+
+        Map<String, String> decoded = new HashMap<>();
+        fields.forEach((field, value) ->
+                decoded.put(new String(field, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8)));
+        assertEquals(Map.of("t", "1700000000000", "c", "abc12345", "a", "203.0.113.7", "u", "Mozilla/5.0", "g", "DE"),
+                decoded);
+    }
+
+    @Test
+    void shouldReturnNullForMissingEntry() {
+        assertNull(RedisRedirectStore.toLocationHeader(null));
+    }
+
+    @Test
+    void shouldAnswerPinnedCode_withoutRedis() {
+        RedisRedirectStore store = new RedisRedirectStore(commands, Duration.ofSeconds(30));
+        when(commands.get(any())).thenReturn(completed("https://viral.example".getBytes(StandardCharsets.UTF_8)));
+        when(commands.pttl(any())).thenReturn(completed(-1L));
+
+        store.pin(List.of("viral001"));
+
+        assertEquals(Set.of("viral001"), store.getPinnedShortCodes());
+        assertEquals("https://viral.example",
+                store.findLocation("viral001").toCompletableFuture().join().toString());
+        verify(commands, times(1)).get(any());
+    }
+
+    @Test
+    void shouldNotPin_whenRedisHasNoEntry() {
+        RedisRedirectStore store = new RedisRedirectStore(commands, Duration.ofSeconds(30));
+        when(commands.get(any())).thenReturn(completed(null));
+        when(commands.pttl(any())).thenReturn(completed(-2L));
+
+        store.pin(List.of("gone0001"));
+
+        assertTrue(store.getPinnedShortCodes().isEmpty());
+    }
+
+    @Test
+    void shouldGoBackToRedis_afterUnpin() {
+        RedisRedirectStore store = new RedisRedirectStore(commands, Duration.ofSeconds(30));
+        when(commands.get(any())).thenReturn(completed("https://viral.example".getBytes(StandardCharsets.UTF_8)));
+        when(commands.pttl(any())).thenReturn(completed(60_000L));
+        store.pin(List.of("viral001"));
+
+        store.unpin(List.of("viral001"));
+        store.findLocation("viral001").toCompletableFuture().join();
+
+        assertTrue(store.getPinnedShortCodes().isEmpty());
+        verify(commands, times(2)).get(any());
+    }
+
+    private static <T> RedisFuture<T> completed(T value) {
+        CompletedRedisFuture<T> future = new CompletedRedisFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    private static class CompletedRedisFuture<T> extends CompletableFuture<T> implements RedisFuture<T> {
+
+        @Override
+        public String getError() {
+            return null;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
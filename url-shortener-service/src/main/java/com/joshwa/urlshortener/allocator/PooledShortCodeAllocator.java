@@ -0,0 +1,32 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out random codes from the background-filled {@link ShortCodePool}. When the pool has
+ * run dry it falls back to the inline check-and-retry of {@link RandomShortCodeAllocator}.
+ */
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.short-code.strategy", havingValue = "pooled")
+public class PooledShortCodeAllocator implements ShortCodeAllocator {
+
+    private final ShortCodePool shortCodePool;
+    private final RandomShortCodeAllocator fallbackAllocator;
+
+    public PooledShortCodeAllocator(ShortCodePool shortCodePool, ShortUrlRepository shortUrlRepository,
+                                    ShortUrlShards shortUrlShards, ShortUrlMetrics metrics) {
+        this.shortCodePool = shortCodePool;
+        this.fallbackAllocator = new RandomShortCodeAllocator(shortUrlRepository, shortUrlShards, metrics);
+    }
+
+    @Override
+    public String allocate() throws ShortCodeGenerationException {
+        String shortCode = shortCodePool.poll();
+        return shortCode != null ? shortCode : fallbackAllocator.allocate();
+    }
+}
@@ -0,0 +1,47 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.SHORT_CODE_GENERATION_EXCEPTION_MESSAGE;
+import static com.joshwa.urlshortener.utility.UrlUtils.generateShortCode;
+
+/**
+ * Draws random 8-character codes and checks each one against the database, retrying on
+ * collision. Needs one uniqueness query per attempt.
+ */
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.short-code.strategy", havingValue = "random")
+public class RandomShortCodeAllocator implements ShortCodeAllocator {
+
+    public static final int SHORT_CODE_LENGTH=8;
+    public static final int MAX_SHORT_CODE_GENERATION_ATTEMPTS=10;
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlShards shortUrlShards;
+    private final ShortUrlMetrics metrics;
+
+    public RandomShortCodeAllocator(ShortUrlRepository shortUrlRepository, ShortUrlShards shortUrlShards,
+                                    ShortUrlMetrics metrics) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlShards = shortUrlShards;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String allocate() throws ShortCodeGenerationException {
+        for (int attempt = 0; attempt < MAX_SHORT_CODE_GENERATION_ATTEMPTS; attempt++) {
+            String shortCode = generateShortCode(SHORT_CODE_LENGTH);
+            if (!shortUrlShards.onShardOf(shortCode, () -> shortUrlRepository.existsByShortCode(shortCode))) {
+                metrics.recordAllocationAttempts(attempt + 1);
+                return shortCode;
+            }
+        }
+        metrics.recordAllocationAttempts(MAX_SHORT_CODE_GENERATION_ATTEMPTS);
+        throw new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE);
+    }
+}
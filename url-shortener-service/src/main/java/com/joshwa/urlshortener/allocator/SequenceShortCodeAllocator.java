@@ -0,0 +1,109 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.SHORT_CODE_GENERATION_EXCEPTION_MESSAGE;
+import static com.joshwa.urlshortener.utility.UrlUtils.toBase62;
+
+/**
+ * Issues codes from numeric ID ranges leased from the database, so no two codes can ever
+ * collide and no uniqueness query is needed. IDs are optionally scrambled with a reversible
+ * permutation so consecutive links do not get guessable neighbouring codes.
+ *
+ * <p>Codes are {@value #SHORT_CODE_LENGTH} characters wide: every ID below 2^53 fits, and the
+ * extra character keeps them apart from the 8-character codes issued by
+ * {@link RandomShortCodeAllocator}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.short-code.strategy", havingValue = "sequence",
+        matchIfMissing = true)
+public class SequenceShortCodeAllocator implements ShortCodeAllocator {
+
+    public static final int SHORT_CODE_LENGTH = 9;
+    static final String SEQUENCE_NAME = "short_code";
+
+    private static final int ID_BITS = 53;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final long MULTIPLIER_1 = 0x1D8E4E27C47D1L;
+    private static final long MULTIPLIER_2 = 0x0A3B195354A39L;
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+
+    private final ShortCodeRangeLeaser rangeLeaser;
+    private final int blockSize;
+    private final boolean obfuscate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long nextId;
+    private long blockEnd;
+
+    public SequenceShortCodeAllocator(
+            ShortCodeRangeLeaser rangeLeaser,
+            @Value("${joshwa.shorturlapp.short-code.block-size}") int blockSize,
+            @Value("${joshwa.shorturlapp.short-code.obfuscate}") boolean obfuscate) {
+        this.rangeLeaser = rangeLeaser;
+        this.blockSize = blockSize;
+        this.obfuscate = obfuscate;
+    }
+
+    @Override
+    public String allocate() throws ShortCodeGenerationException {
+        return encode(nextId());
+    }
+
+    static String encode(long id, boolean obfuscate) {
+        return toBase62(obfuscate ? permute(id) : id, SHORT_CODE_LENGTH);
+    }
+
+    /**
+     * Bijection on [0, 2^53): odd multipliers are invertible modulo a power of two and the
+     * xor-shift is invertible, so distinct IDs always map to distinct codes.
+     */
+    static long permute(long id) {
+        long value = (id * MULTIPLIER_1) & ID_MASK;
+        value ^= value >>> 27;
+        value = (value * MULTIPLIER_2) & ID_MASK;
+        value ^= value >>> 26;
+        return value;
+    }
+
+    private String encode(long id) {
+        return encode(id, obfuscate);
+    }
+
+    private long nextId() throws ShortCodeGenerationException {
+        lock.lock();
+        try {
+            if (nextId >= blockEnd) {
+                leaseBlock();
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void leaseBlock() throws ShortCodeGenerationException {
+        for (int attempt = 1; attempt <= MAX_LEASE_ATTEMPTS; attempt++) {
+            try {
+                long blockStart = rangeLeaser.leaseBlock(SEQUENCE_NAME, blockSize);
+                if (blockStart + blockSize - 1 > ID_MASK) {
+                    throw new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE);
+                }
+                nextId = blockStart;
+                blockEnd = blockStart + blockSize;
+                return;
+            } catch (DataAccessException ex) {
+                log.warn("Leasing a short code block failed (attempt {} of {}).", attempt, MAX_LEASE_ATTEMPTS, ex);
+            }
+        }
+        throw new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE);
+    }
+}
@@ -0,0 +1,26 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strategy for issuing new short codes. The active strategy is selected with
+ * {@code joshwa.shorturlapp.short-code.strategy}.
+ * <p>
+ * Call it outside a transaction. An allocation may lease IDs in a transaction of its own, and
+ * a caller holding a pooled connection would make that lease wait for a second one.
+ */
+public interface ShortCodeAllocator {
+
+    String allocate() throws ShortCodeGenerationException;
+
+    default List<String> allocate(int count) throws ShortCodeGenerationException {
+        List<String> shortCodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shortCodes.add(allocate());
+        }
+        return shortCodes;
+    }
+}
@@ -0,0 +1,130 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.joshwa.urlshortener.allocator.RandomShortCodeAllocator.SHORT_CODE_LENGTH;
+import static com.joshwa.urlshortener.utility.UrlUtils.generateShortCode;
+
+/**
+ * Bounded, lock-free pool of random short codes that were already checked for uniqueness.
+ * {@link #refill()} tops it up in the background with one IN query per batch of candidates.
+ * In shared mode the checked codes go into a Redis list first and every node pulls chunks
+ * from it, so nodes never hand out the same pre-generated code.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.short-code.strategy", havingValue = "pooled")
+public class ShortCodePool {
+
+    static final String SHARED_POOL_KEY = "shorturl:code-pool";
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlShards shortUrlShards;
+    private final StringRedisTemplate redisTemplate;
+    private final int capacity;
+    private final int lowWaterMark;
+    private final int batchSize;
+    private final boolean shared;
+
+    private final ConcurrentLinkedQueue<String> codes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    public ShortCodePool(
+            ShortUrlRepository shortUrlRepository,
+            ShortUrlShards shortUrlShards,
+            StringRedisTemplate redisTemplate,
+            @Value("${joshwa.shorturlapp.short-code.pool.capacity}") int capacity,
+            @Value("${joshwa.shorturlapp.short-code.pool.low-water-mark}") int lowWaterMark,
+            @Value("${joshwa.shorturlapp.short-code.pool.batch-size}") int batchSize,
+            @Value("${joshwa.shorturlapp.short-code.pool.shared}") boolean shared) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlShards = shortUrlShards;
+        this.redisTemplate = redisTemplate;
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.batchSize = batchSize;
+        this.shared = shared;
+    }
+
+    /**
+     * @return a pre-checked code, or {@code null} when the pool has run dry
+     */
+    public String poll() {
+        String shortCode = codes.poll();
+        if (shortCode != null) {
+            depth.decrementAndGet();
+        }
+        return shortCode;
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Refills the pool up to its capacity once it has dropped below the low-water mark.
+     *
+     * @return number of codes added to the local pool
+     */
+    public int refill() {
+        if (depth.get() >= lowWaterMark) {
+            return 0;
+        }
+        int added = 0;
+        while (depth.get() < capacity) {
+            int wanted = Math.min(batchSize, capacity - depth.get());
+            List<String> batch = shared ? takeFromSharedPool(wanted) : generateCheckedCodes(wanted);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (String shortCode : batch) {
+                if (offer(shortCode)) {
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    private boolean offer(String shortCode) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return false;
+        }
+        codes.offer(shortCode);
+        return true;
+    }
+
+    private List<String> takeFromSharedPool(int wanted) {
+        Long sharedDepth = redisTemplate.opsForList().size(SHARED_POOL_KEY);
+        if (sharedDepth == null || sharedDepth < wanted) {
+            redisTemplate.opsForList().rightPushAll(SHARED_POOL_KEY, generateCheckedCodes(batchSize));
+        }
+        List<String> taken = redisTemplate.opsForList().leftPop(SHARED_POOL_KEY, wanted);
+        return taken != null ? taken : List.of();
+    }
+
+    private List<String> generateCheckedCodes(int count) {
+        Set<String> candidates = new HashSet<>(count * 2);
+        while (candidates.size() < count) {
+            candidates.add(generateShortCode(SHORT_CODE_LENGTH));
+        }
+        Map<Integer, List<String>> candidatesByShard = shortUrlShards.groupByShard(candidates, Function.identity());
+        shortUrlShards.onEveryShard(shard -> {
+            List<String> shardCandidates = candidatesByShard.getOrDefault(shard, List.of());
+            return shardCandidates.isEmpty() ? List.<String>of() : shortUrlRepository.findExistingShortCodes(shardCandidates);
+        }).forEach(candidates::removeAll);
+        return new ArrayList<>(candidates);
+    }
+}
@@ -0,0 +1,37 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.entity.ShortCodeSequence;
+import com.joshwa.urlshortener.repository.ShortCodeSequenceRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leases contiguous ID blocks from the {@code short_code_sequence} table. Each lease is a
+ * short transaction of its own that row-locks the sequence, so concurrent nodes always get
+ * disjoint blocks.
+ */
+@Component
+public class ShortCodeRangeLeaser {
+
+    static final long FIRST_ID = 1L;
+
+    private final ShortCodeSequenceRepository sequenceRepository;
+
+    public ShortCodeRangeLeaser(ShortCodeSequenceRepository sequenceRepository) {
+        this.sequenceRepository = sequenceRepository;
+    }
+
+    /**
+     * @return the first ID of the leased block; the block covers {@code blockSize} IDs
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long leaseBlock(String sequenceName, int blockSize) {
+        ShortCodeSequence sequence = sequenceRepository.findForUpdate(sequenceName)
+                .orElseGet(() -> new ShortCodeSequence(sequenceName, FIRST_ID));
+        long blockStart = sequence.getNextValue();
+        sequence.setNextValue(blockStart + blockSize);
+        sequenceRepository.save(sequence);
+        return blockStart;
+    }
+}
@@ -0,0 +1,98 @@
+package com.joshwa.urlshortener.analytics;
+
+import java.util.Map;
+
+/**
+ * Compact click record as written to the click stream. The referrer is reduced to its host
+ * and the client to a device class and a two-letter region code.
+ */
+public record ClickEvent(long timestampMillis, String shortCode, String referrerHost,
+                         UserAgentClass userAgentClass, String region) {
+
+    public static final String UNKNOWN_REGION = "XX";
+
+    static final String FIELD_TIMESTAMP = "t";
+    static final String FIELD_SHORT_CODE = "c";
+    static final String FIELD_REFERRER = "r";
+    static final String FIELD_USER_AGENT_CLASS = "u";
+    static final String FIELD_REGION = "g";
+
+    private static final int MAX_REFERRER_HOST_LENGTH = 255;
+
+    public static ClickEvent of(long timestampMillis, String shortCode, String referrer, String userAgent,
+                                String region) {
+        return new ClickEvent(timestampMillis, shortCode, referrerHost(referrer),
+                UserAgentClass.classify(userAgent), regionCode(region));
+    }
+
+    public Map<String, String> toFields() {
+        return Map.of(
+                FIELD_TIMESTAMP, Long.toString(timestampMillis),
+                FIELD_SHORT_CODE, shortCode,
+                FIELD_REFERRER, referrerHost,
+                FIELD_USER_AGENT_CLASS, userAgentClass.name(),
+                FIELD_REGION, region);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the fields are not a click event
+     */
+    public static ClickEvent fromFields(Map<?, ?> fields) {
+        if (fields == null) {
+            throw new IllegalArgumentException("Click event has no fields.");
+        }
+        Object timestamp = fields.get(FIELD_TIMESTAMP);
+        Object shortCode = fields.get(FIELD_SHORT_CODE);
+        if (timestamp == null || shortCode == null) {
+            throw new IllegalArgumentException("Not a click event: " + fields);
+        }
+        Object referrer = fields.get(FIELD_REFERRER);
+        Object userAgentClass = fields.get(FIELD_USER_AGENT_CLASS);
+        Object region = fields.get(FIELD_REGION);
+        return new ClickEvent(
+                Long.parseLong(timestamp.toString()),
+                shortCode.toString(),
+                referrer != null ? referrer.toString() : "",
+                userAgentClass != null ? UserAgentClass.valueOf(userAgentClass.toString()) : UserAgentClass.OTHER,
+                region != null ? region.toString() : UNKNOWN_REGION);
+    }
+
+    /**
+     * Lower-cased host of a Referer header value, or an empty string for direct traffic and
+     * values that are not absolute URLs.
+     */
+    static String referrerHost(String referrer) {
+        if (referrer == null) {
+            return "";
+        }
+        int schemeEnd = referrer.indexOf("://");
+        if (schemeEnd < 0) {
+            return "";
+        }
+        int hostStart = schemeEnd + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < referrer.length() && hostEnd - hostStart < MAX_REFERRER_HOST_LENGTH) {
+            char c = referrer.charAt(hostEnd);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                hostStart = hostEnd + 1;
+            }
+            hostEnd++;
+        }
+        return referrer.substring(hostStart, hostEnd).toLowerCase();
+    }
+
+    static String regionCode(String region) {
+        if (region == null || region.length() != 2 || !isAsciiLetter(region.charAt(0))
+                || !isAsciiLetter(region.charAt(1))) {
+            return UNKNOWN_REGION;
+        }
+        return region.toUpperCase();
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,181 @@
+package com.joshwa.urlshortener.analytics;
+
+import com.joshwa.urlshortener.repository.ClickRollupKey;
+import com.joshwa.urlshortener.repository.ClickRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the click stream as a member of {@link #CONSUMER_GROUP} and folds each batch into the
+ * hourly and daily rollups in one transaction before acknowledging it. Every node reads its
+ * own share of the stream. Entries this consumer read but did not acknowledge, for example
+ * because the node stopped mid-batch, are re-read first on the next run. Entries another
+ * consumer has left unacknowledged for {@code claim-min-idle}, such as those of a node that
+ * was scaled away, are claimed and rolled up here, so delivery is at-least-once.
+ */
+@Slf4j
+@Component
+public class ClickEventConsumer {
+
+    public static final String CONSUMER_GROUP = "click-rollups";
+
+    private static final byte[] CLICK_STREAM_KEY_BYTES =
+            ClickEventPublisher.CLICK_STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClickRollupRepository clickRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Consumer consumer;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration claimMinIdle;
+
+    private volatile boolean groupCreated;
+
+    public ClickEventConsumer(
+            StringRedisTemplate redisTemplate,
+            ClickRollupRepository clickRollupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${joshwa.shorturlapp.click-analytics.consumer-name}") String consumerName,
+            @Value("${joshwa.shorturlapp.click-analytics.consume-batch-size}") int batchSize,
+            @Value("${joshwa.shorturlapp.click-analytics.max-batches-per-run}") int maxBatchesPerRun,
+            @Value("${joshwa.shorturlapp.click-analytics.claim-min-idle}") Duration claimMinIdle) {
+        this.redisTemplate = redisTemplate;
+        this.clickRollupRepository = clickRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.consumer = Consumer.from(CONSUMER_GROUP, consumerName);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.claimMinIdle = claimMinIdle;
+    }
+
+    /**
+     * @return number of stream entries rolled up
+     */
+    public long consume() {
+        ensureGroup();
+        long consumed = claimIdleEntries();
+        int batches = 0;
+        ReadOffset offset = ReadOffset.from("0");
+        while (batches < maxBatchesPerRun) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(consumer,
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(ClickEventPublisher.CLICK_STREAM_KEY, offset));
+            if (records == null || records.isEmpty()) {
+                if (offset.equals(ReadOffset.lastConsumed())) {
+                    break;
+                }
+                offset = ReadOffset.lastConsumed();
+                continue;
+            }
+            rollUp(records);
+            consumed += records.size();
+            batches++;
+        }
+        return consumed;
+    }
+
+    /**
+     * Pages through the group's entries that have been pending for at least
+     * {@code claim-min-idle}, takes over those owned by other consumers and rolls them up. The
+     * claim repeats the idle check, so an entry its owner is still working on is left alone.
+     *
+     * @return number of claimed entries rolled up
+     */
+    long claimIdleEntries() {
+        long claimed = 0;
+        Range<String> range = Range.unbounded();
+        for (int pages = 0; pages < maxBatchesPerRun; pages++) {
+            PendingMessages pending = redisTemplate.opsForStream().pending(ClickEventPublisher.CLICK_STREAM_KEY,
+                    CONSUMER_GROUP, range, batchSize, claimMinIdle);
+            if (pending == null || pending.isEmpty()) {
+                break;
+            }
+            RecordId[] orphaned = pending.stream()
+                    .filter(message -> !consumer.getName().equals(message.getConsumerName()))
+                    .map(PendingMessage::getId)
+                    .toArray(RecordId[]::new);
+            if (orphaned.length > 0) {
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().claim(
+                        ClickEventPublisher.CLICK_STREAM_KEY, CONSUMER_GROUP, consumer.getName(), claimMinIdle,
+                        orphaned);
+                if (records != null && !records.isEmpty()) {
+                    log.info("Claimed {} click events left pending by other consumers.", records.size());
+                    rollUp(records);
+                    claimed += records.size();
+                }
+            }
+            if (pending.size() < batchSize) {
+                break;
+            }
+            range = Range.of(Range.Bound.exclusive(pending.get(pending.size() - 1).getIdAsString()),
+                    Range.Bound.unbounded());
+        }
+        return claimed;
+    }
+
+    private void rollUp(List<MapRecord<String, Object, Object>> records) {
+        Map<ClickRollupKey, Long> hourly = new HashMap<>();
+        Map<ClickRollupKey, Long> daily = new HashMap<>();
+        RecordId[] ids = new RecordId[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            MapRecord<String, Object, Object> record = records.get(i);
+            ids[i] = record.getId();
+            ClickEvent event;
+            try {
+                event = ClickEvent.fromFields(record.getValue());
+            } catch (IllegalArgumentException ex) {
+                log.warn("Skipping malformed click event {}.", record.getId(), ex);
+                continue;
+            }
+            Instant clickedAt = Instant.ofEpochMilli(event.timestampMillis());
+            hourly.merge(rollupKey(event, ClickRollupGranularity.HOUR.bucketStart(clickedAt)), 1L, Long::sum);
+            daily.merge(rollupKey(event, ClickRollupGranularity.DAY.bucketStart(clickedAt)), 1L, Long::sum);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            clickRollupRepository.addClicks(ClickRollupGranularity.HOUR, hourly);
+            clickRollupRepository.addClicks(ClickRollupGranularity.DAY, daily);
+        });
+        redisTemplate.opsForStream().acknowledge(ClickEventPublisher.CLICK_STREAM_KEY, CONSUMER_GROUP, ids);
+    }
+
+    private static ClickRollupKey rollupKey(ClickEvent event, Instant bucketStart) {
+        return new ClickRollupKey(event.shortCode(), bucketStart, event.userAgentClass(), event.region());
+    }
+
+    private void ensureGroup() {
+        if (groupCreated) {
+            return;
+        }
+        try {
+            redisTemplate.execute(connection -> connection.streamCommands().xGroupCreate(
+                    CLICK_STREAM_KEY_BYTES, CONSUMER_GROUP, ReadOffset.from("0"), true), true);
+        } catch (DataAccessException ex) {
+            if (!String.valueOf(ex.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw ex;
+            }
+        }
+        groupCreated = true;
+    }
+}
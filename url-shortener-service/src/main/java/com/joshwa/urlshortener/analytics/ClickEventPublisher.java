@@ -0,0 +1,208 @@
+package com.joshwa.urlshortener.analytics;
+
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fire-and-forget producer for the click stream. A redirect only captures the raw header
+ * values into a bounded, lock-free queue, so redirects never wait on each other or on the
+ * drain; a background thread classifies them and appends them to
+ * {@link #CLICK_STREAM_KEY} in pipelined batches, adding each visitor to the daily
+ * {@link UniqueVisitorCounter} HyperLogLog in the same pipeline. When the queue is full or Redis is
+ * unavailable events are dropped and counted rather than slowing redirects down.
+ */
+@Slf4j
+@Component
+public class ClickEventPublisher {
+
+    public static final String CLICK_STREAM_KEY = "shorturl:click-events";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final byte[] CLICK_STREAM_KEY_BYTES = CLICK_STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final ShortUrlMetrics metrics;
+    private final Duration visitorRetention;
+    private final boolean enabled;
+    private final String regionHeader;
+    private final int batchSize;
+    private final XAddOptions addOptions;
+    private final int queueCapacity;
+    private final ConcurrentLinkedQueue<RawClick> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread publisherThread;
+
+    private volatile boolean running;
+
+    public ClickEventPublisher(
+            StringRedisTemplate redisTemplate,
+            Clock clock,
+            ShortUrlMetrics metrics,
+            UniqueVisitorCounter uniqueVisitorCounter,
+            @Value("${joshwa.shorturlapp.click-analytics.enabled}") boolean enabled,
+            @Value("${joshwa.shorturlapp.click-analytics.region-header}") String regionHeader,
+            @Value("${joshwa.shorturlapp.click-analytics.queue-capacity}") int queueCapacity,
+            @Value("${joshwa.shorturlapp.click-analytics.publish-batch-size}") int batchSize,
+            @Value("${joshwa.shorturlapp.click-analytics.stream-max-length}") long streamMaxLength) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.metrics = metrics;
+        this.visitorRetention = uniqueVisitorCounter.getRetention();
+        this.enabled = enabled;
+        this.regionHeader = regionHeader;
+        this.batchSize = batchSize;
+        this.addOptions = XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+        this.queueCapacity = queueCapacity;
+        this.publisherThread = new Thread(this::publishLoop, "click-event-publisher");
+        this.publisherThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            running = true;
+            publisherThread.start();
+        }
+    }
+
+    /**
+     * Queues a click without blocking. Header values are read immediately; everything else
+     * happens on the publisher thread.
+     */
+    public void publish(String shortCode, String clientAddress, UnaryOperator<String> headers) {
+        if (!enabled) {
+            return;
+        }
+        queue(new RawClick(clock.millis(), shortCode, clientAddress,
+                headers.apply(HttpHeaders.REFERER), headers.apply(HttpHeaders.USER_AGENT), headers.apply(regionHeader)));
+    }
+
+    /**
+     * Queues a click that was served elsewhere, such as by the redirect tier, with the raw
+     * header values it captured.
+     */
+    public void publish(long timestampMillis, String shortCode, String clientAddress, String referrer,
+                        String userAgent, String region) {
+        if (!enabled) {
+            return;
+        }
+        queue(new RawClick(timestampMillis, shortCode, clientAddress, referrer, userAgent, region));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueuedEvents() {
+        return queued.get();
+    }
+
+    private void queue(RawClick click) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            metrics.countDroppedClickEvents(1);
+            return;
+        }
+        queue.offer(click);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        publisherThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void publishLoop() {
+        List<RawClick> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            RawClick click;
+            while (batch.size() < batchSize && (click = queue.poll()) != null) {
+                batch.add(click);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                continue;
+            }
+            queued.addAndGet(-batch.size());
+            try {
+                write(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void write(List<RawClick> batch) {
+        Map<String, List<byte[]>> visitorsByKey = new HashMap<>();
+        for (RawClick click : batch) {
+            byte[] visitorId = UniqueVisitorCounter.visitorId(click.clientAddress(), click.userAgent());
+            if (visitorId != null) {
+                visitorsByKey.computeIfAbsent(
+                        UniqueVisitorCounter.toVisitorKey(click.shortCode(), click.timestampMillis()),
+                        key -> new ArrayList<>()).add(visitorId);
+            }
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (RawClick click : batch) {
+                    connection.streamCommands().xAdd(
+                            MapRecord.create(CLICK_STREAM_KEY_BYTES, toBytes(click.toEvent().toFields())),
+                            addOptions);
+                }
+                visitorsByKey.forEach((key, visitorIds) -> {
+                    byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                    connection.hyperLogLogCommands().pfAdd(rawKey, visitorIds.toArray(byte[][]::new));
+                    connection.keyCommands().expire(rawKey, visitorRetention.toSeconds());
+                });
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            metrics.countDroppedClickEvents(batch.size());
+            log.warn("Could not publish {} click events, dropping them.", batch.size(), ex);
+        }
+    }
+
+    private static Map<byte[], byte[]> toBytes(Map<String, String> fields) {
+        Map<byte[], byte[]> encoded = new HashMap<>(fields.size() * 2);
+        fields.forEach((field, value) ->
+                encoded.put(field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8)));
+        return encoded;
+    }
+
+    record RawClick(long timestampMillis, String shortCode, String clientAddress, String referrer, String userAgent,
+                    String region) {
+
+        ClickEvent toEvent() {
+            return ClickEvent.of(timestampMillis, shortCode, referrer, userAgent, region);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.joshwa.urlshortener.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket size of a click rollup. Buckets start at whole UTC hours or days.
+ */
+public enum ClickRollupGranularity {
+    HOUR("click_rollups_hourly", ChronoUnit.HOURS, Duration.ofHours(24), 24 * 31),
+    DAY("click_rollups_daily", ChronoUnit.DAYS, Duration.ofDays(30), 366);
+
+    private final String tableName;
+    private final ChronoUnit unit;
+    private final Duration defaultRange;
+    private final int maxBuckets;
+
+    ClickRollupGranularity(String tableName, ChronoUnit unit, Duration defaultRange, int maxBuckets) {
+        this.tableName = tableName;
+        this.unit = unit;
+        this.defaultRange = defaultRange;
+        this.maxBuckets = maxBuckets;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Duration getDefaultRange() {
+        return defaultRange;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Instant nextBucket(Instant bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * @return number of buckets between two bucket starts, rounding a partial last bucket up
+     */
+    public long bucketsBetween(Instant fromBucket, Instant to) {
+        long whole = unit.between(fromBucket, to);
+        return bucketStart(to).equals(to) ? whole : whole + 1;
+    }
+}
@@ -0,0 +1,152 @@
+package com.joshwa.urlshortener.analytics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate unique visitors per short code, kept as one Redis HyperLogLog per code and UTC
+ * day. A HyperLogLog never holds more than 12 KB however many visitors it has seen (far less
+ * while sparse), and counts over a date range merge the daily keys on the fly. The code is a
+ * hash tag in the key so that all days of a link live in the same cluster slot.
+ */
+@Component
+public class UniqueVisitorCounter {
+
+    public static final String VISITORS_KEY_PREFIX = "shorturl:visitors:";
+
+    private static final int VISITOR_ID_BYTES = 8;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final Duration retention;
+    private final Duration statsWindow;
+
+    public UniqueVisitorCounter(
+            StringRedisTemplate redisTemplate,
+            Clock clock,
+            @Value("${joshwa.shorturlapp.click-analytics.visitor-retention}") Duration retention,
+            @Value("${joshwa.shorturlapp.click-analytics.visitor-stats-window}") Duration statsWindow) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.retention = retention;
+        this.statsWindow = statsWindow;
+    }
+
+    /**
+     * @return estimated unique visitors of the code over the stats window, today included
+     */
+    public long countRecent(String shortCode) {
+        LocalDate today = today();
+        return count(shortCode, today.minusDays(statsWindow.toDays() - 1), today);
+    }
+
+    /**
+     * Estimates the stats-window visitors of many codes in one pipelined round trip.
+     *
+     * @return estimates keyed by short code, for every code given
+     */
+    public Map<String, Long> countRecent(Collection<String> shortCodes) {
+        Map<String, Long> counts = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return counts;
+        }
+        LocalDate today = today();
+        LocalDate from = today.minusDays(statsWindow.toDays() - 1);
+        List<String> codes = List.copyOf(shortCodes);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String shortCode : codes) {
+                connection.hyperLogLogCommands().pfCount(toVisitorKeys(shortCode, from, today).stream()
+                        .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                        .toArray(byte[][]::new));
+            }
+            return null;
+        });
+        for (int i = 0; i < codes.size(); i++) {
+            Object result = i < results.size() ? results.get(i) : null;
+            counts.put(codes.get(i), result instanceof Long count ? count : 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates unique visitors over the UTC days {@code from} to {@code to}, both inclusive.
+     * Days older than the retention have expired and are not queried.
+     */
+    public long count(String shortCode, LocalDate from, LocalDate to) {
+        LocalDate oldestRetained = today().minusDays(retention.toDays() - 1);
+        LocalDate start = from.isBefore(oldestRetained) ? oldestRetained : from;
+        if (start.isAfter(to)) {
+            return 0;
+        }
+        Long count = redisTemplate.opsForHyperLogLog()
+                .size(toVisitorKeys(shortCode, start, to).toArray(String[]::new));
+        return count != null ? count : 0;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public static String toVisitorKey(String shortCode, LocalDate day) {
+        return VISITORS_KEY_PREFIX + "{" + shortCode + "}:" + day;
+    }
+
+    public static String toVisitorKey(String shortCode, long timestampMillis) {
+        return toVisitorKey(shortCode, LocalDate.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneOffset.UTC));
+    }
+
+    /**
+     * Opaque visitor identity for a client address and user agent. Only a truncated digest is
+     * sent to Redis, and the HyperLogLog keeps nothing but register maxima derived from it.
+     *
+     * @return the identity, or {@code null} when the client address is unknown
+     */
+    public static byte[] visitorId(String clientAddress, String userAgent) {
+        if (clientAddress == null || clientAddress.isEmpty()) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        digest.update(clientAddress.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        if (userAgent != null) {
+            digest.update(userAgent.getBytes(StandardCharsets.UTF_8));
+        }
+        return Arrays.copyOf(digest.digest(), VISITOR_ID_BYTES);
+    }
+
+    private LocalDate today() {
+        return LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    private static List<String> toVisitorKeys(String shortCode, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        List<String> keys = new ArrayList<>((int) days);
+        for (long i = 0; i < days; i++) {
+            keys.add(toVisitorKey(shortCode, from.plusDays(i)));
+        }
+        return keys;
+    }
+}
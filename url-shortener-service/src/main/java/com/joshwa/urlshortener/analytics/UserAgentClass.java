@@ -0,0 +1,45 @@
+package com.joshwa.urlshortener.analytics;
+
+/**
+ * Coarse device class of a click, derived from the User-Agent header.
+ */
+public enum UserAgentClass {
+    DESKTOP,
+    MOBILE,
+    TABLET,
+    BOT,
+    OTHER;
+
+    private static final String[] BOT_MARKERS = {"bot", "crawl", "spider", "slurp", "curl", "wget", "python", "java/", "go-http"};
+
+    public static UserAgentClass classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return OTHER;
+        }
+        for (String marker : BOT_MARKERS) {
+            if (containsIgnoreCase(userAgent, marker)) {
+                return BOT;
+            }
+        }
+        if (containsIgnoreCase(userAgent, "ipad") || containsIgnoreCase(userAgent, "tablet")) {
+            return TABLET;
+        }
+        if (containsIgnoreCase(userAgent, "mobi") || containsIgnoreCase(userAgent, "iphone")
+                || containsIgnoreCase(userAgent, "android")) {
+            return MOBILE;
+        }
+        if (containsIgnoreCase(userAgent, "mozilla")) {
+            return DESKTOP;
+        }
+        return OTHER;
+    }
+
+    private static boolean containsIgnoreCase(String value, String marker) {
+        for (int i = 0, last = value.length() - marker.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, marker, 0, marker.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.joshwa.urlshortener.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-size Count-Min sketch over short codes. Estimates never undercount; they
+ * overcount by at most about {@code 2 * total / width} with probability {@code 1 - 2^-depth}.
+ * Memory is {@code width * depth} counters regardless of how many codes are counted.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int depth;
+    private final int widthMask;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int width, int depth) {
+        int roundedWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.counters = new AtomicLongArray(roundedWidth * depth);
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+    }
+
+    /**
+     * Counts one occurrence of {@code shortCode}.
+     *
+     * @return the estimate including this occurrence
+     */
+    public long add(String shortCode) {
+        return add(shortCode, 1);
+    }
+
+    /**
+     * Counts {@code count} occurrences of {@code shortCode} at once.
+     *
+     * @return the estimate including these occurrences
+     */
+    public long add(String shortCode, long count) {
+        long hash = hash(shortCode);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.addAndGet(index(row, h1, h2), count));
+        }
+        return min;
+    }
+
+    public long estimate(String shortCode) {
+        long hash = hash(shortCode);
+        return estimate((int) hash, (int) (hash >>> 32));
+    }
+
+    private long estimate(int h1, int h2) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, h1, h2)));
+        }
+        return min;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    /**
+     * MurmurHash3 fmix64 over the cached {@link String#hashCode()}, so a redirect does not
+     * re-read the code's characters; both 32-bit halves are usable as independent hashes.
+     */
+    private static long hash(String shortCode) {
+        long hash = shortCode.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
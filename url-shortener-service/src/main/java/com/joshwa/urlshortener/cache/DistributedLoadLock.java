@@ -0,0 +1,134 @@
+package com.joshwa.urlshortener.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Optional cross-node coalescing of cache-miss loads. The node that wins a short Redis lease
+ * for a short code runs the loader; the others poll the cache for the winner's result and
+ * only fall back to loading themselves once the wait budget is spent. A winner that finds the
+ * code missing or expired publishes the outcome with {@link #publishMiss}, so the waiting nodes
+ * can answer at once instead of waiting out the budget and querying the database anyway.
+ */
+@Slf4j
+@Component
+public class DistributedLoadLock {
+
+    private static final String LOCK_KEY_PREFIX = "shorturl:lock:";
+    private static final String MISS_KEY_PREFIX = "shorturl:miss:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration lease;
+    private final Duration maxWait;
+    private final Duration pollInterval;
+
+    public DistributedLoadLock(
+            StringRedisTemplate redisTemplate,
+            @Value("${joshwa.shorturlapp.redirect.distributed-lock.enabled}") boolean enabled,
+            @Value("${joshwa.shorturlapp.redirect.distributed-lock.lease}") Duration lease,
+            @Value("${joshwa.shorturlapp.redirect.distributed-lock.wait}") Duration maxWait,
+            @Value("${joshwa.shorturlapp.redirect.distributed-lock.poll-interval}") Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.lease = lease;
+        this.maxWait = maxWait;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * @param loader        loads the value from the database and populates the cache
+     * @param cachedResult  reads the value another node may have cached, or returns {@code null}
+     */
+    public <T> T load(String shortCode, Supplier<T> loader, Supplier<T> cachedResult) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String lockKey = LOCK_KEY_PREFIX + shortCode;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, lease);
+        } catch (DataAccessException ex) {
+            log.warn("Could not acquire load lock for short code {}, loading without it.", shortCode, ex);
+            return loader.get();
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loader.get();
+            } finally {
+                release(lockKey, token);
+            }
+        }
+        T cached = awaitCachedResult(cachedResult);
+        return cached != null ? cached : loader.get();
+    }
+
+    private <T> T awaitCachedResult(Supplier<T> cachedResult) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            T cached = cachedResult.get();
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells the nodes waiting on this code's load that it resolved to a miss. The marker lives
+     * for the wait budget, which is as long as any of them keeps polling after the lease is
+     * released, so a code created right afterwards is not reported missing for longer.
+     */
+    public void publishMiss(String shortCode, NegativeLookupCache.Outcome outcome) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(MISS_KEY_PREFIX + shortCode, outcome.name(), maxWait);
+        } catch (DataAccessException ex) {
+            log.warn("Could not publish the {} outcome for short code {}.", outcome, shortCode, ex);
+        }
+    }
+
+    /**
+     * @return the miss another node published for the code, or {@code null} if there is none
+     */
+    public NegativeLookupCache.Outcome publishedMiss(String shortCode) {
+        String outcome;
+        try {
+            outcome = redisTemplate.opsForValue().get(MISS_KEY_PREFIX + shortCode);
+        } catch (DataAccessException ex) {
+            log.warn("Could not read the published outcome for short code {}.", shortCode, ex);
+            return null;
+        }
+        return outcome != null ? NegativeLookupCache.Outcome.valueOf(outcome) : null;
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (DataAccessException ex) {
+            log.warn("Could not release load lock {}, it expires after {}.", lockKey, lease, ex);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.joshwa.urlshortener.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the short codes that take the most redirects on this node, per time window. Every
+ * lookup is counted in a Count-Min sketch, and so are the redirect tier's clicks collected by
+ * this node; codes whose estimate reaches the smallest entry of a
+ * bounded min-heap of candidates replace that entry. A lookup costs {@code depth} atomic
+ * increments, plus a heap update only when a code first climbs into the candidates. Memory is
+ * fixed by the sketch size and {@code top-k}.
+ * <p>
+ * {@link #rotate()} closes the window: it returns the candidates that reached
+ * {@code min-requests} and starts counting afresh, so links that cool down drop out.
+ */
+@Component
+public class HotKeyDetector {
+
+    private final Clock clock;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int topK;
+    private final long minRequests;
+    private volatile Window window;
+    private volatile HotKeys hotKeys;
+
+    public HotKeyDetector(
+            Clock clock,
+            @Value("${joshwa.shorturlapp.hot-keys.sketch-width}") int sketchWidth,
+            @Value("${joshwa.shorturlapp.hot-keys.sketch-depth}") int sketchDepth,
+            @Value("${joshwa.shorturlapp.hot-keys.top-k}") int topK,
+            @Value("${joshwa.shorturlapp.hot-keys.min-requests}") long minRequests) {
+        this.clock = clock;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.topK = topK;
+        this.minRequests = minRequests;
+        Instant now = clock.instant();
+        this.window = new Window(now);
+        this.hotKeys = new HotKeys(now, now, List.of());
+    }
+
+    public void record(String shortCode) {
+        window.record(shortCode, 1);
+    }
+
+    /**
+     * Counts {@code requests} redirects of the code served elsewhere, such as by the redirect tier.
+     */
+    public void record(String shortCode, long requests) {
+        window.record(shortCode, requests);
+    }
+
+    /**
+     * Ends the current window and starts a new one.
+     *
+     * @return the codes of the ended window with at least {@code min-requests} lookups, most
+     * requested first
+     */
+    public HotKeys rotate() {
+        Window ended = window;
+        Instant now = clock.instant();
+        window = new Window(now);
+        hotKeys = new HotKeys(ended.start, now, ended.hottest());
+        return hotKeys;
+    }
+
+    /**
+     * @return the result of the last {@link #rotate()}
+     */
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public record HotKey(String shortCode, long estimatedRequests) {
+    }
+
+    public record HotKeys(Instant windowStart, Instant windowEnd, List<HotKey> keys) {
+    }
+
+    private final class Window {
+
+        private final Instant start;
+        private final CountMinSketch sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+        // Entries keep the estimate they were last ordered by; it is refreshed before an eviction.
+        private final PriorityQueue<HotKey> heap =
+                new PriorityQueue<>(Comparator.comparingLong(HotKey::estimatedRequests));
+        // Smallest estimate that can still enter the heap. Read without the lock, so it may lag.
+        private volatile long admissionFloor;
+
+        private Window(Instant start) {
+            this.start = start;
+            this.admissionFloor = minRequests;
+        }
+
+        void record(String shortCode, long requests) {
+            long estimate = sketch.add(shortCode, requests);
+            if (estimate < admissionFloor || candidates.contains(shortCode)) {
+                return;
+            }
+            synchronized (heap) {
+                if (!candidates.contains(shortCode)) {
+                    admit(shortCode, estimate);
+                }
+            }
+        }
+
+        private void admit(String shortCode, long estimate) {
+            if (heap.size() < topK) {
+                heap.add(new HotKey(shortCode, estimate));
+                candidates.add(shortCode);
+                if (heap.size() == topK) {
+                    admissionFloor = Math.max(minRequests, refreshedMin().estimatedRequests() + 1);
+                }
+                return;
+            }
+            HotKey min = refreshedMin();
+            if (estimate > min.estimatedRequests()) {
+                heap.poll();
+                candidates.remove(min.shortCode());
+                heap.add(new HotKey(shortCode, estimate));
+                candidates.add(shortCode);
+                min = refreshedMin();
+            }
+            admissionFloor = Math.max(minRequests, min.estimatedRequests() + 1);
+        }
+
+        /**
+         * Re-reads the estimates of the smallest entries until the head of the heap is current.
+         */
+        private HotKey refreshedMin() {
+            while (true) {
+                HotKey min = heap.peek();
+                long current = sketch.estimate(min.shortCode());
+                if (current <= min.estimatedRequests()) {
+                    return min;
+                }
+                heap.poll();
+                heap.add(new HotKey(min.shortCode(), current));
+            }
+        }
+
+        List<HotKey> hottest() {
+            List<HotKey> hottest = new ArrayList<>();
+            synchronized (heap) {
+                for (HotKey candidate : heap) {
+                    long estimate = sketch.estimate(candidate.shortCode());
+                    if (estimate >= minRequests) {
+                        hottest.add(new HotKey(candidate.shortCode(), estimate));
+                    }
+                }
+            }
+            hottest.sort(Comparator.comparingLong(HotKey::estimatedRequests).reversed());
+            return hottest;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.joshwa.urlshortener.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pins the hot codes announced by any node, this one included, on {@link ShortUrlCache#HOT_KEYS_CHANNEL}.
+ */
+@Component
+public class HotKeyPinListener implements MessageListener {
+
+    private final ShortUrlCache shortUrlCache;
+
+    public HotKeyPinListener(ShortUrlCache shortUrlCache) {
+        this.shortUrlCache = shortUrlCache;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        shortUrlCache.pinLocal(Arrays.asList(payload.split(ShortUrlCache.MESSAGE_DELIMITER)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.joshwa.urlshortener.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Answers lookups for unknown short codes without a database query. A Bloom filter of every
+ * issued code rejects codes that were never created, and a short-lived cache remembers codes
+ * that were confirmed missing or expired. New codes are announced to the other nodes over
+ * {@link #CREATED_CHANNEL}; codes whose announcement was missed are added by the periodic
+ * catch-up in {@code ShortCodeBloomFilterScheduler}.
+ */
+@Component
+public class NegativeLookupCache {
+
+    public static final String CREATED_CHANNEL = "shorturl:created";
+
+    public enum Outcome {
+        NOT_FOUND,
+        EXPIRED
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Cache<String, Outcome> confirmedMisses;
+
+    private volatile ShortCodeBloomFilter bloomFilter;
+    private volatile ShortCodeBloomFilter rebuildingFilter;
+
+    public NegativeLookupCache(
+            StringRedisTemplate redisTemplate,
+            @Value("${joshwa.shorturlapp.bloom-filter.expected-insertions}") long expectedInsertions,
+            @Value("${joshwa.shorturlapp.bloom-filter.false-positive-probability}") double falsePositiveProbability,
+            @Value("${joshwa.shorturlapp.negative-cache.ttl}") Duration negativeTtl,
+            @Value("${joshwa.shorturlapp.negative-cache.max-size}") long negativeMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.confirmedMisses = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+    }
+
+    /**
+     * @return the known negative outcome for the code, or {@code null} if it may exist and
+     * has to be looked up
+     */
+    public Outcome check(String shortCode) {
+        Outcome outcome = confirmedMisses.getIfPresent(shortCode);
+        if (outcome != null) {
+            return outcome;
+        }
+        ShortCodeBloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(shortCode)) {
+            return Outcome.NOT_FOUND;
+        }
+        return null;
+    }
+
+    public void recordNotFound(String shortCode) {
+        confirmedMisses.put(shortCode, Outcome.NOT_FOUND);
+    }
+
+    public void recordExpired(String shortCode) {
+        confirmedMisses.put(shortCode, Outcome.EXPIRED);
+    }
+
+    /**
+     * Registers newly issued codes on this node and announces them to the other nodes.
+     */
+    public void registerCreated(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        addLocal(shortCodes);
+        redisTemplate.convertAndSend(CREATED_CHANNEL, String.join(ShortUrlCache.MESSAGE_DELIMITER, shortCodes));
+    }
+
+    public void addLocal(Collection<String> shortCodes) {
+        ShortCodeBloomFilter filter = bloomFilter;
+        ShortCodeBloomFilter rebuilding = rebuildingFilter;
+        for (String shortCode : shortCodes) {
+            if (filter != null) {
+                filter.add(shortCode);
+            }
+            if (rebuilding != null) {
+                rebuilding.add(shortCode);
+            }
+        }
+        confirmedMisses.invalidateAll(shortCodes);
+    }
+
+    /**
+     * Builds a fresh Bloom filter from every issued code and swaps it in. Until the first
+     * rebuild completes every code is treated as possibly existing. Codes registered while the
+     * rebuild is running are added to both filters, so the source is only opened after the new
+     * filter starts receiving them.
+     *
+     * @param issuedShortCodes passes every issued code to the consumer it is given, from as many
+     *                         threads as it likes, and returns once all codes are passed
+     * @return number of codes loaded
+     */
+    public synchronized long rebuild(Consumer<Consumer<String>> issuedShortCodes) {
+        ShortCodeBloomFilter filter = new ShortCodeBloomFilter(expectedInsertions, falsePositiveProbability);
+        rebuildingFilter = filter;
+        LongAdder loaded = new LongAdder();
+        try {
+            issuedShortCodes.accept(shortCode -> {
+                filter.add(shortCode);
+                loaded.increment();
+            });
+            bloomFilter = filter;
+        } finally {
+            rebuildingFilter = null;
+        }
+        return loaded.sum();
+    }
+
+    public boolean isBloomFilterReady() {
+        return bloomFilter != null;
+    }
+}
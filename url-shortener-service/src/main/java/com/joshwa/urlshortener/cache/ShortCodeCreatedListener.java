@@ -0,0 +1,28 @@
+package com.joshwa.urlshortener.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Adds codes issued by other nodes, announced on {@link NegativeLookupCache#CREATED_CHANNEL},
+ * to the local Bloom filter and clears any negative entry held for them.
+ */
+@Component
+public class ShortCodeCreatedListener implements MessageListener {
+
+    private final NegativeLookupCache negativeLookupCache;
+
+    public ShortCodeCreatedListener(NegativeLookupCache negativeLookupCache) {
+        this.negativeLookupCache = negativeLookupCache;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        negativeLookupCache.addLocal(Arrays.asList(payload.split(ShortUrlCache.MESSAGE_DELIMITER)));
+    }
+}
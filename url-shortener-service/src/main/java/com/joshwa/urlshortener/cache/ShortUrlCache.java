@@ -0,0 +1,327 @@
+package com.joshwa.urlshortener.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-level cache for redirect resolution: a bounded in-process L1 in front of the shared
+ * Redis L2. L1 entries never outlive the link's expiry date, and evictions are broadcast to
+ * the other nodes over {@link #INVALIDATION_CHANNEL}.
+ * <p>
+ * Hot codes announced over {@link #HOT_KEYS_CHANNEL} are pinned in front of both levels on
+ * every node. A pin is not subject to L1 eviction, lapses after {@code pin-ttl} unless the code
+ * is announced again, and never outlives the link either.
+ */
+@Component
+public class ShortUrlCache {
+
+    public static final String CACHE_KEY_PREFIX = "shorturl:";
+    public static final String INVALIDATION_CHANNEL = "shorturl:invalidate";
+    public static final String HOT_KEYS_CHANNEL = "shorturl:hot";
+    public static final String MESSAGE_DELIMITER = ",";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final ShortUrlMetrics metrics;
+    private final Duration l1MaxTtl;
+    private final Cache<String, CachedUrl> l1Cache;
+    private final Duration pinTtl;
+    private final Map<String, PinnedUrl> pinnedUrls = new ConcurrentHashMap<>();
+
+    private final LongAdder pinnedHits = new LongAdder();
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+
+    public ShortUrlCache(
+            StringRedisTemplate redisTemplate,
+            Clock clock,
+            ShortUrlMetrics metrics,
+            @Value("${joshwa.shorturlapp.l1-cache.max-weight}") long l1MaxWeight,
+            @Value("${joshwa.shorturlapp.l1-cache.max-ttl}") Duration l1MaxTtl,
+            @Value("${joshwa.shorturlapp.hot-keys.pin-ttl}") Duration pinTtl) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.metrics = metrics;
+        this.l1MaxTtl = l1MaxTtl;
+        this.pinTtl = pinTtl;
+        this.l1Cache = Caffeine.newBuilder()
+                .maximumWeight(l1MaxWeight)
+                .weigher((String shortCode, CachedUrl cachedUrl) ->
+                        shortCode.length() + cachedUrl.originalUrl().length())
+                .expireAfter(new CachedUrlExpiry())
+                .build();
+    }
+
+    /**
+     * Resolves a short code from the pinned hot codes, then L1, then Redis. An L2 hit is promoted into L1 with a TTL
+     * capped by the remaining Redis TTL, which itself tracks the link's expiry.
+     *
+     * @return the original URL, or {@code null} when neither level holds the code
+     */
+    public String get(String shortCode) {
+        PinnedUrl pinnedUrl = pinnedUrls.get(shortCode);
+        if (pinnedUrl != null) {
+            if (System.nanoTime() - pinnedUrl.pinnedUntilNanos() < 0) {
+                pinnedHits.increment();
+                return pinnedUrl.originalUrl();
+            }
+            pinnedUrls.remove(shortCode, pinnedUrl);
+        }
+        CachedUrl cachedUrl = l1Cache.getIfPresent(shortCode);
+        if (cachedUrl != null) {
+            l1Hits.increment();
+            return cachedUrl.originalUrl();
+        }
+        l1Misses.increment();
+
+        byte[] cacheKey = toCacheKey(shortCode).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_GET, () ->
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    readWithTtl(connection, cacheKey);
+                    return null;
+                }));
+        String originalUrl = (String) results.get(0);
+        Long remainingMillis = (Long) results.get(1);
+        if (originalUrl == null || remainingMillis == null || remainingMillis == -2) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        Duration l1Ttl = remainingMillis < 0 ? l1MaxTtl : min(l1MaxTtl, Duration.ofMillis(remainingMillis));
+        putLocal(shortCode, originalUrl, l1Ttl);
+        return originalUrl;
+    }
+
+    /**
+     * Writes a resolved link to Redis and L1. Links with an expiry date are cached only for
+     * the time they have left; expired links are not cached at all.
+     */
+    public void put(String shortCode, String originalUrl, Instant expiryDate) {
+        String cacheKey = toCacheKey(shortCode);
+        if (expiryDate == null) {
+            metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_SET,
+                    () -> redisTemplate.opsForValue().set(cacheKey, originalUrl));
+            putLocal(shortCode, originalUrl, l1MaxTtl);
+            return;
+        }
+        Duration remaining = Duration.between(clock.instant(), expiryDate);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_SET,
+                () -> redisTemplate.opsForValue().set(cacheKey, originalUrl, remaining));
+        putLocal(shortCode, originalUrl, min(l1MaxTtl, remaining));
+    }
+
+    /**
+     * Writes many links to Redis in one pipeline and to L1, with the same TTLs as {@link #put}.
+     * Codes already in Redis keep their entry, so a bulk load never overrides fresher writes.
+     *
+     * @return number of links written; expired ones are skipped
+     */
+    public int putAll(Collection<ShortUrlTarget> targets) {
+        Instant now = clock.instant();
+        List<ShortUrlTarget> cacheable = targets.stream()
+                .filter(target -> target.expiryDate() == null || target.expiryDate().isAfter(now))
+                .toList();
+        if (cacheable.isEmpty()) {
+            return 0;
+        }
+        metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_SET, () ->
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (ShortUrlTarget target : cacheable) {
+                        Expiration expiration = target.expiryDate() == null
+                                ? Expiration.persistent()
+                                : Expiration.milliseconds(Duration.between(now, target.expiryDate()).toMillis());
+                        connection.stringCommands().set(
+                                toCacheKey(target.shortCode()).getBytes(StandardCharsets.UTF_8),
+                                target.originalUrl().getBytes(StandardCharsets.UTF_8),
+                                expiration, RedisStringCommands.SetOption.ifAbsent());
+                    }
+                    return null;
+                }));
+        for (ShortUrlTarget target : cacheable) {
+            putLocal(target.shortCode(), target.originalUrl(), target.expiryDate() == null
+                    ? l1MaxTtl
+                    : min(l1MaxTtl, Duration.between(now, target.expiryDate())));
+        }
+        return cacheable.size();
+    }
+
+    /**
+     * Removes the given codes from Redis and from the L1 cache of every node.
+     */
+    public void invalidate(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(shortCodes.stream().map(ShortUrlCache::toCacheKey).toList());
+        evictLocal(shortCodes);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(MESSAGE_DELIMITER, shortCodes));
+    }
+
+    public void evictLocal(Collection<String> shortCodes) {
+        pinnedUrls.keySet().removeAll(shortCodes);
+        l1Cache.invalidateAll(shortCodes);
+    }
+
+    /**
+     * Asks every node, this one included, to pin the given codes.
+     */
+    public void pinAcrossNodes(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        redisTemplate.convertAndSend(HOT_KEYS_CHANNEL, String.join(MESSAGE_DELIMITER, shortCodes));
+    }
+
+    /**
+     * Pins the given codes on this node for {@code pin-ttl}. Codes pinned already are extended
+     * without a round trip; the others are read from Redis in one pipeline, and codes Redis does
+     * not hold are skipped. Lapsed pins are dropped here, which bounds the map by the codes
+     * announced within one {@code pin-ttl}.
+     */
+    public void pinLocal(Collection<String> shortCodes) {
+        long nowNanos = System.nanoTime();
+        long pinnedUntilNanos = nowNanos + pinTtl.toNanos();
+        pinnedUrls.values().removeIf(pinnedUrl -> nowNanos - pinnedUrl.pinnedUntilNanos() >= 0);
+        List<String> unpinned = new ArrayList<>();
+        for (String shortCode : shortCodes) {
+            PinnedUrl extended = pinnedUrls.computeIfPresent(shortCode, (code, pinnedUrl) ->
+                    pinnedUrl.extendedTo(pinnedUntilNanos));
+            if (extended == null) {
+                unpinned.add(shortCode);
+            }
+        }
+        if (unpinned.isEmpty()) {
+            return;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String shortCode : unpinned) {
+                readWithTtl(connection, toCacheKey(shortCode).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        for (int i = 0; i < unpinned.size(); i++) {
+            String originalUrl = (String) results.get(2 * i);
+            Long remainingMillis = (Long) results.get(2 * i + 1);
+            if (originalUrl == null || remainingMillis == null || remainingMillis == -2) {
+                continue;
+            }
+            Long linkDeadlineNanos = remainingMillis < 0
+                    ? null
+                    : nowNanos + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+            pinnedUrls.put(unpinned.get(i), new PinnedUrl(originalUrl, linkDeadlineNanos, 0)
+                    .extendedTo(pinnedUntilNanos));
+        }
+    }
+
+    public Set<String> getPinnedShortCodes() {
+        return Set.copyOf(pinnedUrls.keySet());
+    }
+
+    public long getPinnedSize() {
+        return pinnedUrls.size();
+    }
+
+    public long getPinnedHits() {
+        return pinnedHits.sum();
+    }
+
+    public long getL1Hits() {
+        return l1Hits.sum();
+    }
+
+    public long getL1Misses() {
+        return l1Misses.sum();
+    }
+
+    public long getL2Hits() {
+        return l2Hits.sum();
+    }
+
+    public long getL2Misses() {
+        return l2Misses.sum();
+    }
+
+    public long getL1Size() {
+        return l1Cache.estimatedSize();
+    }
+
+    public static String toCacheKey(String shortCode) {
+        return CACHE_KEY_PREFIX + shortCode;
+    }
+
+    private void putLocal(String shortCode, String originalUrl, Duration ttl) {
+        l1Cache.put(shortCode, new CachedUrl(originalUrl, ttl.toNanos()));
+    }
+
+    private static void readWithTtl(RedisConnection connection, byte[] cacheKey) {
+        connection.stringCommands().get(cacheKey);
+        connection.keyCommands().pTtl(cacheKey);
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private record CachedUrl(String originalUrl, long ttlNanos) {
+    }
+
+    /**
+     * @param linkDeadlineNanos {@link System#nanoTime()} at which the link expires, or
+     *                          {@code null} when it never does
+     */
+    private record PinnedUrl(String originalUrl, Long linkDeadlineNanos, long pinnedUntilNanos) {
+
+        PinnedUrl extendedTo(long untilNanos) {
+            boolean expiresFirst = linkDeadlineNanos != null && linkDeadlineNanos - untilNanos < 0;
+            return new PinnedUrl(originalUrl, linkDeadlineNanos, expiresFirst ? linkDeadlineNanos : untilNanos);
+        }
+    }
+
+    private static class CachedUrlExpiry implements Expiry<String, CachedUrl> {
+
+        @Override
+        public long expireAfterCreate(String shortCode, CachedUrl cachedUrl, long currentTime) {
+            return cachedUrl.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String shortCode, CachedUrl cachedUrl, long currentTime,
+                                      long currentDuration) {
+            return cachedUrl.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String shortCode, CachedUrl cachedUrl, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.joshwa.urlshortener.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Evicts L1 entries announced by other nodes on {@link ShortUrlCache#INVALIDATION_CHANNEL}.
+ */
+@Component
+public class ShortUrlCacheInvalidationListener implements MessageListener {
+
+    private final ShortUrlCache shortUrlCache;
+
+    public ShortUrlCacheInvalidationListener(ShortUrlCache shortUrlCache) {
+        this.shortUrlCache = shortUrlCache;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        shortUrlCache.evictLocal(Arrays.asList(payload.split(ShortUrlCache.MESSAGE_DELIMITER)));
+    }
+}
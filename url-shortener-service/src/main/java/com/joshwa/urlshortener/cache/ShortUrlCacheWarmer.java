@@ -0,0 +1,154 @@
+package com.joshwa.urlshortener.cache;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import com.joshwa.urlshortener.repository.ShortUrlTarget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the most clicked links into Redis and L1 while the application starts. Runners finish
+ * before the readiness state turns to accepting traffic, so a freshly deployed node, or one
+ * started after Redis was flushed, does not send its first redirects to MySQL. The load is
+ * paced to {@code max-rate} links per second and stops once {@code time-budget} is spent;
+ * whatever is not loaded by then is cached on first use as usual.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.cache-warm-up.enabled", havingValue = "true")
+public class ShortUrlCacheWarmer implements ApplicationRunner {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlCache shortUrlCache;
+    private final ShortUrlShards shortUrlShards;
+    private final Clock clock;
+    private final int topLinks;
+    private final int batchSize;
+    private final int maxRate;
+    private final Duration timeBudget;
+
+    ShortUrlCacheWarmer(
+            ShortUrlRepository shortUrlRepository,
+            ShortUrlCache shortUrlCache,
+            ShortUrlShards shortUrlShards,
+            Clock clock,
+            @Value("${joshwa.shorturlapp.cache-warm-up.top-links}") int topLinks,
+            @Value("${joshwa.shorturlapp.cache-warm-up.batch-size}") int batchSize,
+            @Value("${joshwa.shorturlapp.cache-warm-up.max-rate}") int maxRate,
+            @Value("${joshwa.shorturlapp.cache-warm-up.time-budget}") Duration timeBudget) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlCache = shortUrlCache;
+        this.shortUrlShards = shortUrlShards;
+        this.clock = clock;
+        this.topLinks = topLinks;
+        this.batchSize = batchSize;
+        this.maxRate = maxRate;
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(ApplicationArguments args) {
+        try {
+            warmUp();
+        } catch (RuntimeException ex) {
+            // A cold cache is slow, not broken; never keep the node from starting over it.
+            log.warn("Cache warm-up failed, continuing with a cold cache", ex);
+        }
+    }
+
+    /**
+     * @return number of links written to the cache
+     */
+    long warmUp() {
+        Instant now = clock.instant();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + timeBudget.toNanos();
+        // Codes hash evenly across shards, so each shard's share of the top links is about equal.
+        int shardCount = shortUrlShards.getShardCount();
+        int perShard = (topLinks + shardCount - 1) / shardCount;
+        AtomicLong loaded = new AtomicLong();
+        List<Boolean> completed = shortUrlShards.onEveryShard(shard -> {
+            WarmUpBatch batch = new WarmUpBatch(startNanos, deadlineNanos, loaded);
+            shortUrlRepository.streamMostClicked(now, perShard, batch::add);
+            return batch.finish();
+        });
+        boolean withinBudget = !completed.contains(false);
+        log.info("Cache warm-up {}. Links loaded: {}, took {} ms",
+                withinBudget ? "completed" : "stopped at its time budget of " + timeBudget,
+                loaded.get(), (System.nanoTime() - startNanos) / 1_000_000);
+        return loaded.get();
+    }
+
+    private final class WarmUpBatch {
+
+        private final long startNanos;
+        private final long deadlineNanos;
+        private final AtomicLong loaded;
+        private final List<ShortUrlTarget> pending = new ArrayList<>(batchSize);
+        private boolean outOfTime;
+
+        private WarmUpBatch(long startNanos, long deadlineNanos, AtomicLong loaded) {
+            this.startNanos = startNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.loaded = loaded;
+        }
+
+        void add(ShortUrlTarget target) {
+            // Past the deadline the rest of the cursor is only drained, which the driver needs
+            // before the connection can be reused; the LIMIT keeps that short.
+            if (outOfTime) {
+                return;
+            }
+            pending.add(target);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        boolean finish() {
+            if (!outOfTime) {
+                flush();
+            }
+            return !outOfTime;
+        }
+
+        private void flush() {
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                outOfTime = true;
+                pending.clear();
+                return;
+            }
+            long total = loaded.addAndGet(shortUrlCache.putAll(pending));
+            pending.clear();
+            pace(total);
+        }
+
+        private void pace(long total) {
+            long dueNanos = startNanos + total * 1_000_000_000L / maxRate;
+            long waitNanos = Math.min(dueNanos, deadlineNanos) - System.nanoTime();
+            if (waitNanos <= 0) {
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                outOfTime = true;
+            }
+        }
+    }
+}
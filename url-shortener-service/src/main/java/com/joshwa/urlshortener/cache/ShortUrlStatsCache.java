@@ -0,0 +1,206 @@
+package com.joshwa.urlshortener.cache;
+
+import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Redis cache of stats snapshots, read with a single MGET and written with a single
+ * pipeline. Entries expire after the TTL, which bounds how stale a served snapshot can be.
+ * Entries read after {@code refresh-after} are reloaded in the background while the current
+ * snapshot is still served, so codes that are read continuously keep hitting the cache.
+ * Each entry keeps the time its load started, so callers can reject snapshots taken before
+ * a write they know about.
+ */
+@Slf4j
+@Component
+public class ShortUrlStatsCache {
+
+    public static final String STATS_KEY_PREFIX = "shorturl:stats:";
+
+    private static final int REFRESH_QUEUE_CAPACITY = 1024;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration refreshAfter;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public ShortUrlStatsCache(
+            StringRedisTemplate redisTemplate,
+            JsonMapper jsonMapper,
+            Clock clock,
+            @Value("${joshwa.shorturlapp.stats-cache.ttl}") Duration ttl,
+            @Value("${joshwa.shorturlapp.stats-cache.refresh-after}") Duration refreshAfter,
+            @Value("${joshwa.shorturlapp.stats-cache.refresh-threads}") int refreshThreads) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.refreshAfter = refreshAfter;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "stats-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns cached stats, loading the codes that are not cached with {@code loader} and
+     * writing them back. Cached entries past the refresh point are returned as they are and
+     * reloaded in the background, at most once at a time per code on this node.
+     *
+     * @param loader           loads stats for the given codes; codes it does not return are
+     *                         treated as unknown and left out of the result
+     * @param loadedNotBefore  per code, the epoch millis before which a snapshot is outdated;
+     *                         such snapshots are reloaded like missing ones
+     * @return stats keyed by short code
+     */
+    public Map<String, ShortUrlStatsResponseDTO> getAll(
+            List<String> shortCodes, Function<List<String>, List<ShortUrlStatsResponseDTO>> loader,
+            ToLongFunction<String> loadedNotBefore) {
+        Map<String, ShortUrlStatsResponseDTO> stats = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        List<String> due = new ArrayList<>();
+        long refreshBefore = clock.millis() - refreshAfter.toMillis();
+        Map<String, CachedStats> cached = getAll(shortCodes);
+        for (String shortCode : shortCodes) {
+            CachedStats entry = cached.get(shortCode);
+            if (entry == null || entry.cachedAtMillis() < loadedNotBefore.applyAsLong(shortCode)) {
+                missing.add(shortCode);
+                continue;
+            }
+            stats.put(shortCode, entry.stats());
+            if (entry.cachedAtMillis() < refreshBefore) {
+                due.add(shortCode);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadStartMillis = clock.millis();
+            List<ShortUrlStatsResponseDTO> loaded = loader.apply(missing);
+            putAll(loaded, loadStartMillis);
+            loaded.forEach(entry -> stats.put(entry.getShortCode(), entry));
+        }
+        refreshInBackground(due, loader);
+        return stats;
+    }
+
+    /**
+     * @return cached entries keyed by short code; codes that are not cached are absent
+     */
+    public Map<String, CachedStats> getAll(List<String> shortCodes) {
+        Map<String, CachedStats> cached = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return cached;
+        }
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(shortCodes.stream().map(ShortUrlStatsCache::toStatsKey).toList());
+        if (values == null) {
+            return cached;
+        }
+        for (int i = 0; i < shortCodes.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            try {
+                CachedStats entry = jsonMapper.readValue(value, CachedStats.class);
+                if (entry.stats() != null) {
+                    cached.put(shortCodes.get(i), entry);
+                }
+            } catch (JacksonException ex) {
+                log.warn("Ignoring unreadable stats cache entry for {}", shortCodes.get(i), ex);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * @param loadStartMillis when loading the stats began; a write that committed after it
+     *                        may be missing from them
+     */
+    public void putAll(Collection<ShortUrlStatsResponseDTO> stats, long loadStartMillis) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (ShortUrlStatsResponseDTO entry : stats) {
+                connection.stringCommands().set(
+                        toStatsKey(entry.getShortCode()).getBytes(StandardCharsets.UTF_8),
+                        jsonMapper.writeValueAsBytes(new CachedStats(loadStartMillis, entry)),
+                        expiration,
+                        RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refreshInBackground(List<String> shortCodes,
+                                     Function<List<String>, List<ShortUrlStatsResponseDTO>> loader) {
+        List<String> claimed = shortCodes.stream().filter(refreshing::add).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long loadStartMillis = clock.millis();
+                    putAll(loader.apply(claimed), loadStartMillis);
+                } catch (RuntimeException ex) {
+                    log.warn("Could not refresh stats for {} codes.", claimed.size(), ex);
+                } finally {
+                    claimed.forEach(refreshing::remove);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            claimed.forEach(refreshing::remove);
+        }
+    }
+
+    public static String toStatsKey(String shortCode) {
+        return STATS_KEY_PREFIX + shortCode;
+    }
+
+    /**
+     * A stats snapshot together with the time its load started.
+     */
+    public record CachedStats(long cachedAtMillis, ShortUrlStatsResponseDTO stats) {
+    }
+}
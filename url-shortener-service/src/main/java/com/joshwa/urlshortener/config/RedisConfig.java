@@ -0,0 +1,34 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.cache.HotKeyPinListener;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.cache.ShortCodeCreatedListener;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.cache.ShortUrlCacheInvalidationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ShortUrlCacheInvalidationListener invalidationListener,
+            ShortCodeCreatedListener createdListener,
+            HotKeyPinListener hotKeyPinListener) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationListener,
+                new ChannelTopic(ShortUrlCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(createdListener,
+                new ChannelTopic(NegativeLookupCache.CREATED_CHANNEL));
+        container.addMessageListener(hotKeyPinListener,
+                new ChannelTopic(ShortUrlCache.HOT_KEYS_CHANNEL));
+        return container;
+    }
+}
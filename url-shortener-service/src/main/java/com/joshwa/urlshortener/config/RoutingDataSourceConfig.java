@@ -0,0 +1,105 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ReplicaRoutingDataSource;
+import com.joshwa.urlshortener.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured datasource with routing when replica or shard URLs are
+ * configured. The primary pool is still built from {@code spring.datasource.*} and is shard 0;
+ * replicas and further shards share its credentials and driver. Replicas only serve shard 0.
+ */
+@Configuration
+@ConditionalOnExpression("!'${joshwa.shorturlapp.datasource.replica-urls}'.isBlank()"
+        + " or !'${joshwa.shorturlapp.sharding.shard-urls}'.isBlank()")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${joshwa.shorturlapp.datasource.replica-urls}'.isBlank()")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${joshwa.shorturlapp.datasource.replica-urls}") String replicaUrls,
+            @Value("${joshwa.shorturlapp.datasource.replica-pool-size}") int replicaPoolSize,
+            @Value("${joshwa.shorturlapp.datasource.replica-max-lag}") Duration maxLag) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> urls = ReplicaReadRouting.parseUrls(replicaUrls);
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = createPool(
+                    "replica-" + (i + 1), urls.get(i), replicaPoolSize, primaryDataSource, properties);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${joshwa.shorturlapp.sharding.shard-urls}'.isBlank()")
+    public ShardRoutingDataSource shardRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+            DataSourceProperties properties,
+            @Value("${joshwa.shorturlapp.sharding.shard-urls}") String shardUrls,
+            @Value("${joshwa.shorturlapp.sharding.shard-pool-size}") int shardPoolSize) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        List<String> urls = ReplicaReadRouting.parseUrls(shardUrls);
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(createPool("shard-" + (i + 1), urls.get(i), shardPoolSize, primaryDataSource, properties));
+        }
+        return new ShardRoutingDataSource(firstShard(primaryDataSource, replicaRoutingDataSource), shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+            ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        ShardRoutingDataSource shards = shardRoutingDataSource.getIfAvailable();
+        return new LazyConnectionDataSourceProxy(
+                shards != null ? shards : firstShard(primaryDataSource, replicaRoutingDataSource));
+    }
+
+    private static DataSource firstShard(HikariDataSource primaryDataSource,
+                                         ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        ReplicaRoutingDataSource replicas = replicaRoutingDataSource.getIfAvailable();
+        return replicas != null ? replicas : primaryDataSource;
+    }
+
+    private static HikariDataSource createPool(String name, String jdbcUrl, int poolSize,
+                                               HikariDataSource primaryDataSource, DataSourceProperties properties) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(jdbcUrl);
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setMaximumPoolSize(poolSize);
+        pool.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+        pool.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+        return pool;
+    }
+}
@@ -0,0 +1,59 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.entity.ShortUrl;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the short URL id sequence past every existing id. Rows written while ids came from
+ * AUTO_INCREMENT would otherwise collide with the first ids handed out by the sequence. On
+ * MySQL the sequence is emulated with a single-row table, which Hibernate creates on startup;
+ * the layout verifier is injected only so that this runs after the tables exist and the
+ * shards are known to be the ones the ids were handed out on.
+ * <p>
+ * Every shard has its own sequence, and blocks of ids are shared by all shards once fetched,
+ * so each shard's sequence counts in its own range of {@code 2^40} ids. An id is then handed
+ * out at most once across all shards, whichever shard its row ends up on.
+ */
+@Slf4j
+@Component
+public class ShortUrlIdSequenceInitializer {
+
+    static final int ID_RANGE_BITS = 40;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShortUrlShards shortUrlShards;
+
+    public ShortUrlIdSequenceInitializer(JdbcTemplate jdbcTemplate, ShortUrlShards shortUrlShards,
+                                         ShortUrlShardLayoutVerifier shardLayoutVerifier) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shortUrlShards = shortUrlShards;
+    }
+
+    @PostConstruct
+    public void alignSequenceWithExistingIds() {
+        for (int shard = 0; shard < shortUrlShards.getShardCount(); shard++) {
+            long rangeStart = (long) shard << ID_RANGE_BITS;
+            long rangeEnd = (long) (shard + 1) << ID_RANGE_BITS;
+            long maxId = shortUrlShards.onEveryShard(any -> jdbcTemplate.queryForObject(
+                            "SELECT COALESCE(MAX(id), 0) FROM short_urls WHERE id >= ? AND id < ?",
+                            Long.class, rangeStart, rangeEnd)).stream()
+                    .mapToLong(id -> id == null ? 0 : id)
+                    .max()
+                    .orElse(0);
+            long floor = Math.max(maxId, rangeStart) + ShortUrl.ID_ALLOCATION_SIZE + 1;
+            shortUrlShards.onShard(shard, () -> {
+                int updated = jdbcTemplate.update(
+                        "UPDATE " + ShortUrl.ID_SEQUENCE_NAME + " SET next_val = GREATEST(next_val, ?)", floor);
+                if (updated == 0) {
+                    jdbcTemplate.update("INSERT INTO " + ShortUrl.ID_SEQUENCE_NAME + " (next_val) VALUES (?)", floor);
+                }
+                return null;
+            });
+            log.info("Short URL id sequence of shard {} aligned. Highest existing id in its range: {}", shard, maxId);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stops startup when the configured shards do not match the ones the links were stored with.
+ * A code's shard is its hash modulo the shard count, so adding, removing or reordering shard
+ * URLs would silently send lookups to the wrong database. Every shard keeps a one-row table
+ * with its own index and the shard count, written on the first start and compared on every
+ * later one.
+ */
+@Slf4j
+@Component
+public class ShortUrlShardLayoutVerifier {
+
+    static final String LAYOUT_TABLE = "short_url_shard_layout";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShortUrlShards shortUrlShards;
+
+    public ShortUrlShardLayoutVerifier(JdbcTemplate jdbcTemplate, ShortUrlShards shortUrlShards,
+                                       ShortUrlShardSchemaInitializer shardSchemaInitializer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shortUrlShards = shortUrlShards;
+    }
+
+    @PostConstruct
+    public void verifyShardLayout() {
+        int shardCount = shortUrlShards.getShardCount();
+        List<String> mismatches = shortUrlShards.onEveryShard(shard -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + LAYOUT_TABLE
+                    + " (id TINYINT NOT NULL PRIMARY KEY, shard_index INT NOT NULL, shard_count INT NOT NULL)");
+            jdbcTemplate.update("INSERT IGNORE INTO " + LAYOUT_TABLE
+                    + " (id, shard_index, shard_count) VALUES (1, ?, ?)", shard, shardCount);
+            Map<String, Object> stored = jdbcTemplate.queryForMap(
+                    "SELECT shard_index, shard_count FROM " + LAYOUT_TABLE + " WHERE id = 1");
+            int storedIndex = ((Number) stored.get("shard_index")).intValue();
+            int storedCount = ((Number) stored.get("shard_count")).intValue();
+            if (storedIndex == shard && storedCount == shardCount) {
+                return null;
+            }
+            return "shard " + shard + " was set up as shard " + storedIndex + " of " + storedCount;
+        });
+        List<String> problems = mismatches.stream().filter(mismatch -> mismatch != null).toList();
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Configured " + shardCount + " shards, but " + String.join("; ", problems)
+                    + ". Restore the previous DB_SHARD_URLS, or migrate the links before changing the shards.");
+        }
+        log.info("Shard layout verified: {} shards.", shardCount);
+    }
+}
@@ -0,0 +1,52 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.entity.ShortUrl;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the sharded tables on every shard besides shard 0. Hibernate only manages the schema
+ * of shard 0, so the tables are copied from there with {@code SHOW CREATE TABLE} when a shard
+ * does not have them yet. Later column or index changes are not copied and have to be applied
+ * to every shard by hand. The entity manager factory is injected only so that this runs after
+ * the schema update.
+ */
+@Slf4j
+@Component
+public class ShortUrlShardSchemaInitializer {
+
+    private static final List<String> SHARDED_TABLES = List.of("short_urls", ShortUrl.ID_SEQUENCE_NAME);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShortUrlShards shortUrlShards;
+
+    public ShortUrlShardSchemaInitializer(JdbcTemplate jdbcTemplate, ShortUrlShards shortUrlShards,
+                                          EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shortUrlShards = shortUrlShards;
+    }
+
+    @PostConstruct
+    public void createShardedTables() {
+        if (!shortUrlShards.isSharded()) {
+            return;
+        }
+        for (String table : SHARDED_TABLES) {
+            String createTable = jdbcTemplate.queryForMap("SHOW CREATE TABLE " + table).get("Create Table").toString()
+                    .replaceFirst("^CREATE TABLE", "CREATE TABLE IF NOT EXISTS");
+            for (int shard = 1; shard < shortUrlShards.getShardCount(); shard++) {
+                shortUrlShards.onShard(shard, () -> {
+                    jdbcTemplate.execute(createTable);
+                    return null;
+                });
+            }
+        }
+        log.info("Sharded tables present on all {} shards.", shortUrlShards.getShardCount());
+    }
+}
@@ -0,0 +1,10 @@
+package com.joshwa.urlshortener.controller;
+
+import com.joshwa.urlshortener.dto.HotKeysResponseDTO;
+import org.springframework.http.ResponseEntity;
+
+public interface HotKeyController {
+
+    ResponseEntity<HotKeysResponseDTO> getHotKeys();
+
+}
@@ -0,0 +1,33 @@
+package com.joshwa.urlshortener.controller;
+
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.dto.HotKeysResponseDTO;
+import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@RestController
+@RequiredArgsConstructor
+public class HotKeyControllerImpl implements HotKeyController {
+
+    private final HotKeyDetector hotKeyDetector;
+    private final ShortUrlCache shortUrlCache;
+    private final ShortUrlMapper shortUrlMapper;
+
+    @Override
+    @GetMapping("/api/v1/admin/hot-keys")
+    @Operation(summary = "Get hot short codes",
+            description = "Returns the most requested short codes this node saw in its last detection window, "
+                    + "with estimated request counts, and the codes currently pinned in its memory.")
+    public ResponseEntity<HotKeysResponseDTO> getHotKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(shortUrlMapper.toHotKeysDTO(hotKeyDetector.getHotKeys(), shortUrlCache.getPinnedShortCodes()));
+    }
+}
@@ -1,18 +1,34 @@
 package com.joshwa.urlshortener.controller;
 
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.dto.ClickSeriesResponseDTO;
+import com.joshwa.urlshortener.dto.ShortUrlBatchItemResultDTO;
 import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.exception.*;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+import java.util.List;
 
 
 public interface ShortUrlController {
 
     ResponseEntity<ShortUrlResponseDTO> createShortUrl(ShortUrlRequestDTO dto)
             throws InvalidUrlException, InvalidExpiryException, ShortCodeGenerationException;
-    ResponseEntity<Void> redirect(String shortCode)
-            throws ShortUrlNotFoundException, ShortUrlExpiredException;
-    ResponseEntity<ShortUrlStatsResponseDTO> getShortUrlStats(String shortCode) throws ShortUrlNotFoundException;
+    ResponseEntity<List<ShortUrlBatchItemResultDTO>> createShortUrls(List<ShortUrlRequestDTO> dtos)
+            throws InvalidBatchException;
+    ResponseEntity<StreamingResponseBody> createShortUrlsStream(List<ShortUrlRequestDTO> dtos)
+            throws InvalidBatchException;
+    ResponseEntity<String> redirect(String shortCode, HttpServletRequest request);
+    ResponseEntity<ShortUrlStatsResponseDTO> getShortUrlStats(String shortCode);
+    ResponseEntity<ClickSeriesResponseDTO> getClickSeries(String shortCode, ClickRollupGranularity granularity,
+                                                          OffsetDateTime from, OffsetDateTime to)
+            throws InvalidTimeRangeException;
+    ResponseEntity<List<ShortUrlStatsResponseDTO>> getShortUrlStats(List<String> shortCodes)
+            throws InvalidBatchException;
 
 }
@@ -1,18 +1,39 @@
 package com.joshwa.urlshortener.controller;
 
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.dto.ClickSeriesResponseDTO;
+import com.joshwa.urlshortener.dto.ShortUrlBatchItemResultDTO;
 import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.exception.*;
+import com.joshwa.urlshortener.service.ClickAnalyticsService;
+import com.joshwa.urlshortener.service.ShortUrlBatchService;
+import com.joshwa.urlshortener.service.ShortUrlResolution;
 import com.joshwa.urlshortener.service.ShortUrlService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.SHORT_URL_EXPIRED_EXCEPTION_MESSAGE;
+import static com.joshwa.urlshortener.utility.UrlUtils.SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE;
 
 
 @RestController
@@ -20,6 +41,10 @@ import java.net.URI;
 public class ShortUrlControllerImpl implements ShortUrlController {
 
     private final ShortUrlService shortUrlService;
+    private final ShortUrlBatchService shortUrlBatchService;
+    private final ClickAnalyticsService clickAnalyticsService;
+    private final ClickEventPublisher clickEventPublisher;
+    private final JsonMapper jsonMapper;
 
     @Override
     @Operation(summary = "Create short URL",
@@ -30,28 +55,115 @@ public class ShortUrlControllerImpl implements ShortUrlController {
         return ResponseEntity.created(URI.create(responseDTO.getShortUrl())).body(responseDTO);
     }
 
+    @Override
+    @Operation(summary = "Create short URLs in bulk",
+            description = "Creates a short URL for each item and returns one result or error per item, in request order.")
+    @PostMapping(value = "/api/v1/short-urls/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ShortUrlBatchItemResultDTO>> createShortUrls(@RequestBody List<ShortUrlRequestDTO> dtos)
+            throws InvalidBatchException {
+        return ResponseEntity.ok(shortUrlBatchService.createShortUrls(dtos));
+    }
+
+    @Override
+    @Operation(summary = "Create short URLs in bulk (streaming)",
+            description = "Same as the batch endpoint, but streams one NDJSON line per item as each chunk is committed.")
+    @PostMapping(value = "/api/v1/short-urls/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createShortUrlsStream(@RequestBody List<ShortUrlRequestDTO> dtos)
+            throws InvalidBatchException {
+        shortUrlBatchService.validateBatch(dtos);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                shortUrlBatchService.createShortUrls(dtos, chunkResults -> writeNdjson(outputStream, chunkResults));
+            } catch (InvalidBatchException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @Override
     @GetMapping("/{shortCode}")
     @Operation(summary = "Redirect to original URL",
-            description = "Redirects to the original URL if the short code exists and is not expired.")
-    public ResponseEntity<Void> redirect(@PathVariable String shortCode)
-            throws ShortUrlNotFoundException, ShortUrlExpiredException {
-        String originalUrl=shortUrlService.getOriginalUrlForRedirect(shortCode);
-        return ResponseEntity
-                .status(HttpStatus.FOUND)
-                .location(URI.create(originalUrl))
-                .build();
+            description = "Redirects to the original URL if the short code exists and is not expired; "
+                    + "answers 404 for unknown and 410 for expired codes.")
+    public ResponseEntity<String> redirect(@PathVariable String shortCode, HttpServletRequest request) {
+        ShortUrlResolution resolution=shortUrlService.resolveRedirect(shortCode);
+        if (resolution.status() == ShortUrlResolution.Status.FOUND) {
+            clickEventPublisher.publish(shortCode, request.getRemoteAddr(), request::getHeader);
+        }
+        return switch (resolution.status()) {
+            case FOUND -> ResponseEntity
+                    .status(HttpStatus.FOUND)
+                    .location(URI.create(resolution.originalUrl()))
+                    .build();
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE);
+            case EXPIRED -> ResponseEntity.status(HttpStatus.GONE).body(SHORT_URL_EXPIRED_EXCEPTION_MESSAGE);
+        };
     }
 
     @Override
     @GetMapping("/api/v1/short-urls/{shortCode}/stats")
     @Operation(
             summary = "Retrieve short URL statistics",
-            description = "Returns analytics and metadata for the specified short URL, including original URL, click count, creation time, and expiry details."
+            description = "Returns analytics and metadata for the specified short URL, including original URL, click count, creation time, and expiry details. "
+                    + "Responses carry an ETag; send it back in If-None-Match to get 304 Not Modified while the stats are unchanged."
     )
-    public ResponseEntity<ShortUrlStatsResponseDTO> getShortUrlStats(@PathVariable String shortCode) throws ShortUrlNotFoundException {
-        ShortUrlStatsResponseDTO responseDTO = shortUrlService.getShortUrlStats(shortCode);
-        return ResponseEntity.ok(responseDTO);
+    public ResponseEntity<ShortUrlStatsResponseDTO> getShortUrlStats(@PathVariable String shortCode) {
+        return shortUrlService.findShortUrlStats(shortCode)
+                .map(stats -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(statsETag(stats))
+                        .body(stats))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Override
+    @GetMapping("/api/v1/short-urls/{shortCode}/clicks")
+    @Operation(
+            summary = "Retrieve a click time series",
+            description = "Returns clicks per hour or per day for the given range, broken down by device class and region. "
+                    + "Defaults to the last 24 hours (HOUR) or 30 days (DAY). Counts lag live traffic by the rollup interval."
+    )
+    public ResponseEntity<ClickSeriesResponseDTO> getClickSeries(
+            @PathVariable String shortCode,
+            @RequestParam(defaultValue = "HOUR") ClickRollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to)
+            throws InvalidTimeRangeException {
+        return ResponseEntity.of(clickAnalyticsService.getClickSeries(shortCode, granularity,
+                from != null ? from.toInstant() : null, to != null ? to.toInstant() : null));
+    }
+
+    @Override
+    @GetMapping("/api/v1/short-urls/stats")
+    @Operation(
+            summary = "Retrieve statistics for many short URLs",
+            description = "Returns statistics for each of the given short codes that exists, in request order. Unknown codes are omitted."
+    )
+    public ResponseEntity<List<ShortUrlStatsResponseDTO>> getShortUrlStats(@RequestParam("codes") List<String> shortCodes)
+            throws InvalidBatchException {
+        return ResponseEntity.ok(shortUrlService.getShortUrlStats(shortCodes));
+    }
+
+    private void writeNdjson(OutputStream outputStream, List<ShortUrlBatchItemResultDTO> itemResults) {
+        try {
+            for (ShortUrlBatchItemResultDTO itemResult : itemResults) {
+                outputStream.write(jsonMapper.writeValueAsBytes(itemResult));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The original URL and creation time of a code never change, so the mutable fields are
+     * enough to tell two snapshots of the same code apart.
+     */
+    private static String statsETag(ShortUrlStatsResponseDTO stats) {
+        return "\"" + stats.getClickCount() + "-" + stats.getUniqueVisitors() + "-"
+                + (stats.getExpiryDate() != null ? stats.getExpiryDate().toEpochSecond() : 0) + "\"";
     }
 
 }
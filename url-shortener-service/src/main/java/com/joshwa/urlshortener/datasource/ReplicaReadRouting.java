@@ -0,0 +1,69 @@
+package com.joshwa.urlshortener.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lets callers pin reads to the primary. Read-only transactions normally go to a replica (see
+ * {@link ReplicaRoutingDataSource}), which may not have caught up with the latest writes yet.
+ * Reads that must see them, or that missed on a replica, are repeated on the primary here.
+ * Without replicas every read already goes to the primary and nothing is repeated.
+ */
+@Component
+public class ReplicaReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final boolean replicasConfigured;
+
+    public ReplicaReadRouting(@Value("${joshwa.shorturlapp.datasource.replica-urls}") String replicaUrls) {
+        this.replicasConfigured = !parseUrls(replicaUrls).isEmpty();
+    }
+
+    /**
+     * Runs {@code read} so that any connection it opens comes from the primary. Has no effect
+     * on a transaction that already holds a connection.
+     */
+    public <T> T onPrimary(Supplier<T> read) {
+        if (!replicasConfigured || PRIMARY_ONLY.get() != null) {
+            return read.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    /**
+     * Runs {@code read} and, if the result counts as a miss, runs it again on the primary. A
+     * replica miss may just be replication lag, so it is never taken as final.
+     */
+    public <T> T readWithPrimaryFallback(Supplier<T> read, Predicate<T> missing) {
+        T result = read.get();
+        if (!replicasConfigured || !missing.test(result)) {
+            return result;
+        }
+        return onPrimary(read);
+    }
+
+    static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    public static List<String> parseUrls(String replicaUrls) {
+        if (replicaUrls == null) {
+            return List.of();
+        }
+        return Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+}
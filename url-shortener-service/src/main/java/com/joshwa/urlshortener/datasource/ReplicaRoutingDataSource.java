@@ -0,0 +1,152 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the
+ * primary. A replica only receives reads while its last lag check found it at most
+ * {@code maxLag} behind; when no replica qualifies, reads fall back to the primary. It has to be
+ * wrapped in a lazy connection proxy so that the routing decision is made after the
+ * transaction's read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaDataSources, Duration maxLag) {
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.replicas = new ArrayList<>(replicaDataSources.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource replicaDataSource : replicaDataSources) {
+            Replica replica = new Replica(replicaDataSource.getPoolName(), replicaDataSource);
+            replicas.add(replica);
+            targets.put(replica.name, replicaDataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaReadRouting.isPrimaryOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.inSync) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Measures the lag of every replica and updates which ones may serve reads. A replica that
+     * cannot be reached or whose replication is stopped is taken out of rotation until a later
+     * check finds it in sync again.
+     */
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            long lagSeconds;
+            try {
+                lagSeconds = measureLagSeconds(replica.jdbcTemplate);
+            } catch (DataAccessException ex) {
+                lagSeconds = Long.MAX_VALUE;
+                if (replica.inSync) {
+                    log.warn("Could not check replication lag of {}, routing its reads to the primary.",
+                            replica.name, ex);
+                }
+            }
+            boolean inSync = lagSeconds <= maxLagSeconds;
+            if (replica.inSync != inSync) {
+                log.info("Replica {} is {} ({} s behind).", replica.name,
+                        inSync ? "back in rotation" : "out of rotation",
+                        lagSeconds == Long.MAX_VALUE ? "unknown" : lagSeconds);
+            }
+            replica.lagSeconds = lagSeconds;
+            replica.inSync = inSync;
+        }
+    }
+
+    public List<String> getReplicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    /**
+     * @return lag of the named replica as of the last check, or NaN when unknown
+     */
+    public double getReplicaLagSeconds(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica.lagSeconds == Long.MAX_VALUE ? Double.NaN : replica.lagSeconds;
+            }
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * Reads the lag a MySQL replica reports about itself. Servers that report no replication
+     * status, such as a primary or a managed reader endpoint, are treated as in sync. A replica
+     * whose SQL thread is stopped reports no lag and is treated as infinitely behind.
+     */
+    static long measureLagSeconds(JdbcTemplate jdbcTemplate) {
+        List<Long> lag;
+        try {
+            lag = jdbcTemplate.query("SHOW REPLICA STATUS",
+                    (rs, rowNum) -> nullToMax(rs.getObject("Seconds_Behind_Source", Long.class)));
+        } catch (BadSqlGrammarException ex) {
+            lag = jdbcTemplate.query("SHOW SLAVE STATUS",
+                    (rs, rowNum) -> nullToMax(rs.getObject("Seconds_Behind_Master", Long.class)));
+        }
+        return lag.isEmpty() ? 0 : lag.get(0);
+    }
+
+    private static long nullToMax(Long lagSeconds) {
+        return lagSeconds != null ? lagSeconds : Long.MAX_VALUE;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile boolean inSync;
+        private volatile long lagSeconds = Long.MAX_VALUE;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard selected through {@link ShortUrlShards}, or of shard 0
+ * when none is selected. Shard 0 is the regular datasource, possibly with replica routing of
+ * its own. Like that routing it must sit behind a lazy connection proxy, so that the shard is
+ * chosen when the first statement runs rather than when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> additionalShards;
+
+    public ShardRoutingDataSource(DataSource firstShard, List<HikariDataSource> additionalShards) {
+        this.additionalShards = additionalShards;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(0, firstShard);
+        for (int i = 0; i < additionalShards.size(); i++) {
+            targets.put(i + 1, additionalShards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(firstShard);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShortUrlShards.currentShard();
+    }
+
+    @Override
+    public void close() {
+        additionalShards.forEach(HikariDataSource::close);
+    }
+}
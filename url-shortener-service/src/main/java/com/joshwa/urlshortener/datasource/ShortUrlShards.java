@@ -0,0 +1,189 @@
+package com.joshwa.urlshortener.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which database shard holds a short code and runs work against a chosen shard. The
+ * shard is a hash of the code, so a lookup or click update by code touches exactly one shard,
+ * and codes from any allocator spread evenly. Shard 0 is the regular datasource, which also
+ * keeps every table that is not sharded; the other shards come from {@code shard-urls}.
+ * <p>
+ * {@link ShardRoutingDataSource} picks the connection from the shard set here. A transaction
+ * keeps the connection it started with, so work that is already inside a transaction runs on
+ * its shard in a new one with the same read-only flag. With a single shard everything runs
+ * inline, exactly as without sharding.
+ */
+@Component
+public class ShortUrlShards {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final ReplicaReadRouting replicaReadRouting;
+    private final int shardCount;
+    private final TransactionTemplate readWriteTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService fanOutExecutor;
+
+    public ShortUrlShards(
+            PlatformTransactionManager transactionManager,
+            ReplicaReadRouting replicaReadRouting,
+            @Value("${joshwa.shorturlapp.sharding.shard-urls}") String shardUrls,
+            @Value("${joshwa.shorturlapp.sharding.fan-out-threads}") int fanOutThreads) {
+        this.replicaReadRouting = replicaReadRouting;
+        this.shardCount = 1 + ReplicaReadRouting.parseUrls(shardUrls).size();
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        this.readWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        if (isSharded()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(Math.max(shardCount, fanOutThreads), runnable -> {
+                Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(String shortCode) {
+        if (!isSharded()) {
+            return 0;
+        }
+        // Murmur3 finalizer, so that codes differing only in the last character still spread.
+        int hash = shortCode.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    /**
+     * @return the items keyed by the shard of their short code; shards without items are absent
+     */
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, String> shortCode) {
+        Map<Integer, List<T>> groups = new HashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(shortCode.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    public <T> T onShardOf(String shortCode, Supplier<T> work) {
+        return onShard(shardOf(shortCode), work);
+    }
+
+    /**
+     * Runs {@code work} on the calling thread with every connection it opens taken from
+     * {@code shard}.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        return runOnShard(shard, TransactionSynchronizationManager.isActualTransactionActive(),
+                TransactionSynchronizationManager.isCurrentTransactionReadOnly(), work);
+    }
+
+    /**
+     * Runs {@code work} once per shard, in parallel when there are several, and waits for all
+     * of them. Each call sees the caller's transaction mode and primary pinning, but runs in a
+     * transaction of its own; a failure on one shard does not roll back the others.
+     *
+     * @return the results in shard order
+     */
+    public <T> List<T> onEveryShard(IntFunction<T> work) {
+        if (!isSharded()) {
+            List<T> results = new ArrayList<>(1);
+            results.add(work.apply(0));
+            return results;
+        }
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        boolean primaryOnly = ReplicaReadRouting.isPrimaryOnly();
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            Supplier<T> task = () -> runOnShard(target, inTransaction, readOnly, () -> work.apply(target));
+            futures.add(CompletableFuture.supplyAsync(
+                    primaryOnly ? () -> replicaReadRouting.onPrimary(task) : task, fanOutExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+
+    static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    private <T> T runOnShard(int shard, boolean inTransaction, boolean readOnly, Supplier<T> work) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            if (!inTransaction) {
+                return work.get();
+            }
+            TransactionTemplate transaction = readOnly ? readOnlyTransaction : readWriteTransaction;
+            return transaction.execute(status -> work.get());
+        } finally {
+            if (previous != null) {
+                CURRENT_SHARD.set(previous);
+            } else {
+                CURRENT_SHARD.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.joshwa.urlshortener.dto;
+
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Getter
+@Setter
+@Data
+@NoArgsConstructor
+public class ClickSeriesPointDTO {
+    private OffsetDateTime bucketStart;
+    private long clicks;
+    private Map<UserAgentClass, Long> clicksByUserAgentClass = new EnumMap<>(UserAgentClass.class);
+    private Map<String, Long> clicksByRegion = new TreeMap<>();
+}
@@ -0,0 +1,24 @@
+package com.joshwa.urlshortener.dto;
+
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Data
+@NoArgsConstructor
+public class ClickSeriesResponseDTO {
+    private String shortCode;
+    private ClickRollupGranularity granularity;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+    private long totalClicks;
+    private long uniqueVisitors;
+    private List<ClickSeriesPointDTO> points;
+}
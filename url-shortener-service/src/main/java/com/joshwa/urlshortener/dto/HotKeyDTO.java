@@ -0,0 +1,15 @@
+package com.joshwa.urlshortener.dto;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Data
+@NoArgsConstructor
+public class HotKeyDTO {
+    private String shortCode;
+    private long estimatedRequests;
+}
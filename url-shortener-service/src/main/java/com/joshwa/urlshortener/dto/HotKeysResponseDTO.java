@@ -0,0 +1,20 @@
+package com.joshwa.urlshortener.dto;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Data
+@NoArgsConstructor
+public class HotKeysResponseDTO {
+    private OffsetDateTime windowStart;
+    private OffsetDateTime windowEnd;
+    private List<HotKeyDTO> hotKeys;
+    private List<String> pinnedShortCodes;
+}
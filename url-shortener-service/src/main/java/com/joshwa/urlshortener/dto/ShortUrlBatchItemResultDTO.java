@@ -0,0 +1,33 @@
+package com.joshwa.urlshortener.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShortUrlBatchItemResultDTO {
+
+    private int index;
+    private ShortUrlResponseDTO result;
+    private String error;
+
+    public static ShortUrlBatchItemResultDTO success(int index, ShortUrlResponseDTO result) {
+        ShortUrlBatchItemResultDTO itemResult = new ShortUrlBatchItemResultDTO();
+        itemResult.setIndex(index);
+        itemResult.setResult(result);
+        return itemResult;
+    }
+
+    public static ShortUrlBatchItemResultDTO failure(int index, String error) {
+        ShortUrlBatchItemResultDTO itemResult = new ShortUrlBatchItemResultDTO();
+        itemResult.setIndex(index);
+        itemResult.setError(error);
+        return itemResult;
+    }
+}
@@ -14,6 +14,7 @@ import java.time.OffsetDateTime;
 public class ShortUrlStatsResponseDTO {
     private String originalUrl;
     private Long clickCount;
+    private Long uniqueVisitors;
     private String shortCode;
     private OffsetDateTime expiryDate;
     private OffsetDateTime createdAt;
@@ -0,0 +1,42 @@
+package com.joshwa.urlshortener.entity;
+
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Clicks of one short code in one time bucket, per device class and region. Rows are written
+ * only by batched upserts from the click stream consumer; the entities exist so that the
+ * tables are managed with the rest of the schema.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+@IdClass(ClickRollupId.class)
+@NoArgsConstructor
+public abstract class ClickRollup {
+
+    @Id
+    @Column(name = "short_code", nullable = false)
+    private String shortCode;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_agent_class", nullable = false, length = 16)
+    private UserAgentClass userAgentClass;
+
+    @Id
+    @Column(name = "region", nullable = false, length = 2)
+    private String region;
+
+    @Column(name = "clicks", nullable = false)
+    private Long clicks;
+}
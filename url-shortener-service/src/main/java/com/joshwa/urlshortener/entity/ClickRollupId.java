@@ -0,0 +1,21 @@
+package com.joshwa.urlshortener.entity;
+
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickRollupId implements Serializable {
+    private String shortCode;
+    private Instant bucketStart;
+    private UserAgentClass userAgentClass;
+    private String region;
+}
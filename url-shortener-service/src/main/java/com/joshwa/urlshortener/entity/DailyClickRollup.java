@@ -0,0 +1,11 @@
+package com.joshwa.urlshortener.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "click_rollups_daily")
+@NoArgsConstructor
+public class DailyClickRollup extends ClickRollup {
+}
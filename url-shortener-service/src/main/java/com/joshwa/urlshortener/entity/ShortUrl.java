@@ -12,16 +12,38 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "short_urls")
+@Table(name = "short_urls", indexes = {
+        @Index(name = "uk_short_urls_short_code", columnList = "short_code", unique = true),
+        @Index(name = "idx_short_urls_expiry_date", columnList = "expiry_date"),
+        @Index(name = "idx_short_urls_click_count", columnList = "click_count"),
+        @Index(name = "idx_short_urls_created_at", columnList = "created_at"),
+        @Index(name = "idx_short_urls_url_hash_expiry", columnList = "original_url_hash, expiry_date")
+})
 @NoArgsConstructor
 public class ShortUrl {
+
+    /**
+     * Ids come from a pooled sequence rather than IDENTITY so that Hibernate can batch inserts.
+     */
+    public static final String ID_SEQUENCE_NAME = "short_urls_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    /**
+     * DATETIME rather than Hibernate's default TIMESTAMP, so the table can be range-partitioned
+     * by expiry date.
+     */
+    public static final String EXPIRY_DATE_COLUMN_TYPE = "datetime(6)";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE_NAME)
+    @SequenceGenerator(name = ID_SEQUENCE_NAME, sequenceName = ID_SEQUENCE_NAME, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "original_url",nullable = false)
     private String originalUrl;
 
+    @Column(name = "original_url_hash")
+    private Long originalUrlHash;
+
     @Column(name="short_code",nullable = false)
     private String shortCode;
 
@@ -36,7 +58,7 @@ public class ShortUrl {
     @UpdateTimestamp
     private Instant updatedAt;
 
-    @Column(name = "expiry_date")
+    @Column(name = "expiry_date", columnDefinition = EXPIRY_DATE_COLUMN_TYPE)
     private Instant expiryDate;
 
 }
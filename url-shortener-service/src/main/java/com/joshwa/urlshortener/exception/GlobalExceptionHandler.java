@@ -20,6 +20,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<String> handleInvalidBatchException(InvalidBatchException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTimeRangeException.class)
+    public ResponseEntity<String> handleInvalidTimeRangeException(InvalidTimeRangeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler(ShortCodeGenerationException.class)
     public ResponseEntity<String> handleShortCodeGenerationException
             (ShortCodeGenerationException ex) {
@@ -37,16 +47,4 @@ public class GlobalExceptionHandler {
             (HttpMessageNotReadableException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Required parameters are wrong.");
     }
-
-    @ExceptionHandler(ShortUrlExpiredException.class)
-    public ResponseEntity<String> handleShortUrlExpiredException
-            (ShortUrlExpiredException ex) {
-        return ResponseEntity.status(HttpStatus.GONE).body(ex.getMessage());
-    }
-
-    @ExceptionHandler(ShortUrlNotFoundException.class)
-    public ResponseEntity<String> handleShortUrlNotFoundException
-            (ShortUrlNotFoundException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
-    }
 }
@@ -0,0 +1,7 @@
+package com.joshwa.urlshortener.exception;
+
+public class InvalidBatchException extends Exception{
+    public InvalidBatchException(String message){
+        super(message);
+    }
+}
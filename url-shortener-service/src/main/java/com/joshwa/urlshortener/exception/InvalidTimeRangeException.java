@@ -0,0 +1,7 @@
+package com.joshwa.urlshortener.exception;
+
+public class InvalidTimeRangeException extends Exception{
+    public InvalidTimeRangeException(String message){
+        super(message);
+    }
+}
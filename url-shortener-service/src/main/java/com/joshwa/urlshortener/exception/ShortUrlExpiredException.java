@@ -1,8 +0,0 @@
-package com.joshwa.urlshortener.exception;
-
-public class ShortUrlExpiredException extends Exception {
-    public ShortUrlExpiredException(String message){
-        super(message);
-    }
-
-}
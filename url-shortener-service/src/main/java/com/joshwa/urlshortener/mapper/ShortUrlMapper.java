@@ -1,12 +1,17 @@
 package com.joshwa.urlshortener.mapper;
 
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.dto.HotKeyDTO;
+import com.joshwa.urlshortener.dto.HotKeysResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.entity.ShortUrl;
+import com.joshwa.urlshortener.utility.UrlUtils;
 import org.springframework.stereotype.Component;
 
 import java.time.ZoneOffset;
+import java.util.Collection;
 
 @Component
 public class ShortUrlMapper {
@@ -15,6 +20,7 @@ public class ShortUrlMapper {
         ShortUrl shortUrl=new ShortUrl();
         shortUrl.setShortCode(shortCode);
         shortUrl.setOriginalUrl(normalizedUrl);
+        shortUrl.setOriginalUrlHash(UrlUtils.hashUrl(normalizedUrl));
         if(null!=dto.getExpiryDate()) {
             shortUrl.setExpiryDate(dto.getExpiryDate().toInstant());
         }
@@ -42,4 +48,18 @@ public class ShortUrlMapper {
         }
         return responseDTO;
     }
+
+    public HotKeysResponseDTO toHotKeysDTO(HotKeyDetector.HotKeys hotKeys, Collection<String> pinnedShortCodes){
+        HotKeysResponseDTO responseDTO=new HotKeysResponseDTO();
+        responseDTO.setWindowStart(hotKeys.windowStart().atOffset(ZoneOffset.UTC));
+        responseDTO.setWindowEnd(hotKeys.windowEnd().atOffset(ZoneOffset.UTC));
+        responseDTO.setHotKeys(hotKeys.keys().stream().map(hotKey -> {
+            HotKeyDTO hotKeyDTO=new HotKeyDTO();
+            hotKeyDTO.setShortCode(hotKey.shortCode());
+            hotKeyDTO.setEstimatedRequests(hotKey.estimatedRequests());
+            return hotKeyDTO;
+        }).toList());
+        responseDTO.setPinnedShortCodes(pinnedShortCodes.stream().sorted().toList());
+        return responseDTO;
+    }
 }
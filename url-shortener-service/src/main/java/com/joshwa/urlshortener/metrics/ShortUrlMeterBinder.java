@@ -0,0 +1,77 @@
+package com.joshwa.urlshortener.metrics;
+
+import com.joshwa.urlshortener.allocator.ShortCodePool;
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.datasource.ReplicaRoutingDataSource;
+import com.joshwa.urlshortener.service.ClickCountAggregator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes counters the components already keep, without counting anything twice.
+ */
+@Component
+public class ShortUrlMeterBinder implements MeterBinder {
+
+    public static final String CACHE_REQUESTS_COUNTER = "shorturl.cache.requests";
+
+    private final ShortUrlCache shortUrlCache;
+    private final ClickCountAggregator clickCountAggregator;
+    private final ClickEventPublisher clickEventPublisher;
+    private final ObjectProvider<ShortCodePool> shortCodePool;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    public ShortUrlMeterBinder(ShortUrlCache shortUrlCache, ClickCountAggregator clickCountAggregator,
+                               ClickEventPublisher clickEventPublisher, ObjectProvider<ShortCodePool> shortCodePool,
+                               ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        this.shortUrlCache = shortUrlCache;
+        this.clickCountAggregator = clickCountAggregator;
+        this.clickEventPublisher = clickEventPublisher;
+        this.shortCodePool = shortCodePool;
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheCounter(registry, "pinned", "hit", ShortUrlCache::getPinnedHits);
+        cacheCounter(registry, "l1", "hit", ShortUrlCache::getL1Hits);
+        cacheCounter(registry, "l1", "miss", ShortUrlCache::getL1Misses);
+        cacheCounter(registry, "l2", "hit", ShortUrlCache::getL2Hits);
+        cacheCounter(registry, "l2", "miss", ShortUrlCache::getL2Misses);
+        Gauge.builder("shorturl.cache.l1.size", shortUrlCache, ShortUrlCache::getL1Size)
+                .description("Entries in the in-process redirect cache")
+                .register(registry);
+        Gauge.builder("shorturl.cache.pinned.size", shortUrlCache, ShortUrlCache::getPinnedSize)
+                .description("Hot short codes pinned in this node's memory")
+                .register(registry);
+        Gauge.builder("shorturl.clicks.pending", clickCountAggregator, ClickCountAggregator::getPendingClicks)
+                .description("Clicks not yet written to the database")
+                .register(registry);
+        Gauge.builder("shorturl.click-events.queued", clickEventPublisher, ClickEventPublisher::getQueuedEvents)
+                .description("Click analytics events waiting to be written to the click stream")
+                .register(registry);
+        shortCodePool.ifAvailable(pool -> Gauge.builder("shorturl.short-code.pool.depth", pool, ShortCodePool::getDepth)
+                .description("Pre-generated short codes left in the local pool")
+                .register(registry));
+        replicaRoutingDataSource.ifAvailable(routing -> routing.getReplicaNames().forEach(name ->
+                Gauge.builder("shorturl.db.replica.lag", routing, r -> r.getReplicaLagSeconds(name))
+                        .description("Replication lag in seconds as of the last check; NaN when unknown")
+                        .baseUnit("seconds")
+                        .tag("replica", name)
+                        .register(registry)));
+    }
+
+    private void cacheCounter(MeterRegistry registry, String level, String result,
+                              java.util.function.ToDoubleFunction<ShortUrlCache> count) {
+        FunctionCounter.builder(CACHE_REQUESTS_COUNTER, shortUrlCache, count)
+                .description("Redirect cache lookups per cache level")
+                .tag("level", level)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.joshwa.urlshortener.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Meters recorded on the redirect, create and cleanup paths. Every stage that talks to Redis
+ * or MySQL is timed under {@link #STAGE_TIMER} with a {@code stage} tag, so a latency spike
+ * can be traced to its store from one histogram family.
+ */
+@Component
+public class ShortUrlMetrics {
+
+    public static final String STAGE_TIMER = "shorturl.stage";
+    public static final String REDIRECT_COUNTER = "shorturl.redirect.outcome";
+    public static final String CLEANUP_ROWS_COUNTER = "shorturl.cleanup.rows.deleted";
+    public static final String CLICK_EVENTS_DROPPED_COUNTER = "shorturl.click-events.dropped";
+    public static final String ALLOCATION_ATTEMPTS_SUMMARY = "shorturl.short-code.allocation.attempts";
+
+    public static final String STAGE_REDIS_GET = "redis_get";
+    public static final String STAGE_REDIS_SET = "redis_set";
+    public static final String STAGE_FIND_BY_SHORT_CODE = "find_by_short_code";
+    public static final String STAGE_FIND_ACTIVE_BY_ORIGINAL_URL = "find_active_by_original_url";
+    public static final String STAGE_INCREMENT_CLICK_COUNTS = "increment_click_counts";
+    public static final String STAGE_ALLOCATE_SHORT_CODE = "allocate_short_code";
+
+    public static final String OUTCOME_FOUND = "found";
+    public static final String OUTCOME_NOT_FOUND = "not_found";
+    public static final String OUTCOME_EXPIRED = "expired";
+    public static final String SOURCE_CACHE = "cache";
+    public static final String SOURCE_NEGATIVE_CACHE = "negative_cache";
+    public static final String SOURCE_DATABASE = "database";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> redirectCounters = new ConcurrentHashMap<>();
+    private final Counter cleanupRowsDeleted;
+    private final Counter clickEventsDropped;
+    private final DistributionSummary allocationAttempts;
+
+    public ShortUrlMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cleanupRowsDeleted = Counter.builder(CLEANUP_ROWS_COUNTER)
+                .description("Expired short URLs removed by the cleanup job")
+                .register(meterRegistry);
+        this.clickEventsDropped = Counter.builder(CLICK_EVENTS_DROPPED_COUNTER)
+                .description("Click analytics events lost because the queue was full or Redis failed")
+                .register(meterRegistry);
+        this.allocationAttempts = DistributionSummary.builder(ALLOCATION_ATTEMPTS_SUMMARY)
+                .description("Uniqueness checks needed per randomly generated short code")
+                .register(meterRegistry);
+    }
+
+    public <T> T recordStage(String stage, Supplier<T> call) {
+        return stageTimer(stage).record(call);
+    }
+
+    public void recordStage(String stage, Runnable call) {
+        stageTimer(stage).record(call);
+    }
+
+    /**
+     * Starts timing a stage whose call throws checked exceptions; finish with
+     * {@link #stopStage(Timer.Sample, String)}.
+     */
+    public Timer.Sample startStage() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopStage(Timer.Sample sample, String stage) {
+        sample.stop(stageTimer(stage));
+    }
+
+    public void countRedirect(String outcome, String source) {
+        redirectCounters.computeIfAbsent(outcome + '|' + source, key -> Counter.builder(REDIRECT_COUNTER)
+                .description("Redirect lookups by outcome and by where the answer came from")
+                .tag("outcome", outcome)
+                .tag("source", source)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    public void countCleanupRowsDeleted(long rows) {
+        cleanupRowsDeleted.increment(rows);
+    }
+
+    public void countDroppedClickEvents(int events) {
+        clickEventsDropped.increment(events);
+    }
+
+    public void recordAllocationAttempts(int attempts) {
+        allocationAttempts.record(attempts);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, key -> Timer.builder(STAGE_TIMER)
+                .description("Latency of individual Redis and MySQL calls")
+                .tag("stage", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
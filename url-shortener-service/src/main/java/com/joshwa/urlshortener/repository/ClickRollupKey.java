@@ -0,0 +1,11 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+
+import java.time.Instant;
+
+/**
+ * Primary key of a click rollup row.
+ */
+public record ClickRollupKey(String shortCode, Instant bucketStart, UserAgentClass userAgentClass, String region) {
+}
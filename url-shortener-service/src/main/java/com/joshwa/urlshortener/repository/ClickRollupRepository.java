@@ -0,0 +1,59 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the hourly and daily click rollup tables. Writes are multi-row upserts
+ * that add to existing counts, so partial rollups from several batches or nodes combine.
+ */
+@Repository
+public class ClickRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addClicks(ClickRollupGranularity granularity, Map<ClickRollupKey, Long> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(clicks.size());
+        clicks.forEach((key, count) -> rows.add(new Object[]{
+                key.shortCode(), Timestamp.from(key.bucketStart()), key.userAgentClass().name(), key.region(), count}));
+        jdbcTemplate.batchUpdate("INSERT INTO " + granularity.getTableName()
+                + " (short_code, bucket_start, user_agent_class, region, clicks) VALUES (?, ?, ?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE clicks = clicks + VALUES(clicks)", rows);
+    }
+
+    /**
+     * @return rollup rows of one short code with {@code from <= bucket_start < to}, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<ClickRollupRow> findClicks(ClickRollupGranularity granularity, String shortCode,
+                                           Instant from, Instant to) {
+        return jdbcTemplate.query("SELECT bucket_start, user_agent_class, region, clicks FROM "
+                        + granularity.getTableName()
+                        + " WHERE short_code = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start",
+                (rs, rowNum) -> new ClickRollupRow(
+                        rs.getTimestamp(1).toInstant(),
+                        UserAgentClass.valueOf(rs.getString(2)),
+                        rs.getString(3),
+                        rs.getLong(4)),
+                shortCode, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    public record ClickRollupRow(Instant bucketStart, UserAgentClass userAgentClass, String region, long clicks) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.entity.ShortCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShortCodeSequenceRepository extends JpaRepository<ShortCodeSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ShortCodeSequence s WHERE s.name = :name")
+    Optional<ShortCodeSequence> findForUpdate(@Param("name") String name);
+}
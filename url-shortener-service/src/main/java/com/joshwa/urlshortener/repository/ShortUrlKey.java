@@ -0,0 +1,7 @@
+package com.joshwa.urlshortener.repository;
+
+/**
+ * Primary key and short code of a row, without loading the entity.
+ */
+public record ShortUrlKey(Long id, String shortCode) {
+}
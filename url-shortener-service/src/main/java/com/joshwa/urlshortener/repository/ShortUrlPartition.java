@@ -0,0 +1,12 @@
+package com.joshwa.urlshortener.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One expiry range partition of {@code short_urls}.
+ *
+ * @param upperBound    exclusive upper bound of expiry dates in UTC, or {@code null} for MAXVALUE
+ * @param estimatedRows row count from the table statistics, which InnoDB only estimates
+ */
+public record ShortUrlPartition(String name, LocalDateTime upperBound, long estimatedRows) {
+}
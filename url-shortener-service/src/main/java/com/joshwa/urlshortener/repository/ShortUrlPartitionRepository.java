@@ -0,0 +1,112 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.entity.ShortUrl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Manages the optional expiry range partitioning of {@code short_urls}. Links that never expire
+ * have a NULL expiry date, which MySQL places in the lowest partition ({@link #NEVER_EXPIRES}).
+ * Every other partition covers one UTC day, except {@link #EXPIRED}, which takes the rows that
+ * had already expired when the table was partitioned, and {@link #FUTURE}, which takes expiry
+ * dates beyond the last daily partition.
+ * <p>
+ * MySQL requires every unique key of a partitioned table to contain the partitioning column,
+ * so the table has no primary key (ids come from a sequence and stay unique) and the short code
+ * is only unique together with the expiry date. Short code uniqueness then rests on the
+ * sequence allocator, which never hands out a code twice.
+ * <p>
+ * MySQL cannot range-partition a {@code TIMESTAMP} column by column value, so partitioning also
+ * turns {@code expiry_date} into a {@code DATETIME(6)} holding UTC, the type the entity maps it
+ * to. Hibernate binds instants as UTC, so stored values and the daily bounds stay aligned.
+ */
+@Repository
+public class ShortUrlPartitionRepository {
+
+    public static final String NEVER_EXPIRES = "p_never";
+    public static final String EXPIRED = "p_expired";
+    public static final String FUTURE = "p_future";
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortUrlPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the partitions in ascending order; empty if the table is not partitioned
+     */
+    public List<ShortUrlPartition> findPartitions() {
+        return jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS"
+                        + " FROM information_schema.PARTITIONS"
+                        + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'short_urls' AND PARTITION_NAME IS NOT NULL"
+                        + " ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> new ShortUrlPartition(
+                        rs.getString(1), parseUpperBound(rs.getString(2)), rs.getLong(3)));
+    }
+
+    /**
+     * Rebuilds the unpartitioned table as a partitioned one, with daily partitions from
+     * {@code firstDay} to {@code lastDay}. This copies the whole table and blocks writes to it
+     * while it runs. A {@code TIMESTAMP} expiry date is converted in the session time zone of
+     * the pool, which is the wall-clock value Hibernate wrote and reads back as UTC.
+     */
+    public void partitionByExpiry(LocalDate firstDay, LocalDate lastDay) {
+        jdbcTemplate.execute("ALTER TABLE short_urls"
+                + " MODIFY COLUMN expiry_date " + ShortUrl.EXPIRY_DATE_COLUMN_TYPE + " NULL,"
+                + " DROP PRIMARY KEY,"
+                + " ADD INDEX idx_short_urls_id (id),"
+                + " DROP INDEX uk_short_urls_short_code,"
+                + " ADD UNIQUE INDEX uk_short_urls_short_code (short_code, expiry_date)"
+                + " PARTITION BY RANGE COLUMNS (expiry_date) ("
+                + "PARTITION " + NEVER_EXPIRES + " VALUES LESS THAN ('1970-01-02 00:00:00'), "
+                + "PARTITION " + EXPIRED + " VALUES LESS THAN (" + dayStart(firstDay) + "), "
+                + dailyPartitions(firstDay, lastDay) + ", "
+                + "PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * Splits daily partitions for {@code firstDay} to {@code lastDay} off the future partition.
+     * Only the rows of the future partition are moved.
+     */
+    public void addDailyPartitions(LocalDate firstDay, LocalDate lastDay) {
+        jdbcTemplate.execute("ALTER TABLE short_urls REORGANIZE PARTITION " + FUTURE + " INTO ("
+                + dailyPartitions(firstDay, lastDay) + ", "
+                + "PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    public void dropPartitions(List<String> partitionNames) {
+        jdbcTemplate.execute("ALTER TABLE short_urls DROP PARTITION " + String.join(", ", partitionNames));
+    }
+
+    public static String toPartitionName(LocalDate day) {
+        return "p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private static String dailyPartitions(LocalDate firstDay, LocalDate lastDay) {
+        StringJoiner partitions = new StringJoiner(", ");
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            partitions.add("PARTITION " + toPartitionName(day) + " VALUES LESS THAN (" + dayStart(day.plusDays(1)) + ")");
+        }
+        return partitions.toString();
+    }
+
+    private static String dayStart(LocalDate day) {
+        return "'" + day + " 00:00:00'";
+    }
+
+    private static LocalDateTime parseUpperBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDateTime.parse(description.replace("'", ""), BOUND_FORMAT);
+    }
+}
@@ -1,40 +1,72 @@
 package com.joshwa.urlshortener.repository;
 
 import com.joshwa.urlshortener.entity.ShortUrl;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
-public interface ShortUrlRepository extends JpaRepository<ShortUrl, Long> {
+public interface ShortUrlRepository extends JpaRepository<ShortUrl, Long>, ShortUrlRepositoryCustom {
 
     Optional<ShortUrl> findByShortCode(String shortCode);
 
-    @Modifying
+    boolean existsByShortCode(String shortCode);
+
+    List<ShortUrl> findByShortCodeIn(Collection<String> shortCodes);
+
+    @Query("SELECT s.shortCode FROM ShortUrl s WHERE s.shortCode IN :shortCodes")
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
     @Query("""
-    UPDATE ShortUrl s
-       SET s.clickCount = s.clickCount + 1,
-           s.updatedAt = CURRENT_TIMESTAMP
-     WHERE s.shortCode = :shortCode
-       AND (
-            s.expiryDate IS NULL
-            OR s.expiryDate > CURRENT_TIMESTAMP
-            )
+    SELECT new com.joshwa.urlshortener.repository.ShortUrlKey(s.id, s.shortCode)
+      FROM ShortUrl s
+     WHERE s.expiryDate < :threshold
+     ORDER BY s.expiryDate
     """)
-    void atomicUpdateClickCount(@Param("shortCode") String shortCode);
+    List<ShortUrlKey> findExpiredKeys(@Param("threshold") Instant threshold, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ShortUrl s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT s.shortCode FROM ShortUrl s")
+    Stream<String> streamAllShortCodes();
 
-    int deleteByExpiryDateBefore(Instant instant);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT s.shortCode FROM ShortUrl s WHERE s.createdAt >= :since")
+    Stream<String> streamShortCodesCreatedSince(@Param("since") Instant since);
 
     @Query("""
     SELECT s FROM ShortUrl s
-    WHERE s.originalUrl = :originalUrl
+    WHERE s.originalUrlHash = :originalUrlHash
+      AND s.originalUrl = :originalUrl
       AND (s.expiryDate IS NULL OR s.expiryDate > :now)
 """)
-    Optional<ShortUrl> findActiveByOriginalUrl(
+    List<ShortUrl> findActiveByOriginalUrl(
+            @Param("originalUrlHash") long originalUrlHash,
             @Param("originalUrl") String originalUrl,
             @Param("now") Instant now
-    );}
+    );
+
+    @Query("""
+    SELECT s FROM ShortUrl s
+    WHERE s.originalUrlHash IN :originalUrlHashes
+      AND (s.expiryDate IS NULL OR s.expiryDate > :now)
+""")
+    List<ShortUrl> findActiveByOriginalUrlHashes(
+            @Param("originalUrlHashes") Collection<Long> originalUrlHashes,
+            @Param("now") Instant now
+    );
+}
@@ -0,0 +1,32 @@
+package com.joshwa.urlshortener.repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface ShortUrlRepositoryCustom {
+
+    /**
+     * Adds the given click deltas to their short codes using a single multi-row UPDATE. Links
+     * that have expired are left unchanged.
+     *
+     * @param clickDeltas pending clicks keyed by short code
+     * @return number of rows updated
+     */
+    int incrementClickCounts(Map<String, Long> clickDeltas);
+
+    /**
+     * Computes the original-URL hash for up to {@code limit} rows created before the hash
+     * column existed.
+     *
+     * @return number of rows updated; {@code 0} once every row has a hash
+     */
+    int backfillOriginalUrlHashes(int limit);
+
+    /**
+     * Streams up to {@code limit} links that have not expired at {@code now}, most clicked
+     * first, row by row from a server-side cursor rather than as one materialised result. Must
+     * run inside a transaction, which holds the connection until the last row is handed over.
+     */
+    void streamMostClicked(Instant now, int limit, Consumer<ShortUrlTarget> action);
+}
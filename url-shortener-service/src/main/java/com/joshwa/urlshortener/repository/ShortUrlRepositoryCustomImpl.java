@@ -0,0 +1,100 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.utility.UrlUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Statements Spring Data cannot express. Instants are bound and read as UTC
+ * {@link LocalDateTime}s, the way Hibernate stores them, so neither the JVM's nor the session's
+ * time zone shifts a comparison with {@code expiry_date}.
+ */
+public class ShortUrlRepositoryCustomImpl implements ShortUrlRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    ShortUrlRepositoryCustomImpl(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    @Transactional
+    public int incrementClickCounts(Map<String, Long> clickDeltas) {
+        if (clickDeltas.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE short_urls SET click_count = click_count + CASE short_code");
+        List<Object> caseArgs = new ArrayList<>(clickDeltas.size() * 2);
+        List<Object> inArgs = new ArrayList<>(clickDeltas.size());
+        for (Map.Entry<String, Long> delta : clickDeltas.entrySet()) {
+            sql.append(" WHEN ? THEN ?");
+            caseArgs.add(delta.getKey());
+            caseArgs.add(delta.getValue());
+            inArgs.add(delta.getKey());
+        }
+        sql.append(" ELSE 0 END, updated_at = ? WHERE short_code IN (");
+        sql.append("?,".repeat(inArgs.size()));
+        sql.setCharAt(sql.length() - 1, ')');
+        // Clicks that reach an expired link before it is cleaned up are not counted.
+        sql.append(" AND (expiry_date IS NULL OR expiry_date > ?)");
+
+        LocalDateTime now = toUtc(clock.instant());
+        List<Object> args = new ArrayList<>(caseArgs.size() + inArgs.size() + 2);
+        args.addAll(caseArgs);
+        args.add(now);
+        args.addAll(inArgs);
+        args.add(now);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    @Override
+    @Transactional
+    public int backfillOriginalUrlHashes(int limit) {
+        List<Object[]> hashes = jdbcTemplate.query(
+                "SELECT id, original_url FROM short_urls WHERE original_url_hash IS NULL LIMIT ?",
+                (rs, rowNum) -> new Object[]{UrlUtils.hashUrl(rs.getString(2)), rs.getLong(1)},
+                limit);
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("UPDATE short_urls SET original_url_hash = ? WHERE id = ?", hashes);
+        return hashes.size();
+    }
+
+    @Override
+    public void streamMostClicked(Instant now, int limit, Consumer<ShortUrlTarget> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT short_code, original_url, expiry_date FROM short_urls
+                     WHERE expiry_date IS NULL OR expiry_date > ?
+                     ORDER BY click_count DESC LIMIT ?
+                    """, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J only streams rows instead of buffering the whole result at this fetch size.
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setObject(1, toUtc(now));
+            statement.setInt(2, limit);
+            return statement;
+        }, rs -> {
+            LocalDateTime expiryDate = rs.getObject(3, LocalDateTime.class);
+            action.accept(new ShortUrlTarget(rs.getString(1), rs.getString(2),
+                    expiryDate != null ? expiryDate.toInstant(ZoneOffset.UTC) : null));
+        });
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
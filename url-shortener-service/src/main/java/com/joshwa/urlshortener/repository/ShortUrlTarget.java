@@ -0,0 +1,9 @@
+package com.joshwa.urlshortener.repository;
+
+import java.time.Instant;
+
+/**
+ * Short code with the URL it redirects to and its expiry, without loading the entity.
+ */
+public record ShortUrlTarget(String shortCode, String originalUrl, Instant expiryDate) {
+}
@@ -0,0 +1,35 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.service.ClickCountAggregator;
+import com.joshwa.urlshortener.service.RedirectTierClickCollector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ClickCountFlushScheduler {
+
+    private final ClickCountAggregator clickCountAggregator;
+    private final RedirectTierClickCollector redirectTierClickCollector;
+    private final ClickEventPublisher clickEventPublisher;
+
+    public ClickCountFlushScheduler(ClickCountAggregator clickCountAggregator,
+                                    RedirectTierClickCollector redirectTierClickCollector,
+                                    ClickEventPublisher clickEventPublisher) {
+        this.clickCountAggregator = clickCountAggregator;
+        this.redirectTierClickCollector = redirectTierClickCollector;
+        this.clickEventPublisher = clickEventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${joshwa.shorturlapp.click-flush.interval}")
+    public void flushClickCounts() {
+        redirectTierClickCollector.collectInto(clickCountAggregator);
+        redirectTierClickCollector.relayEventsTo(clickEventPublisher);
+        long flushedClicks = clickCountAggregator.flush();
+        if (flushedClicks > 0) {
+            log.debug("Click count flush executed. Clicks written: {}", flushedClicks);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.analytics.ClickEventConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ClickRollupScheduler {
+
+    private final ClickEventConsumer clickEventConsumer;
+    private final boolean enabled;
+
+    public ClickRollupScheduler(ClickEventConsumer clickEventConsumer,
+                                @Value("${joshwa.shorturlapp.click-analytics.enabled}") boolean enabled) {
+        this.clickEventConsumer = clickEventConsumer;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${joshwa.shorturlapp.click-analytics.rollup-interval}")
+    public void rollUpClickEvents() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long consumed = clickEventConsumer.consume();
+            if (consumed > 0) {
+                log.debug("Click rollup executed. Events rolled up: {}", consumed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Click rollup failed, unacknowledged events will be retried on next run.", ex);
+        }
+    }
+}
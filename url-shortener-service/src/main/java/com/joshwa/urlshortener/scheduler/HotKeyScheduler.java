@@ -0,0 +1,34 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closes a hot-key detection window and announces its hot codes, so that every node pins them.
+ */
+@Slf4j
+@Component
+public class HotKeyScheduler {
+
+    private final HotKeyDetector hotKeyDetector;
+    private final ShortUrlCache shortUrlCache;
+
+    public HotKeyScheduler(HotKeyDetector hotKeyDetector, ShortUrlCache shortUrlCache) {
+        this.hotKeyDetector = hotKeyDetector;
+        this.shortUrlCache = shortUrlCache;
+    }
+
+    @Scheduled(fixedRateString = "${joshwa.shorturlapp.hot-keys.window}",
+            initialDelayString = "${joshwa.shorturlapp.hot-keys.window}")
+    public void publishHotKeys() {
+        HotKeyDetector.HotKeys hotKeys = hotKeyDetector.rotate();
+        if (hotKeys.keys().isEmpty()) {
+            return;
+        }
+        shortUrlCache.pinAcrossNodes(hotKeys.keys().stream().map(HotKeyDetector.HotKey::shortCode).toList());
+        log.debug("Hot keys announced: {}", hotKeys.keys());
+    }
+}
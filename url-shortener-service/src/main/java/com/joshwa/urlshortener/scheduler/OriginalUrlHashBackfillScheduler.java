@@ -0,0 +1,52 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the original-URL hash of rows written before the column existed, so the dedup
+ * lookup on create can find them. Runs once at startup in small chunks and is a no-op once
+ * every row has a hash. Shards are backfilled in parallel.
+ */
+@Slf4j
+@Component
+public class OriginalUrlHashBackfillScheduler {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlShards shortUrlShards;
+    private final int chunkSize;
+
+    public OriginalUrlHashBackfillScheduler(
+            ShortUrlRepository shortUrlRepository,
+            ShortUrlShards shortUrlShards,
+            @Value("${joshwa.shorturlapp.url-hash-backfill.chunk-size}") int chunkSize) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlShards = shortUrlShards;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOriginalUrlHashes() {
+        long rowsUpdated = shortUrlShards.onEveryShard(shard -> backfillShard()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        if (rowsUpdated > 0) {
+            log.info("Original URL hash backfill completed. Rows updated: {}", rowsUpdated);
+        }
+    }
+
+    private long backfillShard() {
+        long rowsUpdated = 0;
+        int updated;
+        do {
+            updated = shortUrlRepository.backfillOriginalUrlHashes(chunkSize);
+            rowsUpdated += updated;
+        } while (updated == chunkSize);
+        return rowsUpdated;
+    }
+}
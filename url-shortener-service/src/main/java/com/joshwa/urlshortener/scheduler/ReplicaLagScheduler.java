@@ -0,0 +1,22 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnExpression("!'${joshwa.shorturlapp.datasource.replica-urls}'.isBlank()")
+public class ReplicaLagScheduler {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaLagScheduler(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${joshwa.shorturlapp.datasource.replica-lag-check-interval}")
+    public void checkReplicaLag() {
+        replicaRoutingDataSource.checkReplicaLag();
+    }
+}
@@ -0,0 +1,107 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the Bloom filter of issued short codes nightly and keeps it current in between.
+ * Codes created on other nodes normally arrive over pub/sub, but a node that misses a message,
+ * for example while its subscription reconnects, would answer 404 for those codes. The catch-up
+ * therefore re-reads every code created since the previous run, going back a further
+ * {@code catch-up-overlap} to cover clock skew between nodes and inserts that commit late.
+ */
+@Slf4j
+@Component
+public class ShortCodeBloomFilterScheduler {
+
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ReplicaReadRouting replicaReadRouting;
+    private final ShortUrlShards shortUrlShards;
+    private final Clock clock;
+    private final Duration catchUpOverlap;
+    private volatile Instant caughtUpTo;
+
+    public ShortCodeBloomFilterScheduler(ShortUrlRepository shortUrlRepository,
+                                         NegativeLookupCache negativeLookupCache,
+                                         ReplicaReadRouting replicaReadRouting,
+                                         ShortUrlShards shortUrlShards,
+                                         Clock clock,
+                                         @Value("${joshwa.shorturlapp.bloom-filter.catch-up-overlap}")
+                                         Duration catchUpOverlap) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.negativeLookupCache = negativeLookupCache;
+        this.replicaReadRouting = replicaReadRouting;
+        this.shortUrlShards = shortUrlShards;
+        this.clock = clock;
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${joshwa.shorturlapp.bloom-filter.rebuild-cron}")
+    @Transactional(readOnly = true)
+    public void rebuildBloomFilter() {
+        long startNanos = System.nanoTime();
+        Instant started = clock.instant();
+        // A lagging replica would leave recent codes out of the filter and turn them into 404s.
+        long loaded = replicaReadRouting.onPrimary(() -> negativeLookupCache.rebuild(
+                issuedShortCodes -> shortUrlShards.onEveryShard(shard -> {
+                    try (Stream<String> shortCodes = shortUrlRepository.streamAllShortCodes()) {
+                        shortCodes.forEach(issuedShortCodes);
+                    }
+                    return null;
+                })));
+        caughtUpTo = started;
+        log.info("Short code Bloom filter rebuilt. Codes loaded: {}, took {} ms",
+                loaded, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${joshwa.shorturlapp.bloom-filter.catch-up-interval}")
+    @Transactional(readOnly = true)
+    public void catchUpBloomFilter() {
+        Instant since = caughtUpTo;
+        if (since == null) {
+            return;
+        }
+        Instant started = clock.instant();
+        LongAdder loaded = new LongAdder();
+        replicaReadRouting.onPrimary(() -> shortUrlShards.onEveryShard(shard -> {
+            List<String> batch = new ArrayList<>(CATCH_UP_BATCH_SIZE);
+            try (Stream<String> shortCodes =
+                         shortUrlRepository.streamShortCodesCreatedSince(since.minus(catchUpOverlap))) {
+                shortCodes.forEach(shortCode -> {
+                    batch.add(shortCode);
+                    if (batch.size() >= CATCH_UP_BATCH_SIZE) {
+                        negativeLookupCache.addLocal(batch);
+                        loaded.add(batch.size());
+                        batch.clear();
+                    }
+                });
+            }
+            negativeLookupCache.addLocal(batch);
+            loaded.add(batch.size());
+            return null;
+        }));
+        caughtUpTo = started;
+        log.debug("Short code Bloom filter caught up. Codes re-read: {}", loaded.sum());
+    }
+}
@@ -0,0 +1,27 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.allocator.ShortCodePool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.short-code.strategy", havingValue = "pooled")
+public class ShortCodePoolRefillScheduler {
+
+    private final ShortCodePool shortCodePool;
+
+    public ShortCodePoolRefillScheduler(ShortCodePool shortCodePool) {
+        this.shortCodePool = shortCodePool;
+    }
+
+    @Scheduled(fixedDelayString = "${joshwa.shorturlapp.short-code.pool.refill-interval}")
+    public void refillShortCodePool() {
+        int added = shortCodePool.refill();
+        if (added > 0) {
+            log.debug("Short code pool refilled. Codes added: {}, depth: {}", added, shortCodePool.getDepth());
+        }
+    }
+}
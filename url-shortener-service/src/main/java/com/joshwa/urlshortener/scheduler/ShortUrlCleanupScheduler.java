@@ -1,40 +1,171 @@
 package com.joshwa.urlshortener.scheduler;
 
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlKey;
+import com.joshwa.urlshortener.repository.ShortUrlPartition;
+import com.joshwa.urlshortener.repository.ShortUrlPartitionRepository;
 import com.joshwa.urlshortener.repository.ShortUrlRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 
+/**
+ * Deletes links whose expiry is older than the retention duration, in bounded chunks. Each
+ * chunk selects at most {@code chunkSize} keys through the expiry_date index and deletes them
+ * by primary key in its own short transaction, then evicts their cache entries. Between
+ * chunks the job pauses; when a chunk was slow (the database is busy) the pause grows to at
+ * least the chunk's own duration so cleanup never takes more than half of the database time.
+ * With several shards each shard is cleaned up by its own loop, all of them in parallel.
+ * <p>
+ * When the table is partitioned by expiry date, whole daily partitions whose range lies
+ * before the threshold are dropped instead, which costs the same however many rows they hold.
+ * Rows then stay up to one day past the retention, until their whole day has passed it. Their
+ * cache entries expired with the links, so nothing is evicted.
+ */
 @Slf4j
 @Component
 public class ShortUrlCleanupScheduler {
 
     private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlPartitionRepository partitionRepository;
     private final Clock clock;
     private final Duration retentionDuration;
+    private final ShortUrlCache shortUrlCache;
+    private final ShortUrlMetrics metrics;
+    private final ShortUrlShards shortUrlShards;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration slowChunkThreshold;
+    private final boolean partitioningEnabled;
 
     public ShortUrlCleanupScheduler(
             ShortUrlRepository shortUrlRepository,
+            ShortUrlPartitionRepository partitionRepository,
             Clock clock,
-            @Value("${joshwa.shorturlapp.retention-duration}") Duration retentionDuration) {
+            @Value("${joshwa.shorturlapp.retention-duration}") Duration retentionDuration,
+            ShortUrlCache shortUrlCache,
+            ShortUrlMetrics metrics,
+            ShortUrlShards shortUrlShards,
+            PlatformTransactionManager transactionManager,
+            @Value("${joshwa.shorturlapp.cleanup.chunk-size}") int chunkSize,
+            @Value("${joshwa.shorturlapp.cleanup.chunk-pause}") Duration chunkPause,
+            @Value("${joshwa.shorturlapp.cleanup.slow-chunk-threshold}") Duration slowChunkThreshold,
+            @Value("${joshwa.shorturlapp.partitioning.enabled}") boolean partitioningEnabled) {
         this.shortUrlRepository = shortUrlRepository;
+        this.partitionRepository = partitionRepository;
         this.clock = clock;
         this.retentionDuration = retentionDuration;
+        this.shortUrlCache = shortUrlCache;
+        this.metrics = metrics;
+        this.shortUrlShards = shortUrlShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.slowChunkThreshold = slowChunkThreshold;
+        this.partitioningEnabled = partitioningEnabled;
     }
 
     @Scheduled(cron = "${joshwa.shorturlapp.cleanup.cron}")
-    @Transactional
     public void cleanupExpiredShortUrls(){
         Instant now = clock.instant();
         Instant threshold=now.minus(retentionDuration);
-        int rowsCleanedUp=shortUrlRepository.deleteByExpiryDateBefore(threshold);
-        log.info("Cleanup job executed. Retention duration: {}, threshold time: {}, rows deleted: {}",
-                retentionDuration, threshold, rowsCleanedUp);
+        long startNanos = System.nanoTime();
+        List<ShardCleanup> shardCleanups = shortUrlShards.onEveryShard(shard -> cleanupShard(shard, threshold));
+        long rowsCleanedUp = shardCleanups.stream().mapToLong(ShardCleanup::rows).sum();
+        int chunks = shardCleanups.stream().mapToInt(ShardCleanup::chunks).sum();
+        int partitions = shardCleanups.stream().mapToInt(ShardCleanup::partitions).sum();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        log.info("Cleanup job executed. Retention duration: {}, threshold time: {}, rows deleted: {}, "
+                        + "chunks: {}, partitions dropped: {}, took {} ms ({} rows/s)",
+                retentionDuration, threshold, rowsCleanedUp, chunks, partitions, elapsed.toMillis(),
+                rowsCleanedUp * 1000 / Math.max(1, elapsed.toMillis()));
+    }
+
+    private ShardCleanup cleanupShard(int shard, Instant threshold) {
+        if (partitioningEnabled) {
+            List<ShortUrlPartition> partitions = partitionRepository.findPartitions();
+            if (!partitions.isEmpty()) {
+                return dropExpiredPartitions(shard, partitions, threshold);
+            }
+        }
+        long rowsCleanedUp = 0;
+        int chunks = 0;
+        while (true) {
+            long chunkStartNanos = System.nanoTime();
+            List<String> deletedShortCodes = transactionTemplate.execute(status -> deleteChunk(threshold));
+            if (deletedShortCodes == null || deletedShortCodes.isEmpty()) {
+                break;
+            }
+            shortUrlCache.invalidate(deletedShortCodes);
+            metrics.countCleanupRowsDeleted(deletedShortCodes.size());
+            rowsCleanedUp += deletedShortCodes.size();
+            chunks++;
+            Duration chunkDuration = Duration.ofNanos(System.nanoTime() - chunkStartNanos);
+            log.debug("Cleanup chunk {} on shard {} deleted {} rows in {} ms, {} rows so far.",
+                    chunks, shard, deletedShortCodes.size(), chunkDuration.toMillis(), rowsCleanedUp);
+            if (deletedShortCodes.size() < chunkSize || !pauseAfter(chunkDuration)) {
+                break;
+            }
+        }
+        return new ShardCleanup(rowsCleanedUp, chunks, 0);
+    }
+
+    private ShardCleanup dropExpiredPartitions(int shard, List<ShortUrlPartition> partitions, Instant threshold) {
+        LocalDateTime cutoff = LocalDateTime.ofInstant(threshold, ZoneOffset.UTC);
+        List<ShortUrlPartition> expired = partitions.stream()
+                .filter(partition -> !ShortUrlPartitionRepository.NEVER_EXPIRES.equals(partition.name()))
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(cutoff))
+                .toList();
+        if (expired.isEmpty()) {
+            return new ShardCleanup(0, 0, 0);
+        }
+        partitionRepository.dropPartitions(expired.stream().map(ShortUrlPartition::name).toList());
+        long estimatedRows = expired.stream().mapToLong(ShortUrlPartition::estimatedRows).sum();
+        metrics.countCleanupRowsDeleted(estimatedRows);
+        log.debug("Cleanup dropped partitions {} on shard {}, about {} rows.",
+                expired.stream().map(ShortUrlPartition::name).toList(), shard, estimatedRows);
+        return new ShardCleanup(estimatedRows, 0, expired.size());
+    }
+
+    private List<String> deleteChunk(Instant threshold) {
+        List<ShortUrlKey> expiredKeys = shortUrlRepository.findExpiredKeys(threshold, Limit.of(chunkSize));
+        if (expiredKeys.isEmpty()) {
+            return List.of();
+        }
+        shortUrlRepository.deleteByIdIn(expiredKeys.stream().map(ShortUrlKey::id).toList());
+        return expiredKeys.stream().map(ShortUrlKey::shortCode).toList();
+    }
+
+    /**
+     * @return {@code false} if the job was interrupted and should stop
+     */
+    private boolean pauseAfter(Duration chunkDuration) {
+        Duration pause = chunkDuration.compareTo(slowChunkThreshold) > 0 && chunkDuration.compareTo(chunkPause) > 0
+                ? chunkDuration
+                : chunkPause;
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ShardCleanup(long rows, int chunks, int partitions) {
     }
 }
@@ -0,0 +1,96 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlPartition;
+import com.joshwa.urlshortener.repository.ShortUrlPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Keeps daily expiry partitions of {@code short_urls} in place up to {@code ahead} into the
+ * future, so new links land in a partition of their own day rather than in the catch-all
+ * future partition. An unpartitioned table is partitioned on the first run. Runs on startup and
+ * then daily, on every shard.
+ * <p>
+ * A partitioned table can only keep {@code short_code} unique per expiry date, so partitioning
+ * requires the {@code sequence} short code strategy, which never issues a code twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "joshwa.shorturlapp.partitioning.enabled", havingValue = "true")
+public class ShortUrlPartitionScheduler {
+
+    private static final String SEQUENCE_STRATEGY = "sequence";
+
+    private final ShortUrlPartitionRepository partitionRepository;
+    private final ShortUrlShards shortUrlShards;
+    private final Clock clock;
+    private final Duration ahead;
+
+    public ShortUrlPartitionScheduler(
+            ShortUrlPartitionRepository partitionRepository,
+            ShortUrlShards shortUrlShards,
+            Clock clock,
+            @Value("${joshwa.shorturlapp.partitioning.ahead}") Duration ahead,
+            @Value("${joshwa.shorturlapp.short-code.strategy}") String shortCodeStrategy) {
+        if (!SEQUENCE_STRATEGY.equals(shortCodeStrategy)) {
+            throw new IllegalStateException("Expiry partitioning needs joshwa.shorturlapp.short-code.strategy="
+                    + SEQUENCE_STRATEGY + ", but it is " + shortCodeStrategy
+                    + ". Other strategies rely on a unique index on short_code, which a partitioned table cannot keep.");
+        }
+        this.partitionRepository = partitionRepository;
+        this.shortUrlShards = shortUrlShards;
+        this.clock = clock;
+        this.ahead = ahead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${joshwa.shorturlapp.partitioning.maintenance-cron}")
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+        LocalDate lastDay = today.plusDays(ahead.toDays());
+        shortUrlShards.onEveryShard(shard -> {
+            maintainShard(shard, today, lastDay);
+            return null;
+        });
+    }
+
+    private void maintainShard(int shard, LocalDate today, LocalDate lastDay) {
+        long startNanos = System.nanoTime();
+        LocalDate nextDay = partitionRepository.findPartitions().stream()
+                .filter(partition -> !ShortUrlPartitionRepository.FUTURE.equals(partition.name()))
+                .map(ShortUrlPartition::upperBound)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(LocalDateTime::toLocalDate)
+                .orElse(null);
+        if (nextDay == null) {
+            log.warn("Partitioning short_urls on shard {} by expiry date. The table is rebuilt and writes to it"
+                    + " wait until this is done.", shard);
+            partitionRepository.partitionByExpiry(today, lastDay);
+            log.info("short_urls on shard {} partitioned by expiry date, took {} ms",
+                    shard, (System.nanoTime() - startNanos) / 1_000_000);
+            return;
+        }
+        if (nextDay.isAfter(lastDay)) {
+            return;
+        }
+        partitionRepository.addDailyPartitions(nextDay, lastDay);
+        log.info("Expiry partitions {} to {} added on shard {}, took {} ms",
+                ShortUrlPartitionRepository.toPartitionName(nextDay),
+                ShortUrlPartitionRepository.toPartitionName(lastDay),
+                shard, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,20 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.dto.ClickSeriesResponseDTO;
+import com.joshwa.urlshortener.exception.InvalidTimeRangeException;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ClickAnalyticsService {
+
+    /**
+     * Click time series of one short code from the rollups, one point per bucket in
+     * {@code [from, to)}. A missing bound defaults to now or to the granularity's default range.
+     *
+     * @return the series, or empty if the short code does not exist
+     */
+    Optional<ClickSeriesResponseDTO> getClickSeries(String shortCode, ClickRollupGranularity granularity,
+                                                    Instant from, Instant to) throws InvalidTimeRangeException;
+}
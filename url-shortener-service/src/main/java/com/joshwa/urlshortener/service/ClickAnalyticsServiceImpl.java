@@ -0,0 +1,94 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.analytics.UniqueVisitorCounter;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.dto.ClickSeriesPointDTO;
+import com.joshwa.urlshortener.dto.ClickSeriesResponseDTO;
+import com.joshwa.urlshortener.exception.InvalidTimeRangeException;
+import com.joshwa.urlshortener.repository.ClickRollupRepository;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.INVALID_TIME_RANGE_EXCEPTION_MESSAGE;
+
+@Service
+public class ClickAnalyticsServiceImpl implements ClickAnalyticsService {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ClickRollupRepository clickRollupRepository;
+    private final NegativeLookupCache negativeLookupCache;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final ReplicaReadRouting replicaReadRouting;
+    private final ShortUrlShards shortUrlShards;
+    private final Clock clock;
+
+    ClickAnalyticsServiceImpl(ShortUrlRepository shortUrlRepository, ClickRollupRepository clickRollupRepository,
+                              NegativeLookupCache negativeLookupCache, UniqueVisitorCounter uniqueVisitorCounter,
+                              ReplicaReadRouting replicaReadRouting, ShortUrlShards shortUrlShards, Clock clock) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.clickRollupRepository = clickRollupRepository;
+        this.negativeLookupCache = negativeLookupCache;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
+        this.replicaReadRouting = replicaReadRouting;
+        this.shortUrlShards = shortUrlShards;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<ClickSeriesResponseDTO> getClickSeries(String shortCode, ClickRollupGranularity granularity,
+                                                           Instant from, Instant to)
+            throws InvalidTimeRangeException {
+        Instant end = to != null ? to : clock.instant();
+        Instant start = granularity.bucketStart(from != null ? from : end.minus(granularity.getDefaultRange()));
+        if (!start.isBefore(end) || granularity.bucketsBetween(start, end) > granularity.getMaxBuckets()) {
+            throw new InvalidTimeRangeException(
+                    String.format(INVALID_TIME_RANGE_EXCEPTION_MESSAGE, granularity.getMaxBuckets()));
+        }
+        if (negativeLookupCache.check(shortCode) == NegativeLookupCache.Outcome.NOT_FOUND
+                || !shortUrlShards.onShardOf(shortCode, () -> replicaReadRouting.readWithPrimaryFallback(
+                        () -> shortUrlRepository.existsByShortCode(shortCode), exists -> !exists))) {
+            return Optional.empty();
+        }
+
+        List<ClickSeriesPointDTO> points = new ArrayList<>();
+        long totalClicks = 0;
+        int rowIndex = 0;
+        List<ClickRollupRepository.ClickRollupRow> rows =
+                clickRollupRepository.findClicks(granularity, shortCode, start, end);
+        for (Instant bucket = start; bucket.isBefore(end); bucket = granularity.nextBucket(bucket)) {
+            ClickSeriesPointDTO point = new ClickSeriesPointDTO();
+            point.setBucketStart(OffsetDateTime.ofInstant(bucket, ZoneOffset.UTC));
+            while (rowIndex < rows.size() && rows.get(rowIndex).bucketStart().equals(bucket)) {
+                ClickRollupRepository.ClickRollupRow row = rows.get(rowIndex++);
+                point.setClicks(point.getClicks() + row.clicks());
+                point.getClicksByUserAgentClass().merge(row.userAgentClass(), row.clicks(), Long::sum);
+                point.getClicksByRegion().merge(row.region(), row.clicks(), Long::sum);
+            }
+            totalClicks += point.getClicks();
+            points.add(point);
+        }
+
+        ClickSeriesResponseDTO response = new ClickSeriesResponseDTO();
+        response.setShortCode(shortCode);
+        response.setGranularity(granularity);
+        response.setFrom(OffsetDateTime.ofInstant(start, ZoneOffset.UTC));
+        response.setTo(OffsetDateTime.ofInstant(end, ZoneOffset.UTC));
+        response.setTotalClicks(totalClicks);
+        response.setUniqueVisitors(uniqueVisitorCounter.count(shortCode,
+                LocalDate.ofInstant(start, ZoneOffset.UTC), LocalDate.ofInstant(end.minusMillis(1), ZoneOffset.UTC)));
+        response.setPoints(points);
+        return Optional.of(response);
+    }
+}
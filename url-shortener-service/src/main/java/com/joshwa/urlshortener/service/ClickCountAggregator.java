@@ -0,0 +1,193 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Write-behind click counter. Redirects only bump an in-memory counter per short code;
+ * {@link #flush()} periodically drains the counters and writes them in multi-row batches.
+ * Each counter is a {@link LongAdder}, so concurrent clicks on one hot code are spread over
+ * striped cells instead of contending for the code's map bin.
+ * <p>
+ * Stats add the pending clicks to a cached database snapshot. Clicks being written still count
+ * as pending until their batch commits, and {@link #getLastFlushedAtMillis} tells which
+ * snapshots predate the commit, so a flush never makes a link's click count go down.
+ */
+@Slf4j
+@Component
+public class ClickCountAggregator {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlShards shortUrlShards;
+    private final ShortUrlMetrics metrics;
+    private final int batchSize;
+    private final Clock clock;
+    private final Duration flushHistory;
+    private final ConcurrentHashMap<String, LongAdder> pendingClicks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> inFlightClicks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> lastFlushedAtMillis = new ConcurrentHashMap<>();
+
+    public ClickCountAggregator(
+            ShortUrlRepository shortUrlRepository,
+            ShortUrlShards shortUrlShards,
+            ShortUrlMetrics metrics,
+            Clock clock,
+            @Value("${joshwa.shorturlapp.click-flush.batch-size}") int batchSize,
+            @Value("${joshwa.shorturlapp.stats-cache.ttl}") Duration statsCacheTtl) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlShards = shortUrlShards;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        // A snapshot loaded before a flush expires within the TTL of its write; doubled for slow loads.
+        this.flushHistory = statsCacheTtl.multipliedBy(2);
+    }
+
+    public void recordClick(String shortCode) {
+        recordClicks(shortCode, 1);
+    }
+
+    public void recordClicks(String shortCode, long clicks) {
+        LongAdder counter = counter(shortCode);
+        counter.add(clicks);
+        if (pendingClicks.get(shortCode) != counter) {
+            // Evicted as idle after the lookup above; nothing reads that counter any more.
+            long orphaned = counter.sumThenReset();
+            if (orphaned > 0) {
+                recordClicks(shortCode, orphaned);
+            }
+        }
+    }
+
+    /**
+     * @return clicks of the code not yet committed to the database, including those of a
+     * flush in progress
+     */
+    public long getPendingClicks(String shortCode) {
+        LongAdder clicks = pendingClicks.get(shortCode);
+        Long inFlight = inFlightClicks.get(shortCode);
+        return (clicks != null ? clicks.sum() : 0L) + (inFlight != null ? inFlight : 0L);
+    }
+
+    /**
+     * @return clicks not yet committed to the database, across all codes
+     */
+    public long getPendingClicks() {
+        long clicks = 0;
+        for (LongAdder adder : pendingClicks.values()) {
+            clicks += adder.sum();
+        }
+        for (long inFlight : inFlightClicks.values()) {
+            clicks += inFlight;
+        }
+        return clicks;
+    }
+
+    /**
+     * @return epoch millis of this node's last committed click flush for the code, or
+     * {@link Long#MIN_VALUE} if there was none recently. A stats snapshot loaded before then
+     * may lack clicks that no longer count as pending.
+     */
+    public long getLastFlushedAtMillis(String shortCode) {
+        return lastFlushedAtMillis.getOrDefault(shortCode, Long.MIN_VALUE);
+    }
+
+    public int getPendingShortCodes() {
+        return pendingClicks.size();
+    }
+
+    /**
+     * Drains all pending counters into the database. Counters are reset rather than removed, so
+     * a click racing with the flush lands in the counter and is written by the next one. Codes
+     * without clicks since the previous flush are removed, but only while still at zero; a click
+     * that lands on a removed counter is moved to the current one by the clicking thread. A
+     * failed batch is added back too, so no clicks are lost. Each batch is split by shard and every shard's part succeeds or fails on its own, so
+     * a retry never counts the same clicks twice.
+     *
+     * @return number of clicks written
+     */
+    public synchronized long flush() {
+        long forgetBefore = clock.millis() - flushHistory.toMillis();
+        lastFlushedAtMillis.values().removeIf(flushedAt -> flushedAt < forgetBefore);
+        long flushedClicks = 0;
+        Map<String, Long> batch = new HashMap<>();
+        Iterator<Map.Entry<String, LongAdder>> counters = pendingClicks.entrySet().iterator();
+        while (counters.hasNext()) {
+            Map.Entry<String, LongAdder> counter = counters.next();
+            long clicks = counter.getValue().sumThenReset();
+            if (clicks == 0) {
+                evictIdle(counter.getKey());
+                continue;
+            }
+            inFlightClicks.put(counter.getKey(), clicks);
+            batch.put(counter.getKey(), clicks);
+            if (batch.size() >= batchSize) {
+                flushedClicks += writeBatch(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushedClicks += writeBatch(batch);
+        }
+        return flushedClicks;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        long flushedClicks = flush();
+        log.info("Flushed {} pending clicks on shutdown.", flushedClicks);
+    }
+
+    private LongAdder counter(String shortCode) {
+        LongAdder clicks = pendingClicks.get(shortCode);
+        return clicks != null ? clicks : pendingClicks.computeIfAbsent(shortCode, code -> new LongAdder());
+    }
+
+    private void evictIdle(String shortCode) {
+        pendingClicks.computeIfPresent(shortCode, (code, clicks) -> clicks.sum() == 0 ? null : clicks);
+    }
+
+    private long writeBatch(Map<String, Long> batch) {
+        Map<Integer, List<String>> shortCodesByShard = shortUrlShards.groupByShard(batch.keySet(), Function.identity());
+        return shortUrlShards.onEveryShard(shard -> {
+                    Map<String, Long> shardBatch = new HashMap<>();
+                    shortCodesByShard.getOrDefault(shard, List.of())
+                            .forEach(shortCode -> shardBatch.put(shortCode, batch.get(shortCode)));
+                    return shardBatch.isEmpty() ? 0L : writeShardBatch(shardBatch);
+                })
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private long writeShardBatch(Map<String, Long> batch) {
+        try {
+            metrics.recordStage(ShortUrlMetrics.STAGE_INCREMENT_CLICK_COUNTS,
+                    () -> shortUrlRepository.incrementClickCounts(batch));
+            long flushedAt = clock.millis();
+            batch.keySet().forEach(shortCode -> lastFlushedAtMillis.put(shortCode, flushedAt));
+            return batch.values().stream().mapToLong(Long::longValue).sum();
+        } catch (RuntimeException ex) {
+            log.warn("Click count flush failed for {} short codes, will retry on next flush.", batch.size(), ex);
+            batch.forEach(this::recordClicks);
+            return 0;
+        } finally {
+            batch.keySet().forEach(inFlightClicks::remove);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Picks up clicks counted by the standalone redirect tier, which increments a Redis hash
+ * field per short code instead of writing to MySQL, and appends each click's raw request
+ * details to a capped stream for analytics. The hash and the stream entries are read and
+ * deleted in one script each, so with several service nodes each click is collected exactly
+ * once. Collected clicks also count towards hot-key detection, so codes redirected mostly by
+ * the tier are announced and pinned like codes served here.
+ */
+@Slf4j
+@Component
+public class RedirectTierClickCollector {
+
+    public static final String REDIRECT_CLICKS_KEY = "shorturl:clicks";
+    public static final String REDIRECT_CLICK_EVENTS_KEY = "shorturl:redirect-tier-click-events";
+
+    // Field names written by the tier, in the order the relay script returns their values.
+    private static final List<String> CLICK_EVENT_FIELDS = List.of("t", "c", "a", "r", "u", "g");
+    private static final int CLICK_EVENT_BATCH_SIZE = 1000;
+    private static final int MAX_CLICK_EVENT_BATCHES = 20;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local clicks = redis.call('HGETALL', KEYS[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return clicks",
+            List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_EVENTS_SCRIPT = new DefaultRedisScript<>(
+            "local entries = redis.call('XRANGE', KEYS[1], '-', '+', 'COUNT', ARGV[1]) "
+                    + "local ids = {} "
+                    + "local values = {} "
+                    + "for _, entry in ipairs(entries) do "
+                    + "  ids[#ids + 1] = entry[1] "
+                    + "  local fields = {} "
+                    + "  for i = 1, #entry[2], 2 do fields[entry[2][i]] = entry[2][i + 1] end "
+                    + "  for j = 2, #ARGV do values[#values + 1] = fields[ARGV[j]] or '' end "
+                    + "end "
+                    + "if #ids > 0 then redis.call('XDEL', KEYS[1], unpack(ids)) end "
+                    + "return values",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final HotKeyDetector hotKeyDetector;
+
+    public RedirectTierClickCollector(StringRedisTemplate redisTemplate, HotKeyDetector hotKeyDetector) {
+        this.redisTemplate = redisTemplate;
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    /**
+     * @return number of clicks moved into the aggregator
+     */
+    public long collectInto(ClickCountAggregator clickCountAggregator) {
+        List<?> fields;
+        try {
+            fields = redisTemplate.execute(DRAIN_SCRIPT, List.of(REDIRECT_CLICKS_KEY));
+        } catch (RuntimeException ex) {
+            log.warn("Could not collect redirect tier clicks, will retry on next flush.", ex);
+            return 0;
+        }
+        if (fields == null) {
+            return 0;
+        }
+        long collected = 0;
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            String shortCode = fields.get(i).toString();
+            long clicks = Long.parseLong(fields.get(i + 1).toString());
+            clickCountAggregator.recordClicks(shortCode, clicks);
+            hotKeyDetector.record(shortCode, clicks);
+            collected += clicks;
+        }
+        return collected;
+    }
+
+    /**
+     * Hands the tier's raw clicks to the publisher, which classifies them and counts their
+     * visitors like clicks served here.
+     *
+     * @return number of click events relayed
+     */
+    public long relayEventsTo(ClickEventPublisher clickEventPublisher) {
+        if (!clickEventPublisher.isEnabled()) {
+            return 0;
+        }
+        String[] args = new String[CLICK_EVENT_FIELDS.size() + 1];
+        args[0] = Integer.toString(CLICK_EVENT_BATCH_SIZE);
+        for (int i = 0; i < CLICK_EVENT_FIELDS.size(); i++) {
+            args[i + 1] = CLICK_EVENT_FIELDS.get(i);
+        }
+        long relayed = 0;
+        for (int batch = 0; batch < MAX_CLICK_EVENT_BATCHES; batch++) {
+            List<?> values;
+            try {
+                values = redisTemplate.execute(DRAIN_EVENTS_SCRIPT, List.of(REDIRECT_CLICK_EVENTS_KEY), (Object[]) args);
+            } catch (RuntimeException ex) {
+                log.warn("Could not relay redirect tier click events, will retry on next flush.", ex);
+                return relayed;
+            }
+            if (values == null || values.isEmpty()) {
+                return relayed;
+            }
+            int width = CLICK_EVENT_FIELDS.size();
+            for (int i = 0; i + width <= values.size(); i += width) {
+                String timestamp = values.get(i).toString();
+                String shortCode = values.get(i + 1).toString();
+                if (timestamp.isEmpty() || shortCode.isEmpty()) {
+                    continue;
+                }
+                clickEventPublisher.publish(Long.parseLong(timestamp), shortCode, emptyToNull(values.get(i + 2)),
+                        emptyToNull(values.get(i + 3)), emptyToNull(values.get(i + 4)), emptyToNull(values.get(i + 5)));
+                relayed++;
+            }
+            if (values.size() < CLICK_EVENT_BATCH_SIZE * width) {
+                return relayed;
+            }
+        }
+        return relayed;
+    }
+
+    private static String emptyToNull(Object value) {
+        String string = value.toString();
+        return string.isEmpty() ? null : string;
+    }
+}
@@ -0,0 +1,22 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.dto.ShortUrlBatchItemResultDTO;
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.exception.InvalidBatchException;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ShortUrlBatchService {
+
+    void validateBatch(List<ShortUrlRequestDTO> requests) throws InvalidBatchException;
+
+    List<ShortUrlBatchItemResultDTO> createShortUrls(List<ShortUrlRequestDTO> requests) throws InvalidBatchException;
+
+    /**
+     * Creates the batch chunk by chunk, handing each chunk's results to {@code chunkResults}
+     * as soon as the chunk is committed.
+     */
+    void createShortUrls(List<ShortUrlRequestDTO> requests, Consumer<List<ShortUrlBatchItemResultDTO>> chunkResults)
+            throws InvalidBatchException;
+}
@@ -0,0 +1,243 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.allocator.ShortCodeAllocator;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.dto.ShortUrlBatchItemResultDTO;
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.entity.ShortUrl;
+import com.joshwa.urlshortener.exception.InvalidBatchException;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.*;
+
+/**
+ * Creates short URLs in bulk. Each chunk of the batch is validated in parallel, deduplicated
+ * against active links with one query, given codes from a single allocator call and inserted
+ * with JDBC batching in its own transaction. Invalid items are reported per item and never
+ * fail the rest of the batch. With several shards every shard is written in its own
+ * transaction, so a chunk that fails on one shard may still have been stored on the others.
+ */
+@Slf4j
+@Service
+public class ShortUrlBatchServiceImpl implements ShortUrlBatchService {
+
+    private static final String REQUIRED_PARAMETERS_MISSING_MESSAGE = "Required parameters are missing.";
+    private static final String STORE_FAILED_MESSAGE = "Short URL could not be stored.";
+    private static final int MAX_ORIGINAL_URL_LENGTH = 2000;
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final Clock clock;
+    private final ShortUrlMapper shortUrlMapper;
+    private final ShortCodeAllocator shortCodeAllocator;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ShortUrlShards shortUrlShards;
+    private final TransactionTemplate transactionTemplate;
+    private final String baseAppUrl;
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    ShortUrlBatchServiceImpl(ShortUrlRepository shortUrlRepository, Clock clock, ShortUrlMapper shortUrlMapper,
+                             ShortCodeAllocator shortCodeAllocator, NegativeLookupCache negativeLookupCache,
+                             ShortUrlShards shortUrlShards, PlatformTransactionManager transactionManager,
+                             @Value("${joshwa.shorturlapp.base-url}") String baseAppUrl,
+                             @Value("${joshwa.shorturlapp.batch.max-size}") int maxBatchSize,
+                             @Value("${joshwa.shorturlapp.batch.chunk-size}") int chunkSize) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.clock = clock;
+        this.shortUrlMapper = shortUrlMapper;
+        this.shortCodeAllocator = shortCodeAllocator;
+        this.negativeLookupCache = negativeLookupCache;
+        this.shortUrlShards = shortUrlShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.baseAppUrl = baseAppUrl;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void validateBatch(List<ShortUrlRequestDTO> requests) throws InvalidBatchException {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new InvalidBatchException(String.format(INVALID_BATCH_EXCEPTION_MESSAGE, maxBatchSize));
+        }
+    }
+
+    @Override
+    public List<ShortUrlBatchItemResultDTO> createShortUrls(List<ShortUrlRequestDTO> requests)
+            throws InvalidBatchException {
+        List<ShortUrlBatchItemResultDTO> results = new ArrayList<>(requests == null ? 0 : requests.size());
+        createShortUrls(requests, results::addAll);
+        return results;
+    }
+
+    @Override
+    public void createShortUrls(List<ShortUrlRequestDTO> requests,
+                                Consumer<List<ShortUrlBatchItemResultDTO>> chunkResults)
+            throws InvalidBatchException {
+        validateBatch(requests);
+        for (int offset = 0; offset < requests.size(); offset += chunkSize) {
+            List<ShortUrlRequestDTO> chunk = requests.subList(offset, Math.min(offset + chunkSize, requests.size()));
+            chunkResults.accept(createChunk(chunk, offset));
+        }
+    }
+
+    private List<ShortUrlBatchItemResultDTO> createChunk(List<ShortUrlRequestDTO> chunk, int offset) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        ValidatedItem[] items = new ValidatedItem[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> items[i] = validate(chunk.get(i), now));
+
+        // Codes are allocated before the chunk transaction, so a block lease never waits for a
+        // second pooled connection. Links that turn out to exist already leave their code unused.
+        long distinctKeys = Arrays.stream(items)
+                .filter(item -> item.error() == null)
+                .map(item -> new DedupKey(item.normalizedUrl(), item.expiryDate()))
+                .distinct()
+                .count();
+        List<String> shortCodes = List.of();
+        String allocationError = null;
+        if (distinctKeys > 0) {
+            try {
+                shortCodes = shortCodeAllocator.allocate((int) distinctKeys);
+            } catch (ShortCodeGenerationException ex) {
+                allocationError = ex.getMessage();
+            }
+        }
+
+        List<String> allocatedShortCodes = shortCodes;
+        String chunkAllocationError = allocationError;
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status ->
+                    persistChunk(items, offset, now.toInstant(), allocatedShortCodes, chunkAllocationError));
+        } catch (DataAccessException ex) {
+            log.error("Batch chunk at offset {} could not be stored.", offset, ex);
+            List<ShortUrlBatchItemResultDTO> results = new ArrayList<>(items.length);
+            for (int i = 0; i < items.length; i++) {
+                String error = items[i].error() != null ? items[i].error() : STORE_FAILED_MESSAGE;
+                results.add(ShortUrlBatchItemResultDTO.failure(offset + i, error));
+            }
+            return results;
+        }
+        negativeLookupCache.registerCreated(outcome.createdShortCodes());
+        return outcome.results();
+    }
+
+    private static ValidatedItem validate(ShortUrlRequestDTO request, OffsetDateTime now) {
+        if (request == null || StringUtils.isBlank(request.getOriginalUrl())) {
+            return ValidatedItem.invalid(request, REQUIRED_PARAMETERS_MISSING_MESSAGE);
+        }
+        if (request.getOriginalUrl().length() > MAX_ORIGINAL_URL_LENGTH) {
+            return ValidatedItem.invalid(request, INVALID_URL_EXCEPTION_MESSAGE);
+        }
+        String normalizedUrl = normalizeUrl(request.getOriginalUrl());
+        if (!isValidUrl(normalizedUrl)) {
+            return ValidatedItem.invalid(request, INVALID_URL_EXCEPTION_MESSAGE);
+        }
+        if (request.getExpiryDate() != null && request.getExpiryDate().isBefore(now)) {
+            return ValidatedItem.invalid(request, INVALID_EXPIRY_EXCEPTION_MESSAGE);
+        }
+        Instant expiryDate = request.getExpiryDate() != null ? request.getExpiryDate().toInstant() : null;
+        return new ValidatedItem(request, normalizedUrl, hashUrl(normalizedUrl), expiryDate, null);
+    }
+
+    /**
+     * @param shortCodes codes for the new links, at least one per distinct link of the chunk
+     * @param allocationError why no codes could be allocated, or {@code null}
+     */
+    private ChunkOutcome persistChunk(ValidatedItem[] items, int offset, Instant now, List<String> shortCodes,
+                                      String allocationError) {
+        List<Long> urlHashes = Arrays.stream(items)
+                .filter(item -> item.error() == null)
+                .map(ValidatedItem::urlHash)
+                .distinct()
+                .toList();
+        Map<DedupKey, ShortUrl> shortUrlsByKey = new HashMap<>();
+        if (!urlHashes.isEmpty()) {
+            for (List<ShortUrl> existingOnShard : shortUrlShards.onEveryShard(
+                    shard -> shortUrlRepository.findActiveByOriginalUrlHashes(urlHashes, now))) {
+                for (ShortUrl existing : existingOnShard) {
+                    shortUrlsByKey.putIfAbsent(new DedupKey(existing.getOriginalUrl(), existing.getExpiryDate()), existing);
+                }
+            }
+        }
+
+        List<Integer> newItemIndexes = new ArrayList<>();
+        List<DedupKey> newKeys = new ArrayList<>();
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].error() != null) {
+                continue;
+            }
+            DedupKey key = new DedupKey(items[i].normalizedUrl(), items[i].expiryDate());
+            if (!shortUrlsByKey.containsKey(key)) {
+                shortUrlsByKey.put(key, null);
+                newItemIndexes.add(i);
+                newKeys.add(key);
+            }
+        }
+
+        List<ShortUrl> newShortUrls = new ArrayList<>(newItemIndexes.size());
+        if (!newItemIndexes.isEmpty() && allocationError == null) {
+            for (int n = 0; n < newItemIndexes.size(); n++) {
+                ValidatedItem item = items[newItemIndexes.get(n)];
+                ShortUrl shortUrl = shortUrlMapper.toEntity(item.request(), shortCodes.get(n), item.normalizedUrl());
+                newShortUrls.add(shortUrl);
+                shortUrlsByKey.put(newKeys.get(n), shortUrl);
+            }
+            Map<Integer, List<ShortUrl>> newShortUrlsByShard =
+                    shortUrlShards.groupByShard(newShortUrls, ShortUrl::getShortCode);
+            shortUrlShards.onEveryShard(shard -> shortUrlRepository.saveAll(
+                    newShortUrlsByShard.getOrDefault(shard, List.of())));
+        }
+
+        List<ShortUrlBatchItemResultDTO> results = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            ValidatedItem item = items[i];
+            ShortUrl shortUrl = item.error() == null
+                    ? shortUrlsByKey.get(new DedupKey(item.normalizedUrl(), item.expiryDate()))
+                    : null;
+            if (shortUrl != null) {
+                String shortUrlValue = baseAppUrl + "/" + shortUrl.getShortCode();
+                results.add(ShortUrlBatchItemResultDTO.success(offset + i,
+                        shortUrlMapper.toResponseDTO(shortUrl, shortUrlValue)));
+            } else {
+                results.add(ShortUrlBatchItemResultDTO.failure(offset + i,
+                        item.error() != null ? item.error() : allocationError));
+            }
+        }
+        return new ChunkOutcome(results, newShortUrls.stream().map(ShortUrl::getShortCode).toList());
+    }
+
+    private record ValidatedItem(ShortUrlRequestDTO request, String normalizedUrl, long urlHash,
+                                 Instant expiryDate, String error) {
+
+        static ValidatedItem invalid(ShortUrlRequestDTO request, String error) {
+            return new ValidatedItem(request, null, 0, null, error);
+        }
+    }
+
+    private record DedupKey(String originalUrl, Instant expiryDate) {
+    }
+
+    private record ChunkOutcome(List<ShortUrlBatchItemResultDTO> results, List<String> createdShortCodes) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.joshwa.urlshortener.service;
+
+/**
+ * Outcome of resolving a short code for a redirect.
+ */
+public record ShortUrlResolution(Status status, String originalUrl) {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        EXPIRED
+    }
+
+    private static final ShortUrlResolution NOT_FOUND = new ShortUrlResolution(Status.NOT_FOUND, null);
+    private static final ShortUrlResolution EXPIRED = new ShortUrlResolution(Status.EXPIRED, null);
+
+    public static ShortUrlResolution found(String originalUrl) {
+        return new ShortUrlResolution(Status.FOUND, originalUrl);
+    }
+
+    public static ShortUrlResolution notFound() {
+        return NOT_FOUND;
+    }
+
+    public static ShortUrlResolution expired() {
+        return EXPIRED;
+    }
+}
@@ -5,11 +5,15 @@ import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.exception.*;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface ShortUrlService {
     ShortUrlResponseDTO createShortUrl(ShortUrlRequestDTO urlRequestDTO)
             throws InvalidUrlException, InvalidExpiryException, ShortCodeGenerationException;
 
-    String getOriginalUrlForRedirect(String shortCode) throws ShortUrlNotFoundException, ShortUrlExpiredException;
-    ShortUrlStatsResponseDTO getShortUrlStats(String shortCode) throws ShortUrlNotFoundException;
+    ShortUrlResolution resolveRedirect(String shortCode);
+    Optional<ShortUrlStatsResponseDTO> findShortUrlStats(String shortCode);
+    List<ShortUrlStatsResponseDTO> getShortUrlStats(List<String> shortCodes) throws InvalidBatchException;
 
 }
@@ -1,24 +1,39 @@
 package com.joshwa.urlshortener.service;
 
+import com.joshwa.urlshortener.allocator.ShortCodeAllocator;
+import com.joshwa.urlshortener.analytics.UniqueVisitorCounter;
+import com.joshwa.urlshortener.cache.DistributedLoadLock;
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.cache.ShortUrlStatsCache;
+import com.joshwa.urlshortener.cache.SingleFlight;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
 import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.entity.ShortUrl;
 import com.joshwa.urlshortener.exception.*;
 import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
 import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Clock;
-import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static com.joshwa.urlshortener.utility.UrlUtils.*;
 
@@ -28,24 +43,52 @@ public class ShortUrlServiceImpl implements ShortUrlService {
 
     @Value("${joshwa.shorturlapp.base-url}")
     private String baseAppUrl;
-    private static final String CACHE_KEY_PREFIX="shorturl:";
+    @Value("${joshwa.shorturlapp.stats.max-batch-size}")
+    private int maxStatsBatchSize;
     private final ShortUrlRepository shortUrlRepository;
     private final Clock clock;
     private final ShortUrlMapper shortUrlMapper;
-    private final StringRedisTemplate redisTemplate;
+    private final ShortUrlCache shortUrlCache;
+    private final ClickCountAggregator clickCountAggregator;
+    private final NegativeLookupCache negativeLookupCache;
+    private final DistributedLoadLock distributedLoadLock;
+    private final ShortCodeAllocator shortCodeAllocator;
+    private final ShortUrlStatsCache shortUrlStatsCache;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final ReplicaReadRouting replicaReadRouting;
+    private final ShortUrlShards shortUrlShards;
+    private final HotKeyDetector hotKeyDetector;
+    private final ShortUrlMetrics metrics;
+    private final SingleFlight<String, ShortUrlResolution> redirectLoads = new SingleFlight<>();
 
-    ShortUrlServiceImpl(ShortUrlRepository shortUrlRepository, Clock clock, ShortUrlMapper shortUrlMapper, StringRedisTemplate redisTemplate) {
+    ShortUrlServiceImpl(ShortUrlRepository shortUrlRepository, Clock clock, ShortUrlMapper shortUrlMapper,
+                        ShortUrlCache shortUrlCache, ClickCountAggregator clickCountAggregator,
+                        NegativeLookupCache negativeLookupCache, DistributedLoadLock distributedLoadLock,
+                        ShortCodeAllocator shortCodeAllocator, ShortUrlStatsCache shortUrlStatsCache,
+                        UniqueVisitorCounter uniqueVisitorCounter, ReplicaReadRouting replicaReadRouting,
+                        ShortUrlShards shortUrlShards, HotKeyDetector hotKeyDetector, ShortUrlMetrics metrics) {
         this.shortUrlRepository = shortUrlRepository;
         this.clock = clock;
         this.shortUrlMapper = shortUrlMapper;
-        this.redisTemplate = redisTemplate;
+        this.shortUrlCache = shortUrlCache;
+        this.clickCountAggregator = clickCountAggregator;
+        this.negativeLookupCache = negativeLookupCache;
+        this.distributedLoadLock = distributedLoadLock;
+        this.shortCodeAllocator = shortCodeAllocator;
+        this.shortUrlStatsCache = shortUrlStatsCache;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
+        this.replicaReadRouting = replicaReadRouting;
+        this.shortUrlShards = shortUrlShards;
+        this.hotKeyDetector = hotKeyDetector;
+        this.metrics = metrics;
     }
 
-    public static final int SHORT_CODE_LENGTH=8;
-    public static final int MAX_SHORT_CODE_GENERATION_ATTEMPTS=10;
-
+    /**
+     * Runs without a surrounding transaction: allocating a code may lease a new block in a
+     * transaction of its own, which must not wait for a second pooled connection while the
+     * caller holds one. The lookup reads from the primary and the save commits on its own.
+     */
     @Override
-    @Transactional
     public ShortUrlResponseDTO createShortUrl(ShortUrlRequestDTO urlRequestDTO)
             throws InvalidUrlException, InvalidExpiryException, ShortCodeGenerationException {
 
@@ -66,86 +109,208 @@ public class ShortUrlServiceImpl implements ShortUrlService {
                 ? urlRequestDTO.getExpiryDate().toInstant()
                 : null;
 
-        Optional<ShortUrl> existingUrl =
-                shortUrlRepository.findActiveByOriginalUrl(normalizedUrl, nowInstant);
+        Optional<ShortUrl> existingUrl = metrics.recordStage(ShortUrlMetrics.STAGE_FIND_ACTIVE_BY_ORIGINAL_URL,
+                        () -> replicaReadRouting.onPrimary(() -> shortUrlShards.onEveryShard(
+                                shard -> shortUrlRepository.findActiveByOriginalUrl(
+                                        hashUrl(normalizedUrl), normalizedUrl, nowInstant))))
+                .stream()
+                .flatMap(List::stream)
+                .filter(existing -> Objects.equals(existing.getExpiryDate(), requestedExpiryInstant))
+                .findFirst();
 
         if (existingUrl.isPresent()) {
             ShortUrl existing = existingUrl.get();
-            Instant existingExpiry = existing.getExpiryDate();
-
-            if (Objects.equals(existingExpiry, requestedExpiryInstant)) {
-                String existingShortUrl = buildShortUrl(existing.getShortCode(), baseAppUrl);
-                return shortUrlMapper.toResponseDTO(existing, existingShortUrl);
-            }
+            String existingShortUrl = buildShortUrl(existing.getShortCode(), baseAppUrl);
+            return shortUrlMapper.toResponseDTO(existing, existingShortUrl);
         }
 
-        String shortCode = generateUniqueShortCode();
+        Timer.Sample allocation = metrics.startStage();
+        String shortCode;
+        try {
+            shortCode = shortCodeAllocator.allocate();
+        } finally {
+            metrics.stopStage(allocation, ShortUrlMetrics.STAGE_ALLOCATE_SHORT_CODE);
+        }
         String shortUrlValue = buildShortUrl(shortCode, baseAppUrl);
 
         ShortUrl shortUrl =
                 shortUrlMapper.toEntity(urlRequestDTO, shortCode, normalizedUrl);
 
-        shortUrlRepository.save(shortUrl);
+        shortUrlShards.onShardOf(shortCode, () -> shortUrlRepository.save(shortUrl));
+        afterCommit(() -> negativeLookupCache.registerCreated(List.of(shortCode)));
 
         return shortUrlMapper.toResponseDTO(shortUrl, shortUrlValue);
     }
 
+    /**
+     * Resolves a short code without throwing on misses, so unknown and expired codes cost no
+     * more than a found one. Only found codes count a click.
+     */
     @Override
-    @Transactional
-    public String getOriginalUrlForRedirect(String shortCode)
-            throws ShortUrlNotFoundException, ShortUrlExpiredException {
+    public ShortUrlResolution resolveRedirect(String shortCode) {
 
-        String cacheKey=CACHE_KEY_PREFIX+shortCode;
-        String cachedUrl=redisTemplate.opsForValue().get(cacheKey);
+        hotKeyDetector.record(shortCode);
+        String cachedUrl=shortUrlCache.get(shortCode);
         if(null!=cachedUrl){
-            shortUrlRepository.atomicUpdateClickCount(shortCode);
-            return cachedUrl;
+            metrics.countRedirect(ShortUrlMetrics.OUTCOME_FOUND, ShortUrlMetrics.SOURCE_CACHE);
+            clickCountAggregator.recordClick(shortCode);
+            return ShortUrlResolution.found(cachedUrl);
         }
-        Instant now=clock.instant();
-        ShortUrl shortUrl = shortUrlRepository.findByShortCode(shortCode)
-                .orElseThrow(() ->
-                        new ShortUrlNotFoundException(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE));
-
-        if (shortUrl.getExpiryDate() != null &&
-                !shortUrl.getExpiryDate().isAfter(now)) {
-            throw new ShortUrlExpiredException(SHORT_URL_EXPIRED_EXCEPTION_MESSAGE);
+        NegativeLookupCache.Outcome knownMiss=negativeLookupCache.check(shortCode);
+        if(knownMiss==NegativeLookupCache.Outcome.NOT_FOUND){
+            metrics.countRedirect(ShortUrlMetrics.OUTCOME_NOT_FOUND, ShortUrlMetrics.SOURCE_NEGATIVE_CACHE);
+            return ShortUrlResolution.notFound();
         }
-        if(shortUrl.getExpiryDate() != null){
-            Duration remaining=Duration.between(now,shortUrl.getExpiryDate());
-            redisTemplate.opsForValue().set(cacheKey, shortUrl.getOriginalUrl(),remaining);
+        if(knownMiss==NegativeLookupCache.Outcome.EXPIRED){
+            metrics.countRedirect(ShortUrlMetrics.OUTCOME_EXPIRED, ShortUrlMetrics.SOURCE_NEGATIVE_CACHE);
+            return ShortUrlResolution.expired();
         }
-        else{
-            redisTemplate.opsForValue().set(cacheKey, shortUrl.getOriginalUrl());
+        ShortUrlResolution resolution = redirectLoads.execute(shortCode, () ->
+                distributedLoadLock.load(shortCode,
+                        () -> loadAndCache(shortCode),
+                        () -> resolveFromCache(shortCode)));
+        if (resolution.status() == ShortUrlResolution.Status.NOT_FOUND) {
+            metrics.countRedirect(ShortUrlMetrics.OUTCOME_NOT_FOUND, ShortUrlMetrics.SOURCE_DATABASE);
+            return resolution;
         }
-        shortUrlRepository.atomicUpdateClickCount(shortCode);
-        return shortUrl.getOriginalUrl();
+        if (resolution.status() == ShortUrlResolution.Status.EXPIRED) {
+            metrics.countRedirect(ShortUrlMetrics.OUTCOME_EXPIRED, ShortUrlMetrics.SOURCE_DATABASE);
+            return resolution;
+        }
+        metrics.countRedirect(ShortUrlMetrics.OUTCOME_FOUND, ShortUrlMetrics.SOURCE_DATABASE);
+        clickCountAggregator.recordClick(shortCode);
+        return resolution;
     }
 
     @Override
-    public ShortUrlStatsResponseDTO getShortUrlStats(String shortCode) throws ShortUrlNotFoundException {
-        ShortUrl shortUrl =shortUrlRepository.findByShortCode(shortCode)
-                .orElseThrow(()->new ShortUrlNotFoundException(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE));
-
-        return shortUrlMapper.toStatsDTO(shortUrl);
+    public Optional<ShortUrlStatsResponseDTO> findShortUrlStats(String shortCode) {
+        if(negativeLookupCache.check(shortCode)==NegativeLookupCache.Outcome.NOT_FOUND){
+            return Optional.empty();
+        }
+        ShortUrlStatsResponseDTO stats = shortUrlStatsCache.getAll(List.of(shortCode), this::loadStats,
+                        clickCountAggregator::getLastFlushedAtMillis)
+                .get(shortCode);
+        if (stats == null) {
+            return Optional.empty();
+        }
+        addPendingClicks(stats);
+        return Optional.of(stats);
     }
 
-    private String generateUniqueShortCode() throws ShortCodeGenerationException {
-        String shortCode=generateShortCode(SHORT_CODE_LENGTH);
-        int countAttempt=0;
-        while(countAttempt<MAX_SHORT_CODE_GENERATION_ATTEMPTS){
-            if(shortUrlRepository.findByShortCode(shortCode).isPresent()){
-                shortCode=generateShortCode(SHORT_CODE_LENGTH);
-                countAttempt++;
-            }
-            else {
-                return shortCode;
+    /**
+     * Resolves stats for many codes in a fixed number of round trips: one MGET against the
+     * stats cache, then for the codes it did not hold one IN query and one pipeline of
+     * unique-visitor counts. Unknown codes are left out of the result, which otherwise follows
+     * the order of {@code shortCodes}. Snapshots may lag the database by up to the stats cache
+     * TTL.
+     */
+    @Override
+    public List<ShortUrlStatsResponseDTO> getShortUrlStats(List<String> shortCodes) throws InvalidBatchException {
+        if (shortCodes == null || shortCodes.isEmpty() || shortCodes.size() > maxStatsBatchSize) {
+            throw new InvalidBatchException(String.format(INVALID_BATCH_EXCEPTION_MESSAGE, maxStatsBatchSize));
+        }
+        List<String> candidates = shortCodes.stream()
+                .distinct()
+                .filter(shortCode -> negativeLookupCache.check(shortCode) != NegativeLookupCache.Outcome.NOT_FOUND)
+                .toList();
+
+        Map<String, ShortUrlStatsResponseDTO> statsByCode = shortUrlStatsCache.getAll(candidates, this::loadStats,
+                clickCountAggregator::getLastFlushedAtMillis);
+        List<ShortUrlStatsResponseDTO> result = new ArrayList<>(statsByCode.size());
+        for (String shortCode : candidates) {
+            ShortUrlStatsResponseDTO stats = statsByCode.get(shortCode);
+            if (stats == null) {
+                continue;
             }
+            addPendingClicks(stats);
+            result.add(stats);
+        }
+        return result;
+    }
+
+    private List<ShortUrlStatsResponseDTO> loadStats(List<String> shortCodes) {
+        Map<Integer, List<String>> codesByShard = shortUrlShards.groupByShard(shortCodes, Function.identity());
+        List<ShortUrlStatsResponseDTO> loaded = shortUrlShards.onEveryShard(shard -> {
+                    List<String> codes = codesByShard.getOrDefault(shard, List.of());
+                    return codes.isEmpty() ? List.<ShortUrl>of() : replicaReadRouting.readWithPrimaryFallback(
+                            () -> shortUrlRepository.findByShortCodeIn(codes),
+                            found -> found.size() < codes.size());
+                })
+                .stream()
+                .flatMap(List::stream)
+                .map(shortUrlMapper::toStatsDTO)
+                .toList();
+        Map<String, Long> uniqueVisitors = uniqueVisitorCounter.countRecent(
+                loaded.stream().map(ShortUrlStatsResponseDTO::getShortCode).toList());
+        loaded.forEach(stats -> stats.setUniqueVisitors(uniqueVisitors.get(stats.getShortCode())));
+        return loaded;
+    }
+
+    private void addPendingClicks(ShortUrlStatsResponseDTO stats) {
+        long pendingClicks = clickCountAggregator.getPendingClicks(stats.getShortCode());
+        if (pendingClicks > 0) {
+            stats.setClickCount(stats.getClickCount() + pendingClicks);
+        }
+    }
+
+    private ShortUrlResolution loadAndCache(String shortCode) {
+        Instant now=clock.instant();
+        Optional<ShortUrl> foundShortUrl = metrics.recordStage(ShortUrlMetrics.STAGE_FIND_BY_SHORT_CODE,
+                () -> shortUrlShards.onShardOf(shortCode, () -> replicaReadRouting.readWithPrimaryFallback(
+                        () -> shortUrlRepository.findByShortCode(shortCode), Optional::isEmpty)));
+        if (foundShortUrl.isEmpty()) {
+            negativeLookupCache.recordNotFound(shortCode);
+            distributedLoadLock.publishMiss(shortCode, NegativeLookupCache.Outcome.NOT_FOUND);
+            return ShortUrlResolution.notFound();
         }
-        throw new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE);
+        ShortUrl shortUrl = foundShortUrl.get();
+        if (shortUrl.getExpiryDate() != null &&
+                !shortUrl.getExpiryDate().isAfter(now)) {
+            negativeLookupCache.recordExpired(shortCode);
+            distributedLoadLock.publishMiss(shortCode, NegativeLookupCache.Outcome.EXPIRED);
+            return ShortUrlResolution.expired();
+        }
+        shortUrlCache.put(shortCode, shortUrl.getOriginalUrl(), shortUrl.getExpiryDate());
+        return ShortUrlResolution.found(shortUrl.getOriginalUrl());
+    }
+
+    /**
+     * Polled while another node loads the code: its result shows up in the cache when found,
+     * or as a miss it recorded here or published for the waiting nodes.
+     */
+    private ShortUrlResolution resolveFromCache(String shortCode) {
+        String cachedUrl=shortUrlCache.get(shortCode);
+        if(cachedUrl!=null){
+            return ShortUrlResolution.found(cachedUrl);
+        }
+        NegativeLookupCache.Outcome knownMiss=negativeLookupCache.check(shortCode);
+        if(knownMiss==null){
+            knownMiss=distributedLoadLock.publishedMiss(shortCode);
+        }
+        if(knownMiss==NegativeLookupCache.Outcome.NOT_FOUND){
+            return ShortUrlResolution.notFound();
+        }
+        if(knownMiss==NegativeLookupCache.Outcome.EXPIRED){
+            return ShortUrlResolution.expired();
+        }
+        return null;
     }
 
     private String buildShortUrl(String shortCode,String baseAppUrl){
         return baseAppUrl+"/"+shortCode;
     }
 
+    private void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
 }
@@ -2,10 +2,12 @@ package com.joshwa.urlshortener.utility;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 
-import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class UrlUtils {
@@ -13,43 +15,409 @@ public class UrlUtils {
             "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private static final String HTTP_PROTOCOL_PREFIX = "http://";
     private static final String HTTPS_PROTOCOL_PREFIX = "https://";
-    private static final String HTTP_PROTOCOL = "http";
-    private static final String HTTPS_PROTOCOL = "https";
     public static final String INVALID_URL_EXCEPTION_MESSAGE="Invalid url.";
     public static final String INVALID_EXPIRY_EXCEPTION_MESSAGE="Expiry date is in the past.";
     public static final String SHORT_CODE_GENERATION_EXCEPTION_MESSAGE="Could not generate unique code after max attempts.";
-    private static final SecureRandom random = new SecureRandom();
+    public static final String INVALID_BATCH_EXCEPTION_MESSAGE="Batch must contain between 1 and %d items.";
+    public static final String INVALID_TIME_RANGE_EXCEPTION_MESSAGE="Time range must end after it starts and span at most %d buckets.";
+    private static final int SIX_BIT_MASK = 0x3F;
+    private static final int RANDOM_BLOCK_SIZE = 256;
+    private static final int MAX_PORT = 65535;
+    private static final RandomBytes[] RANDOM_STRIPES = newRandomStripes();
     public static final String SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE="The requested short URL does not exist.";
     public static final String SHORT_URL_EXPIRED_EXCEPTION_MESSAGE="The requested short URL has expired.";
 
+    /**
+     * Draws a random code from one of a fixed set of generators picked at random, so concurrent
+     * creates rarely contend on a lock and the number of generators does not grow with the number
+     * of threads, virtual ones included. Random bytes are fetched in blocks and each byte yields
+     * one 6-bit candidate; candidates of 62 or more are skipped, which keeps every character
+     * uniformly distributed.
+     */
     public static String generateShortCode(int length) {
-        StringBuilder shortCode = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            shortCode.append(SHORT_CODE_CHARSET.charAt(random.nextInt(SHORT_CODE_CHARSET.length())));
+        RandomBytes randomBytes = RANDOM_STRIPES[ThreadLocalRandom.current().nextInt(RANDOM_STRIPES.length)];
+        char[] shortCode = new char[length];
+        randomBytes.fill(shortCode);
+        return new String(shortCode);
+    }
+
+    /**
+     * Encodes a non-negative value in base62 using the short code alphabet, left-padded to
+     * {@code length} characters.
+     */
+    public static String toBase62(long value, int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        char[] code = new char[length];
+        long remaining = value;
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = SHORT_CODE_CHARSET.charAt((int) (remaining % SHORT_CODE_CHARSET.length()));
+            remaining /= SHORT_CODE_CHARSET.length();
         }
-        return shortCode.toString();
+        if (remaining != 0) {
+            throw new IllegalArgumentException("Value " + value + " does not fit in " + length + " characters.");
+        }
+        return new String(code);
+    }
+
+    /**
+     * Fixed-width lookup key for a normalized URL: the first 8 bytes of its SHA-256 digest.
+     * Collisions are possible, so a match still has to be confirmed against the full URL.
+     */
+    public static long hashUrl(String normalizedUrl) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(normalizedUrl.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
     }
 
     public static String normalizeUrl(String url){
         String originalUrl=url.trim();
-        String testUrl = url.toLowerCase().trim();
-        if(testUrl.startsWith(HTTP_PROTOCOL_PREFIX) || testUrl.startsWith(HTTPS_PROTOCOL_PREFIX)){
+        if(originalUrl.regionMatches(true, 0, HTTP_PROTOCOL_PREFIX, 0, HTTP_PROTOCOL_PREFIX.length())
+                || originalUrl.regionMatches(true, 0, HTTPS_PROTOCOL_PREFIX, 0, HTTPS_PROTOCOL_PREFIX.length())){
             return originalUrl;
         } else{
             return HTTPS_PROTOCOL_PREFIX.concat(originalUrl);
         }
     }
 
+    /**
+     * Accepts absolute http(s) URLs with a non-empty host, following the same RFC 2396 rules as
+     * {@link java.net.URI} but in one pass over the string and without allocating.
+     */
     public static boolean isValidUrl(String url) {
-        URI uri;
-        try{
-           uri=URI.create(url);
-        }catch(IllegalArgumentException | NullPointerException e) {
+        if (url == null) {
+            return false;
+        }
+        int authorityStart;
+        if (url.regionMatches(true, 0, HTTP_PROTOCOL_PREFIX, 0, HTTP_PROTOCOL_PREFIX.length())) {
+            authorityStart = HTTP_PROTOCOL_PREFIX.length();
+        } else if (url.regionMatches(true, 0, HTTPS_PROTOCOL_PREFIX, 0, HTTPS_PROTOCOL_PREFIX.length())) {
+            authorityStart = HTTPS_PROTOCOL_PREFIX.length();
+        } else {
+            return false;
+        }
+        int authorityEnd = authorityStart;
+        int hostStart = authorityStart;
+        while (authorityEnd < url.length()) {
+            char c = url.charAt(authorityEnd);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                hostStart = authorityEnd + 1;
+            }
+            authorityEnd++;
+        }
+        return isValidUserInfo(url, authorityStart, hostStart - 1)
+                && isValidHostAndPort(url, hostStart, authorityEnd)
+                && isValidPathQueryAndFragment(url, authorityEnd);
+    }
+
+    private static boolean isValidUserInfo(String url, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                if (!isEscape(url, i, end)) {
+                    return false;
+                }
+                i += 2;
+            } else if (c < 0x80 ? !isUnreserved(c) && ";:&=+$,".indexOf(c) < 0 : !isOtherCharacter(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidHostAndPort(String url, int start, int end) {
+        if (start >= end) {
             return false;
         }
-        return !StringUtils.isBlank(uri.getScheme())
-                && (uri.getScheme().equalsIgnoreCase(HTTP_PROTOCOL)
-                || uri.getScheme().equalsIgnoreCase(HTTPS_PROTOCOL))
-                && !StringUtils.isBlank(uri.getHost());
+        int hostEnd;
+        if (url.charAt(start) == '[') {
+            hostEnd = url.indexOf(']', start);
+            if (hostEnd < 0 || hostEnd >= end) {
+                return false;
+            }
+            int addressEnd = start + 1;
+            while (addressEnd < hostEnd && url.charAt(addressEnd) != '%') {
+                addressEnd++;
+            }
+            if (!isIpv6Literal(url, start + 1, addressEnd)
+                    || (addressEnd < hostEnd && !isScopeId(url, addressEnd + 1, hostEnd))) {
+                return false;
+            }
+            hostEnd++;
+        } else {
+            hostEnd = start;
+            while (hostEnd < end && url.charAt(hostEnd) != ':') {
+                hostEnd++;
+            }
+            if (!isHostname(url, start, hostEnd)) {
+                return false;
+            }
+        }
+        if (hostEnd == end) {
+            return true;
+        }
+        if (url.charAt(hostEnd) != ':') {
+            return false;
+        }
+        int port = 0;
+        for (int i = hostEnd + 1; i < end; i++) {
+            char c = url.charAt(i);
+            if (!isDigit(c)) {
+                return false;
+            }
+            port = port * 10 + (c - '0');
+            if (port > MAX_PORT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dotted labels of letters, digits and inner hyphens, with an optional trailing dot. In a
+     * dotted name the last label has to start with a letter unless the host is an IPv4 address,
+     * which takes no trailing dot.
+     */
+    private static boolean isHostname(String url, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        boolean trailingDot = url.charAt(end - 1) == '.' && end - 1 > start;
+        if (trailingDot) {
+            end--;
+        }
+        int labelStart = start;
+        int lastLabelStart = start;
+        boolean allDigitsAndDots = true;
+        int labels = 0;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? url.charAt(i) : '.';
+            if (c == '.') {
+                if (i == labelStart || url.charAt(i - 1) == '-') {
+                    return false;
+                }
+                lastLabelStart = labelStart;
+                labelStart = i + 1;
+                labels++;
+            } else if (c == '-') {
+                if (i == labelStart) {
+                    return false;
+                }
+                allDigitsAndDots = false;
+            } else if (isAlpha(c)) {
+                allDigitsAndDots = false;
+            } else if (!isDigit(c)) {
+                return false;
+            }
+        }
+        if (labels == 1 || isAlpha(url.charAt(lastLabelStart))) {
+            return true;
+        }
+        return allDigitsAndDots && !trailingDot && isIpv4Literal(url, start, end);
+    }
+
+    private static boolean isIpv4Literal(String url, int start, int end) {
+        int octet = 0;
+        int digits = 0;
+        int octets = 0;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? url.charAt(i) : '.';
+            if (c == '.') {
+                if (digits == 0 || octet > 255) {
+                    return false;
+                }
+                octet = 0;
+                digits = 0;
+                octets++;
+            } else if (!isDigit(c)) {
+                return false;
+            } else {
+                octet = octet * 10 + (c - '0');
+                digits++;
+                if (digits > 3) {
+                    return false;
+                }
+            }
+        }
+        return octets == 4;
+    }
+
+    /**
+     * Up to eight groups of one to four hex digits, at most one {@code ::}, and optionally an
+     * IPv4 address in place of the last two groups.
+     */
+    private static boolean isIpv6Literal(String url, int start, int end) {
+        int groups = 0;
+        boolean compressed = false;
+        int i = start;
+        if (url.startsWith("::", i)) {
+            compressed = true;
+            i += 2;
+        }
+        while (i < end) {
+            int groupEnd = i;
+            while (groupEnd < end && isHexDigit(url.charAt(groupEnd))) {
+                groupEnd++;
+            }
+            if (groupEnd < end && url.charAt(groupEnd) == '.') {
+                return isIpv4Literal(url, i, end) && (compressed ? groups <= 5 : groups == 6);
+            }
+            if (groupEnd == i || groupEnd - i > 4) {
+                return false;
+            }
+            groups++;
+            if (groupEnd == end) {
+                break;
+            }
+            if (url.charAt(groupEnd) != ':') {
+                return false;
+            }
+            if (url.startsWith("::", groupEnd)) {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i = groupEnd + 2;
+            } else {
+                i = groupEnd + 1;
+                if (i == end) {
+                    return false;
+                }
+            }
+        }
+        return compressed ? groups <= 7 : groups == 8;
+    }
+
+    private static boolean isScopeId(String url, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (!isAlpha(c) && !isDigit(c) && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Path, query and a single fragment may hold any URI character or escape, except that
+     * square brackets are only allowed after the path.
+     * Like {@link java.net.URI}, non-ASCII characters other than spaces and controls are allowed.
+     */
+    private static boolean isValidPathQueryAndFragment(String url, int start) {
+        boolean inPath = true;
+        boolean inFragment = false;
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                if (!isEscape(url, i, url.length())) {
+                    return false;
+                }
+                i += 2;
+            } else if (c == '#') {
+                if (inFragment) {
+                    return false;
+                }
+                inPath = false;
+                inFragment = true;
+            } else if (c == '?') {
+                inPath = false;
+            } else if ((c == '[' || c == ']') && inPath) {
+                return false;
+            } else if (c < 0x80) {
+                if (!isUnreserved(c) && ";/?:@&=+$,[]".indexOf(c) < 0) {
+                    return false;
+                }
+            } else if (!isOtherCharacter(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEscape(String url, int percentIndex, int end) {
+        return percentIndex + 2 < end
+                && isHexDigit(url.charAt(percentIndex + 1))
+                && isHexDigit(url.charAt(percentIndex + 2));
+    }
+
+    private static boolean isOtherCharacter(char c) {
+        return !Character.isSpaceChar(c) && !Character.isISOControl(c);
+    }
+
+    private static boolean isUnreserved(char c) {
+        return isAlpha(c) || isDigit(c) || "-_.!~*'()".indexOf(c) >= 0;
+    }
+
+    private static boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static RandomBytes[] newRandomStripes() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+        RandomBytes[] randomStripes = new RandomBytes[stripes];
+        for (int i = 0; i < stripes; i++) {
+            randomStripes[i] = new RandomBytes();
+        }
+        return randomStripes;
+    }
+
+    /**
+     * Block of secure random bytes shared by the threads that land on this stripe, refilled
+     * with one generator call when drained. The lock is held only while a code is filled in.
+     */
+    private static final class RandomBytes {
+
+        private final SecureRandom random = newSecureRandom();
+        private final byte[] block = new byte[RANDOM_BLOCK_SIZE];
+        private int position = RANDOM_BLOCK_SIZE;
+
+        synchronized void fill(char[] shortCode) {
+            int filled = 0;
+            while (filled < shortCode.length) {
+                int index = next() & SIX_BIT_MASK;
+                if (index < SHORT_CODE_CHARSET.length()) {
+                    shortCode[filled++] = SHORT_CODE_CHARSET.charAt(index);
+                }
+            }
+        }
+
+        private int next() {
+            if (position == block.length) {
+                random.nextBytes(block);
+                position = 0;
+            }
+            return block[position++];
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
     }
 }
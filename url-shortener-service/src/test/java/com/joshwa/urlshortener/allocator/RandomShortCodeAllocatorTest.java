@@ -0,0 +1,45 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.SHORT_CODE_GENERATION_EXCEPTION_MESSAGE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RandomShortCodeAllocatorTest {
+
+    private static final ShortUrlShards SHARDS = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1);
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Test
+    void shouldReturnCode_whenNoCollision() throws ShortCodeGenerationException {
+        when(shortUrlRepository.existsByShortCode(anyString())).thenReturn(false);
+        String shortCode = new RandomShortCodeAllocator(shortUrlRepository, SHARDS, new ShortUrlMetrics(new SimpleMeterRegistry())).allocate();
+        assertEquals(RandomShortCodeAllocator.SHORT_CODE_LENGTH, shortCode.length());
+        verify(shortUrlRepository).existsByShortCode(shortCode);
+    }
+
+    @Test
+    void shouldThrowShortCodeGenerationException_whenAllAttemptsCollide() {
+        when(shortUrlRepository.existsByShortCode(anyString())).thenReturn(true);
+        ShortCodeGenerationException exception =
+                assertThrows(ShortCodeGenerationException.class,
+                        () -> new RandomShortCodeAllocator(shortUrlRepository, SHARDS, new ShortUrlMetrics(new SimpleMeterRegistry())).allocate());
+        assertEquals(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE, exception.getMessage());
+        verify(shortUrlRepository, times(RandomShortCodeAllocator.MAX_SHORT_CODE_GENERATION_ATTEMPTS))
+                .existsByShortCode(anyString());
+    }
+}
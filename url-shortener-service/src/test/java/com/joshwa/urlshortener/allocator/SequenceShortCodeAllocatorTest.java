@@ -0,0 +1,71 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SequenceShortCodeAllocatorTest {
+
+    @Mock
+    private ShortCodeRangeLeaser rangeLeaser;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldIssueDistinctFixedWidthCodes_acrossBlocks(boolean obfuscate) throws ShortCodeGenerationException {
+        when(rangeLeaser.leaseBlock(SequenceShortCodeAllocator.SEQUENCE_NAME, 100))
+                .thenReturn(1L, 101L, 201L);
+        SequenceShortCodeAllocator allocator = new SequenceShortCodeAllocator(rangeLeaser, 100, obfuscate);
+
+        List<String> shortCodes = allocator.allocate(250);
+
+        assertEquals(250, new HashSet<>(shortCodes).size());
+        assertTrue(shortCodes.stream().allMatch(code ->
+                code.length() == SequenceShortCodeAllocator.SHORT_CODE_LENGTH
+                        && code.chars().allMatch(Character::isLetterOrDigit)));
+        verify(rangeLeaser, times(3)).leaseBlock(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldPermuteWithoutCollisions() {
+        Set<Long> permuted = new HashSet<>();
+        for (long id = 0; id < 100_000; id++) {
+            permuted.add(SequenceShortCodeAllocator.permute(id));
+        }
+        assertEquals(100_000, permuted.size());
+        assertTrue(permuted.stream().allMatch(value -> value >= 0 && value < (1L << 53)));
+    }
+
+    @Test
+    void shouldRetryLease_whenSequenceRowIsContended() throws ShortCodeGenerationException {
+        when(rangeLeaser.leaseBlock(SequenceShortCodeAllocator.SEQUENCE_NAME, 10))
+                .thenThrow(new CannotAcquireLockException("contended"))
+                .thenReturn(1L);
+        SequenceShortCodeAllocator allocator = new SequenceShortCodeAllocator(rangeLeaser, 10, false);
+
+        assertEquals("AAAAAAAAB", allocator.allocate());
+    }
+
+    @Test
+    void shouldThrowShortCodeGenerationException_whenLeasingKeepsFailing() {
+        when(rangeLeaser.leaseBlock(anyString(), anyInt()))
+                .thenThrow(new CannotAcquireLockException("db down"));
+        SequenceShortCodeAllocator allocator = new SequenceShortCodeAllocator(rangeLeaser, 10, false);
+
+        assertThrows(ShortCodeGenerationException.class, allocator::allocate);
+    }
+}
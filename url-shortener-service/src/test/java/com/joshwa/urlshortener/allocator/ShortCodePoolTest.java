@@ -0,0 +1,94 @@
+package com.joshwa.urlshortener.allocator;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortCodePoolTest {
+
+    private static final ShortUrlShards SHARDS = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1);
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ListOperations<String, String> listOps;
+
+    @Test
+    void shouldFillToCapacity_whenBelowLowWaterMark() {
+        when(shortUrlRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+        ShortCodePool pool = new ShortCodePool(shortUrlRepository, SHARDS, redisTemplate, 100, 20, 30, false);
+
+        assertEquals(100, pool.refill());
+        assertEquals(100, pool.getDepth());
+        assertEquals(0, pool.refill());
+
+        Set<String> polled = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            polled.add(pool.poll());
+        }
+        assertEquals(100, polled.size());
+        assertNull(pool.poll());
+        assertEquals(0, pool.getDepth());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldSkipCodesThatAlreadyExist() {
+        when(shortUrlRepository.findExistingShortCodes(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Set<String>>getArgument(0)).subList(0, 1))
+                .thenReturn(List.of());
+        ShortCodePool pool = new ShortCodePool(shortUrlRepository, SHARDS, redisTemplate, 10, 5, 10, false);
+
+        pool.refill();
+
+        assertEquals(10, pool.getDepth());
+        verify(shortUrlRepository, times(2)).findExistingShortCodes(anyCollection());
+    }
+
+    @Test
+    void shouldPullFromSharedRedisList_whenShared() {
+        when(redisTemplate.opsForList()).thenReturn(listOps);
+        when(listOps.size(ShortCodePool.SHARED_POOL_KEY)).thenReturn(1000L);
+        when(listOps.leftPop(ShortCodePool.SHARED_POOL_KEY, 2)).thenReturn(List.of("aaaaaaaa", "bbbbbbbb"));
+        ShortCodePool pool = new ShortCodePool(shortUrlRepository, SHARDS, redisTemplate, 2, 1, 10, true);
+
+        assertEquals(2, pool.refill());
+        assertEquals("aaaaaaaa", pool.poll());
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldFallBackToRandomAllocation_whenPoolIsDry() throws ShortCodeGenerationException {
+        when(shortUrlRepository.existsByShortCode(anyString())).thenReturn(false);
+        ShortCodePool pool = new ShortCodePool(shortUrlRepository, SHARDS, redisTemplate, 10, 5, 10, false);
+        PooledShortCodeAllocator allocator = new PooledShortCodeAllocator(pool, shortUrlRepository, SHARDS,
+                new ShortUrlMetrics(new SimpleMeterRegistry()));
+
+        String shortCode = allocator.allocate();
+
+        assertEquals(RandomShortCodeAllocator.SHORT_CODE_LENGTH, shortCode.length());
+        verify(shortUrlRepository).existsByShortCode(shortCode);
+    }
+}
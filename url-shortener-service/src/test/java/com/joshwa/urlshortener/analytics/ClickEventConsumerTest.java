@@ -0,0 +1,141 @@
+package com.joshwa.urlshortener.analytics;
+
+import com.joshwa.urlshortener.repository.ClickRollupKey;
+import com.joshwa.urlshortener.repository.ClickRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickEventConsumerTest {
+
+    private static final Duration CLAIM_MIN_IDLE = Duration.ofMinutes(5);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private ClickRollupRepository clickRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClickEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ClickEventConsumer(redisTemplate, clickRollupRepository, transactionManager, "node-1", 10, 5,
+                CLAIM_MIN_IDLE);
+        when(redisTemplate.execute(any(RedisCallback.class), eq(true))).thenReturn("OK");
+        doReturn(streamOperations).when(redisTemplate).opsForStream();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRollUpEventsIntoHourlyAndDailyBuckets_thenAcknowledge() {
+        Instant morning = Instant.parse("2026-03-01T09:15:00Z");
+        Instant lateMorning = Instant.parse("2026-03-01T10:45:00Z");
+        MapRecord<String, Object, Object> first = record("1-0",
+                new ClickEvent(morning.toEpochMilli(), "abc12345", "", UserAgentClass.MOBILE, "DE"));
+        MapRecord<String, Object, Object> second = record("1-1",
+                new ClickEvent(morning.plusSeconds(60).toEpochMilli(), "abc12345", "t.co", UserAgentClass.MOBILE, "DE"));
+        MapRecord<String, Object, Object> third = record("1-2",
+                new ClickEvent(lateMorning.toEpochMilli(), "abc12345", "", UserAgentClass.DESKTOP, "US"));
+        when(streamOperations.read(any(org.springframework.data.redis.connection.stream.Consumer.class),
+                any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(first, second, third))
+                .thenReturn(List.of());
+
+        long consumed = consumer.consume();
+
+        assertEquals(3, consumed);
+        verify(clickRollupRepository).addClicks(ClickRollupGranularity.HOUR, Map.of(
+                new ClickRollupKey("abc12345", Instant.parse("2026-03-01T09:00:00Z"), UserAgentClass.MOBILE, "DE"), 2L,
+                new ClickRollupKey("abc12345", Instant.parse("2026-03-01T10:00:00Z"), UserAgentClass.DESKTOP, "US"), 1L));
+        verify(clickRollupRepository).addClicks(ClickRollupGranularity.DAY, Map.of(
+                new ClickRollupKey("abc12345", Instant.parse("2026-03-01T00:00:00Z"), UserAgentClass.MOBILE, "DE"), 2L,
+                new ClickRollupKey("abc12345", Instant.parse("2026-03-01T00:00:00Z"), UserAgentClass.DESKTOP, "US"), 1L));
+        verify(streamOperations).acknowledge(ClickEventPublisher.CLICK_STREAM_KEY, ClickEventConsumer.CONSUMER_GROUP,
+                RecordId.of("1-0"), RecordId.of("1-1"), RecordId.of("1-2"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAcknowledgeMalformedEntries_withoutRollingThemUp() {
+        MapRecord<String, Object, Object> malformed = MapRecord.<String, Object, Object>create(
+                ClickEventPublisher.CLICK_STREAM_KEY, Map.of("x", "y")).withId(RecordId.of("2-0"));
+        when(streamOperations.read(any(org.springframework.data.redis.connection.stream.Consumer.class),
+                any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(malformed))
+                .thenReturn(List.of());
+
+        assertEquals(1, consumer.consume());
+        verify(clickRollupRepository).addClicks(ClickRollupGranularity.HOUR, Map.of());
+        verify(streamOperations).acknowledge(ClickEventPublisher.CLICK_STREAM_KEY, ClickEventConsumer.CONSUMER_GROUP,
+                RecordId.of("2-0"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldClaimEntriesIdleAtOtherConsumers_andRollThemUp() {
+        Instant clickedAt = Instant.parse("2026-03-01T09:15:00Z");
+        MapRecord<String, Object, Object> orphaned = record("3-0",
+                new ClickEvent(clickedAt.toEpochMilli(), "abc12345", "", UserAgentClass.MOBILE, "DE"));
+        when(streamOperations.pending(eq(ClickEventPublisher.CLICK_STREAM_KEY), eq(ClickEventConsumer.CONSUMER_GROUP),
+                any(Range.class), eq(10L), eq(CLAIM_MIN_IDLE)))
+                .thenReturn(new PendingMessages(ClickEventConsumer.CONSUMER_GROUP, List.of(
+                        pending("3-0", "node-2"),
+                        pending("3-1", "node-1"))));
+        when(streamOperations.claim(ClickEventPublisher.CLICK_STREAM_KEY, ClickEventConsumer.CONSUMER_GROUP, "node-1",
+                CLAIM_MIN_IDLE, RecordId.of("3-0")))
+                .thenReturn(List.of(orphaned));
+        when(streamOperations.read(any(org.springframework.data.redis.connection.stream.Consumer.class),
+                any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of());
+
+        assertEquals(1, consumer.consume());
+        verify(clickRollupRepository).addClicks(ClickRollupGranularity.HOUR, Map.of(
+                new ClickRollupKey("abc12345", Instant.parse("2026-03-01T09:00:00Z"), UserAgentClass.MOBILE, "DE"), 1L));
+        verify(streamOperations).acknowledge(ClickEventPublisher.CLICK_STREAM_KEY, ClickEventConsumer.CONSUMER_GROUP,
+                RecordId.of("3-0"));
+    }
+
+    private static PendingMessage pending(String id, String consumerName) {
+        return new PendingMessage(RecordId.of(id),
+                org.springframework.data.redis.connection.stream.Consumer.from(ClickEventConsumer.CONSUMER_GROUP,
+                        consumerName),
+                Duration.ofMinutes(10), 1);
+    }
+
+    private static MapRecord<String, Object, Object> record(String id, ClickEvent event) {
+        return MapRecord.<String, Object, Object>create(ClickEventPublisher.CLICK_STREAM_KEY, Map.copyOf(event.toFields()))
+                .withId(RecordId.of(id));
+    }
+}
@@ -0,0 +1,43 @@
+package com.joshwa.urlshortener.analytics;
+
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClickEventPublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private UniqueVisitorCounter uniqueVisitorCounter;
+
+    @Test
+    void shouldDropClicks_onceTheQueueIsAtCapacity() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        when(uniqueVisitorCounter.getRetention()).thenReturn(Duration.ofDays(90));
+        ClickEventPublisher publisher = new ClickEventPublisher(redisTemplate,
+                Clock.fixed(Instant.parse("2026-03-01T09:15:00Z"), ZoneOffset.UTC),
+                new ShortUrlMetrics(registry), uniqueVisitorCounter, true, "CF-IPCountry", 2, 500, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            publisher.publish("abc12345", "203.0.113.7", header -> null);
+        }
+
+        assertEquals(2, publisher.getQueuedEvents());
+        assertEquals(3.0, registry.get(ShortUrlMetrics.CLICK_EVENTS_DROPPED_COUNTER).counter().count());
+    }
+}
@@ -0,0 +1,71 @@
+package com.joshwa.urlshortener.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickEventTest {
+
+    @ParameterizedTest
+    @MethodSource("provideUserAgentData")
+    void classifyUserAgentTest(String userAgent, UserAgentClass expectedClass) {
+        assertEquals(expectedClass, UserAgentClass.classify(userAgent));
+    }
+
+    private static Stream<Arguments> provideUserAgentData() {
+        return Stream.of(
+                Arguments.of("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/120.0 Safari/537.36",
+                        UserAgentClass.DESKTOP),
+                Arguments.of("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148", UserAgentClass.MOBILE),
+                Arguments.of("Mozilla/5.0 (Linux; Android 14; Pixel 8) Mobile Safari/537.36", UserAgentClass.MOBILE),
+                Arguments.of("Mozilla/5.0 (iPad; CPU OS 17_0 like Mac OS X)", UserAgentClass.TABLET),
+                Arguments.of("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)", UserAgentClass.BOT),
+                Arguments.of("curl/8.4.0", UserAgentClass.BOT),
+                Arguments.of("SomeClient/1.0", UserAgentClass.OTHER),
+                Arguments.of("", UserAgentClass.OTHER),
+                Arguments.of(null, UserAgentClass.OTHER)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideReferrerData")
+    void referrerHostTest(String referrer, String expectedHost) {
+        assertEquals(expectedHost, ClickEvent.referrerHost(referrer));
+    }
+
+    private static Stream<Arguments> provideReferrerData() {
+        return Stream.of(
+                Arguments.of("https://www.Example.com/some/page?q=1", "www.example.com"),
+                Arguments.of("http://news.site:8080/", "news.site"),
+                Arguments.of("https://user@mail.example.org#x", "mail.example.org"),
+                Arguments.of("android-app://com.app", "com.app"),
+                Arguments.of("not a url", ""),
+                Arguments.of(null, "")
+        );
+    }
+
+    @Test
+    void shouldNormalizeRegionCodes() {
+        assertEquals("DE", ClickEvent.regionCode("de"));
+        assertEquals(ClickEvent.UNKNOWN_REGION, ClickEvent.regionCode("T1"));
+        assertEquals(ClickEvent.UNKNOWN_REGION, ClickEvent.regionCode("DEU"));
+        assertEquals(ClickEvent.UNKNOWN_REGION, ClickEvent.regionCode(null));
+    }
+
+    @Test
+    void shouldRoundTripThroughStreamFields() {
+        ClickEvent event = ClickEvent.of(1_700_000_000_000L, "abc12345", "https://t.co/x",
+                "Mozilla/5.0 (iPhone) Mobile", "us");
+
+        ClickEvent decoded = ClickEvent.fromFields(event.toFields());
+
+        assertEquals(new ClickEvent(1_700_000_000_000L, "abc12345", "t.co", UserAgentClass.MOBILE, "US"), decoded);
+        assertThrows(IllegalArgumentException.class, () -> ClickEvent.fromFields(Map.of("c", "abc12345")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.joshwa.urlshortener.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UniqueVisitorCounterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HyperLogLogOperations<String, String> hyperLogLogOperations;
+
+    private UniqueVisitorCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-10T08:00:00Z"), ZoneOffset.UTC);
+        counter = new UniqueVisitorCounter(redisTemplate, clock, Duration.ofDays(5), Duration.ofDays(2));
+    }
+
+    @Test
+    void shouldKeyVisitorsByCodeAndUtcDay() {
+        assertEquals("shorturl:visitors:{abc12345}:2026-03-09",
+                UniqueVisitorCounter.toVisitorKey("abc12345", Instant.parse("2026-03-09T23:59:59Z").toEpochMilli()));
+    }
+
+    @Test
+    void shouldDeriveStableVisitorIds_fromAddressAndUserAgent() {
+        byte[] visitor = UniqueVisitorCounter.visitorId("203.0.113.7", "Mozilla/5.0");
+
+        assertEquals(8, visitor.length);
+        assertArrayEquals(visitor, UniqueVisitorCounter.visitorId("203.0.113.7", "Mozilla/5.0"));
+        assertFalse(Arrays.equals(visitor, UniqueVisitorCounter.visitorId("203.0.113.7", "curl/8.0")));
+        assertNotNull(UniqueVisitorCounter.visitorId("203.0.113.7", null));
+        assertNull(UniqueVisitorCounter.visitorId(null, "Mozilla/5.0"));
+    }
+
+    @Test
+    void shouldMergeDailyKeys_clampedToRetention() {
+        doReturn(hyperLogLogOperations).when(redisTemplate).opsForHyperLogLog();
+        when(hyperLogLogOperations.size(any(String[].class))).thenReturn(42L);
+
+        assertEquals(42, counter.count("abc12345", LocalDate.parse("2026-02-01"), LocalDate.parse("2026-03-07")));
+
+        verify(hyperLogLogOperations).size(
+                "shorturl:visitors:{abc12345}:2026-03-06",
+                "shorturl:visitors:{abc12345}:2026-03-07");
+    }
+
+    @Test
+    void shouldCountRecentVisitors_overStatsWindow() {
+        doReturn(hyperLogLogOperations).when(redisTemplate).opsForHyperLogLog();
+        when(hyperLogLogOperations.size(any(String[].class))).thenReturn(3L);
+
+        assertEquals(3, counter.countRecent("abc12345"));
+
+        verify(hyperLogLogOperations).size(
+                "shorturl:visitors:{abc12345}:2026-03-09",
+                "shorturl:visitors:{abc12345}:2026-03-10");
+    }
+
+    @Test
+    void shouldSkipRedis_whenRangeIsOutsideRetention() {
+        assertEquals(0, counter.count("abc12345", LocalDate.parse("2026-01-01"), LocalDate.parse("2026-01-31")));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldCountManyCodesInOnePipeline() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(5L, 0L));
+
+        assertEquals(Map.of("abc12345", 5L, "def67890", 0L), counter.countRecent(List.of("abc12345", "def67890")));
+        assertEquals(Map.of(), counter.countRecent(List.of()));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+}
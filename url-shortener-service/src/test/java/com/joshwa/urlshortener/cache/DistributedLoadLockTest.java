@@ -0,0 +1,90 @@
+package com.joshwa.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistributedLoadLockTest {
+
+    private static final String VALID_SHORT_CODE_FOR_TEST = "2gU8SHsz";
+    private static final String LOCK_KEY = "shorturl:lock:" + VALID_SHORT_CODE_FOR_TEST;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    private DistributedLoadLock lock(boolean enabled) {
+        return new DistributedLoadLock(redisTemplate, enabled,
+                Duration.ofSeconds(2), Duration.ofMillis(100), Duration.ofMillis(10));
+    }
+
+    @Test
+    void shouldLoadDirectly_whenDisabled() {
+        assertEquals("db", lock(false).load(VALID_SHORT_CODE_FOR_TEST, () -> "db", () -> "cache"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldLoadAndRelease_whenLeaseAcquired() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertEquals("db", lock(true).load(VALID_SHORT_CODE_FOR_TEST, () -> "db", () -> "cache"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+    }
+
+    @Test
+    void shouldUseWinnersCachedResult_whenLeaseHeldElsewhere() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertEquals("cache", lock(true).load(VALID_SHORT_CODE_FOR_TEST, () -> "db", () -> "cache"));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    void shouldFallBackToLoading_whenWinnerNeverPublishes() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertEquals("db", lock(true).load(VALID_SHORT_CODE_FOR_TEST, () -> "db", () -> null));
+    }
+
+    @Test
+    void shouldPublishMissForTheWaitBudget() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        lock(true).publishMiss(VALID_SHORT_CODE_FOR_TEST, NegativeLookupCache.Outcome.NOT_FOUND);
+
+        verify(valueOps).set("shorturl:miss:" + VALID_SHORT_CODE_FOR_TEST, "NOT_FOUND", Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldNotPublishMiss_whenDisabled() {
+        lock(false).publishMiss(VALID_SHORT_CODE_FOR_TEST, NegativeLookupCache.Outcome.EXPIRED);
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldReadPublishedMiss() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get("shorturl:miss:" + VALID_SHORT_CODE_FOR_TEST)).thenReturn("EXPIRED");
+
+        assertEquals(NegativeLookupCache.Outcome.EXPIRED, lock(true).publishedMiss(VALID_SHORT_CODE_FOR_TEST));
+    }
+}
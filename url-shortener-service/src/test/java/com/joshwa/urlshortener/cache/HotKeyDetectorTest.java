@@ -0,0 +1,72 @@
+package com.joshwa.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyDetectorTest {
+
+    private static final Clock clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void shouldReportMostRequestedCodesAboveThreshold_hottestFirst() {
+        HotKeyDetector detector = new HotKeyDetector(clock, 1024, 4, 2, 10);
+        record(detector, "viral001", 50);
+        record(detector, "viral002", 30);
+        record(detector, "warm0001", 20);
+        for (int i = 0; i < 500; i++) {
+            detector.record("cold" + i);
+        }
+
+        HotKeyDetector.HotKeys hotKeys = detector.rotate();
+
+        assertEquals(List.of("viral001", "viral002"),
+                hotKeys.keys().stream().map(HotKeyDetector.HotKey::shortCode).toList());
+        assertTrue(hotKeys.keys().get(0).estimatedRequests() >= 50);
+        assertSame(hotKeys, detector.getHotKeys());
+    }
+
+    @Test
+    void shouldReplaceCandidate_whenAnotherCodeOvertakesIt() {
+        HotKeyDetector detector = new HotKeyDetector(clock, 1024, 4, 1, 10);
+        record(detector, "early001", 15);
+        record(detector, "late0001", 40);
+
+        assertEquals(List.of("late0001"),
+                detector.rotate().keys().stream().map(HotKeyDetector.HotKey::shortCode).toList());
+    }
+
+    @Test
+    void shouldStartEachWindowFromZero() {
+        HotKeyDetector detector = new HotKeyDetector(clock, 1024, 4, 10, 10);
+        record(detector, "viral001", 50);
+        detector.rotate();
+
+        record(detector, "viral001", 5);
+
+        assertTrue(detector.rotate().keys().isEmpty());
+    }
+
+    @Test
+    void shouldCountRequestsServedElsewhere_asOneBatch() {
+        HotKeyDetector detector = new HotKeyDetector(clock, 1024, 4, 10, 10);
+        detector.record("tier0001", 40);
+        detector.record("tier0002", 9);
+
+        HotKeyDetector.HotKeys hotKeys = detector.rotate();
+
+        assertEquals(List.of("tier0001"), hotKeys.keys().stream().map(HotKeyDetector.HotKey::shortCode).toList());
+        assertEquals(40, hotKeys.keys().get(0).estimatedRequests());
+    }
+
+    private static void record(HotKeyDetector detector, String shortCode, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record(shortCode);
+        }
+    }
+}
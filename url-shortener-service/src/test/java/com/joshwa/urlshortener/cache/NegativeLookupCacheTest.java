@@ -0,0 +1,89 @@
+package com.joshwa.urlshortener.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NegativeLookupCacheTest {
+
+    private static final String ISSUED_SHORT_CODE = "2gU8SHsz";
+    private static final String UNKNOWN_SHORT_CODE = "zzzzzzzz";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private NegativeLookupCache negativeLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        negativeLookupCache = new NegativeLookupCache(redisTemplate, 1_000, 0.01, Duration.ofSeconds(30), 100);
+    }
+
+    @Test
+    void shouldTreatEveryCodeAsPossible_untilBloomFilterBuilt() {
+        assertFalse(negativeLookupCache.isBloomFilterReady());
+        assertNull(negativeLookupCache.check(UNKNOWN_SHORT_CODE));
+    }
+
+    @Test
+    void shouldRejectNeverIssuedCodes_afterRebuild() {
+        long loaded = negativeLookupCache.rebuild(issued -> issued.accept(ISSUED_SHORT_CODE));
+
+        assertEquals(1, loaded);
+        assertNull(negativeLookupCache.check(ISSUED_SHORT_CODE));
+        assertEquals(NegativeLookupCache.Outcome.NOT_FOUND, negativeLookupCache.check(UNKNOWN_SHORT_CODE));
+    }
+
+    @Test
+    void shouldRememberConfirmedMisses() {
+        negativeLookupCache.rebuild(issued -> issued.accept(ISSUED_SHORT_CODE));
+        negativeLookupCache.recordExpired(ISSUED_SHORT_CODE);
+
+        assertEquals(NegativeLookupCache.Outcome.EXPIRED, negativeLookupCache.check(ISSUED_SHORT_CODE));
+    }
+
+    @Test
+    void shouldAcceptAndAnnounceCreatedCodes() {
+        negativeLookupCache.rebuild(issued -> {
+        });
+        negativeLookupCache.recordNotFound(UNKNOWN_SHORT_CODE);
+
+        negativeLookupCache.registerCreated(List.of(UNKNOWN_SHORT_CODE));
+
+        assertNull(negativeLookupCache.check(UNKNOWN_SHORT_CODE));
+        verify(redisTemplate).convertAndSend(NegativeLookupCache.CREATED_CHANNEL, UNKNOWN_SHORT_CODE);
+    }
+
+    @Test
+    void shouldKeepCodesCreatedDuringRebuild() {
+        negativeLookupCache.rebuild(issued -> {
+            negativeLookupCache.addLocal(List.of(UNKNOWN_SHORT_CODE));
+            issued.accept(ISSUED_SHORT_CODE);
+        });
+
+        assertNull(negativeLookupCache.check(UNKNOWN_SHORT_CODE));
+    }
+
+    @Test
+    void shouldHaveNoFalseNegativesAndFewFalsePositives() {
+        ShortCodeBloomFilter bloomFilter = new ShortCodeBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.add("issued" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> bloomFilter.mightContain("issued" + i)));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> bloomFilter.mightContain("unknown" + i))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,155 @@
+package com.joshwa.urlshortener.cache;
+
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlCacheTest {
+
+    private static final String VALID_URL_FOR_TEST = "https://www.love.com";
+    private static final String VALID_SHORT_CODE_FOR_TEST = "2gU8SHsz";
+    private static final String VALID_CACHE_KEY_FOR_TEST = "shorturl:" + VALID_SHORT_CODE_FOR_TEST;
+    private static final Clock clock = Clock.fixed(
+            Instant.parse("2026-01-01T10:00:00Z"),
+            ZoneOffset.UTC
+    );
+    private static final Instant FUTURE_VALID_EXPIRY = Instant.parse("2026-01-02T10:00:00Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    private ShortUrlCache shortUrlCache;
+
+    @BeforeEach
+    void setUp() {
+        shortUrlCache = new ShortUrlCache(redisTemplate, clock, new ShortUrlMetrics(new SimpleMeterRegistry()), 10_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldCacheWithRemainingTtl_whenLinkHasExpiry() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        shortUrlCache.put(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, FUTURE_VALID_EXPIRY);
+        verify(valueOps).set(VALID_CACHE_KEY_FOR_TEST, VALID_URL_FOR_TEST, Duration.ofDays(1));
+    }
+
+    @Test
+    void shouldCacheWithoutTtl_whenLinkHasNoExpiry() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        shortUrlCache.put(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, null);
+        verify(valueOps).set(VALID_CACHE_KEY_FOR_TEST, VALID_URL_FOR_TEST);
+    }
+
+    @Test
+    void shouldNotCache_whenLinkAlreadyExpired() {
+        shortUrlCache.put(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, clock.instant());
+        verifyNoInteractions(redisTemplate);
+        assertEquals(0, shortUrlCache.getL1Size());
+    }
+
+    @Test
+    void shouldServeFromL1_afterPut() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        shortUrlCache.put(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, null);
+
+        assertEquals(VALID_URL_FOR_TEST, shortUrlCache.get(VALID_SHORT_CODE_FOR_TEST));
+        assertEquals(1, shortUrlCache.getL1Hits());
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldPromoteL2HitIntoL1() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(VALID_URL_FOR_TEST, 60_000L));
+
+        assertEquals(VALID_URL_FOR_TEST, shortUrlCache.get(VALID_SHORT_CODE_FOR_TEST));
+        assertEquals(VALID_URL_FOR_TEST, shortUrlCache.get(VALID_SHORT_CODE_FOR_TEST));
+
+        assertEquals(1, shortUrlCache.getL1Misses());
+        assertEquals(1, shortUrlCache.getL2Hits());
+        assertEquals(1, shortUrlCache.getL1Hits());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldReturnNull_whenBothLevelsMiss() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(null, -2L));
+
+        assertNull(shortUrlCache.get(VALID_SHORT_CODE_FOR_TEST));
+        assertEquals(1, shortUrlCache.getL1Misses());
+        assertEquals(1, shortUrlCache.getL2Misses());
+    }
+
+    @Test
+    void shouldEvictRedisAndL1AndBroadcast_whenInvalidated() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        shortUrlCache.put(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, null);
+
+        shortUrlCache.invalidate(List.of(VALID_SHORT_CODE_FOR_TEST));
+
+        assertEquals(0, shortUrlCache.getL1Size());
+        verify(redisTemplate).delete(List.of(VALID_CACHE_KEY_FOR_TEST));
+        verify(redisTemplate).convertAndSend(ShortUrlCache.INVALIDATION_CHANNEL, VALID_SHORT_CODE_FOR_TEST);
+    }
+
+    @Test
+    void shouldPipelineUnexpiredLinksAndFillL1_whenPuttingMany() {
+        List<ShortUrlTarget> targets = List.of(
+                new ShortUrlTarget(VALID_SHORT_CODE_FOR_TEST, VALID_URL_FOR_TEST, FUTURE_VALID_EXPIRY),
+                new ShortUrlTarget("neverExp", VALID_URL_FOR_TEST, null),
+                new ShortUrlTarget("expired1", VALID_URL_FOR_TEST, clock.instant()));
+
+        assertEquals(2, shortUrlCache.putAll(targets));
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        assertEquals(2, shortUrlCache.getL1Size());
+        assertEquals(VALID_URL_FOR_TEST, shortUrlCache.get("neverExp"));
+    }
+
+    @Test
+    void shouldServePinnedCodeWithoutRedis_untilEvicted() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(VALID_URL_FOR_TEST, -1L));
+        shortUrlCache.pinLocal(List.of(VALID_SHORT_CODE_FOR_TEST));
+
+        assertEquals(VALID_URL_FOR_TEST, shortUrlCache.get(VALID_SHORT_CODE_FOR_TEST));
+        assertEquals(1, shortUrlCache.getPinnedHits());
+        assertEquals(0, shortUrlCache.getL1Misses());
+
+        shortUrlCache.evictLocal(List.of(VALID_SHORT_CODE_FOR_TEST));
+        assertTrue(shortUrlCache.getPinnedShortCodes().isEmpty());
+    }
+
+    @Test
+    void shouldExtendExistingPinWithoutRedis_andSkipCodesRedisDoesNotHold() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(VALID_URL_FOR_TEST, 60_000L, null, -2L));
+        shortUrlCache.pinLocal(List.of(VALID_SHORT_CODE_FOR_TEST, "unknown1"));
+
+        shortUrlCache.pinLocal(List.of(VALID_SHORT_CODE_FOR_TEST));
+
+        assertEquals(Set.of(VALID_SHORT_CODE_FOR_TEST), shortUrlCache.getPinnedShortCodes());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+}
@@ -0,0 +1,78 @@
+package com.joshwa.urlshortener.cache;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import com.joshwa.urlshortener.repository.ShortUrlTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlCacheWarmerTest {
+
+    private static final Clock clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private ShortUrlCache shortUrlCache;
+
+    @Test
+    void shouldLoadTopLinksInBatches() {
+        streamLinks(5);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(shortUrlCache.putAll(anyCollection())).thenAnswer(invocation -> {
+            int size = invocation.<Collection<ShortUrlTarget>>getArgument(0).size();
+            batchSizes.add(size);
+            return size;
+        });
+
+        assertEquals(5, warmer(Duration.ofMinutes(1)).warmUp());
+
+        verify(shortUrlRepository).streamMostClicked(eq(clock.instant()), eq(100), any());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    void shouldStopLoading_whenTimeBudgetIsSpent() {
+        streamLinks(5);
+
+        assertEquals(0, warmer(Duration.ZERO).warmUp());
+
+        verifyNoInteractions(shortUrlCache);
+    }
+
+    private ShortUrlCacheWarmer warmer(Duration timeBudget) {
+        return new ShortUrlCacheWarmer(shortUrlRepository, shortUrlCache,
+                new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1), clock,
+                100, 2, 1_000_000, timeBudget);
+    }
+
+    private void streamLinks(int count) {
+        doAnswer(invocation -> {
+            Consumer<ShortUrlTarget> action = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                action.accept(new ShortUrlTarget("code" + i, "https://example.com/" + i, null));
+            }
+            return null;
+        }).when(shortUrlRepository).streamMostClicked(any(), anyInt(), any());
+    }
+}
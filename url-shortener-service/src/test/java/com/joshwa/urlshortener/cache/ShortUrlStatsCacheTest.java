@@ -0,0 +1,144 @@
+package com.joshwa.urlshortener.cache;
+
+import com.joshwa.urlshortener.cache.ShortUrlStatsCache.CachedStats;
+import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlStatsCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ShortUrlStatsCache statsCache;
+
+    @BeforeEach
+    void setUp() {
+        statsCache = new ShortUrlStatsCache(redisTemplate, jsonMapper, Clock.fixed(NOW, ZoneOffset.UTC),
+                Duration.ofSeconds(10), Duration.ofSeconds(3), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsCache.shutdown();
+    }
+
+    @Test
+    void shouldReadCachedStats_withSingleMget() {
+        ShortUrlStatsResponseDTO stats = stats("abc12345", 3L);
+        stats.setOriginalUrl("https://example.com");
+        stats.setCreatedAt(OffsetDateTime.parse("2026-01-01T10:00:00Z"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("shorturl:stats:abc12345", "shorturl:stats:missing1")))
+                .thenReturn(Arrays.asList(cachedValue(stats, NOW), null));
+
+        Map<String, CachedStats> cached = statsCache.getAll(List.of("abc12345", "missing1"));
+
+        assertEquals(Map.of("abc12345", new CachedStats(NOW.toEpochMilli(), stats)), cached);
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+    }
+
+    @Test
+    void shouldSkipUnreadableEntries() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("shorturl:stats:abc12345")))
+                .thenReturn(List.of("not json"));
+
+        assertTrue(statsCache.getAll(List.of("abc12345")).isEmpty());
+    }
+
+    @Test
+    void shouldLoadAndWriteBackMisses_only() {
+        ShortUrlStatsResponseDTO fresh = stats("fresh001", 1L);
+        ShortUrlStatsResponseDTO loaded = stats("missing1", 2L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("shorturl:stats:fresh001", "shorturl:stats:missing1")))
+                .thenReturn(Arrays.asList(cachedValue(fresh, NOW.minusSeconds(1)), null));
+        List<List<String>> loads = Collections.synchronizedList(new ArrayList<>());
+
+        Map<String, ShortUrlStatsResponseDTO> stats = statsCache.getAll(List.of("fresh001", "missing1"), codes -> {
+            loads.add(codes);
+            return List.of(loaded);
+        }, shortCode -> Long.MIN_VALUE);
+
+        assertEquals(Map.of("fresh001", fresh, "missing1", loaded), stats);
+        assertEquals(List.of(List.of("missing1")), loads);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldServeStaleEntry_andRefreshItInBackground() throws InterruptedException {
+        ShortUrlStatsResponseDTO stale = stats("stale001", 1L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("shorturl:stats:stale001")))
+                .thenReturn(List.of(cachedValue(stale, NOW.minusSeconds(4))));
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        Map<String, ShortUrlStatsResponseDTO> stats = statsCache.getAll(List.of("stale001"), codes -> {
+            refreshed.countDown();
+            return List.of(stats("stale001", 5L));
+        }, shortCode -> Long.MIN_VALUE);
+
+        assertEquals(Map.of("stale001", stale), stats);
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        verify(redisTemplate, timeout(5000)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldReload_whenSnapshotPredatesAClickFlush() {
+        ShortUrlStatsResponseDTO beforeFlush = stats("flushed1", 10L);
+        ShortUrlStatsResponseDTO afterFlush = stats("flushed1", 14L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("shorturl:stats:flushed1")))
+                .thenReturn(List.of(cachedValue(beforeFlush, NOW.minusSeconds(2))));
+
+        Map<String, ShortUrlStatsResponseDTO> stats = statsCache.getAll(List.of("flushed1"),
+                codes -> List.of(afterFlush), shortCode -> NOW.minusSeconds(1).toEpochMilli());
+
+        assertEquals(Map.of("flushed1", afterFlush), stats);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    private String cachedValue(ShortUrlStatsResponseDTO stats, Instant cachedAt) {
+        return jsonMapper.writeValueAsString(new CachedStats(cachedAt.toEpochMilli(), stats));
+    }
+
+    private static ShortUrlStatsResponseDTO stats(String shortCode, long clickCount) {
+        ShortUrlStatsResponseDTO stats = new ShortUrlStatsResponseDTO();
+        stats.setShortCode(shortCode);
+        stats.setClickCount(clickCount);
+        return stats;
+    }
+}
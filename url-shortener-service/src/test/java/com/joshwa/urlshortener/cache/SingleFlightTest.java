@@ -0,0 +1,73 @@
+package com.joshwa.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldRunLoaderOnce_forConcurrentCallersOfSameKey() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("code", () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "https://www.love.com";
+            }));
+            loaderStarted.await();
+
+            CountDownLatch followersArrived = new CountDownLatch(callers - 1);
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> {
+                    followersArrived.countDown();
+                    return singleFlight.execute("code", () -> {
+                        loads.incrementAndGet();
+                        return "unexpected";
+                    });
+                }));
+            }
+            followersArrived.await();
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            assertEquals("https://www.love.com", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("https://www.love.com", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureAndAllowRetry() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("code", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", singleFlight.execute("code", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
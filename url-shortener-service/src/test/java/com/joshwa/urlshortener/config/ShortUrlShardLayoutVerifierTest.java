@@ -0,0 +1,68 @@
+package com.joshwa.urlshortener.config;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlShardLayoutVerifierTest {
+
+    private static final String SELECT_LAYOUT = "SELECT shard_index, shard_count FROM short_url_shard_layout WHERE id = 1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ShortUrlShards shards;
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void shouldRecordAndAcceptLayout_onFirstStart() {
+        shards = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1);
+        when(jdbcTemplate.queryForMap(SELECT_LAYOUT)).thenReturn(Map.of("shard_index", 0, "shard_count", 1));
+
+        new ShortUrlShardLayoutVerifier(jdbcTemplate, shards, null).verifyShardLayout();
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS short_url_shard_layout"));
+        verify(jdbcTemplate).update("INSERT IGNORE INTO short_url_shard_layout (id, shard_index, shard_count) VALUES (1, ?, ?)",
+                0, 1);
+    }
+
+    @Test
+    void shouldFailStartup_whenShardsWereRemoved() {
+        shards = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1);
+        when(jdbcTemplate.queryForMap(SELECT_LAYOUT)).thenReturn(Map.of("shard_index", 0, "shard_count", 3));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> new ShortUrlShardLayoutVerifier(jdbcTemplate, shards, null).verifyShardLayout());
+
+        assertTrue(failure.getMessage().contains("shard 0 was set up as shard 0 of 3"), failure.getMessage());
+    }
+
+    @Test
+    void shouldFailStartup_whenAShardMovedPosition() {
+        shards = new ShortUrlShards(null, new ReplicaReadRouting(""), "jdbc:mysql://shard1/db", 2);
+        when(jdbcTemplate.queryForMap(SELECT_LAYOUT)).thenReturn(Map.of("shard_index", 0, "shard_count", 2));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> new ShortUrlShardLayoutVerifier(jdbcTemplate, shards, null).verifyShardLayout());
+
+        assertTrue(failure.getMessage().contains("shard 1 was set up as shard 0 of 2"), failure.getMessage());
+        assertFalse(failure.getMessage().contains("shard 0 was"), failure.getMessage());
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+}
@@ -74,9 +74,14 @@ class ShortUrlControllerImplTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(header().string("Location", "https://animal.com"));
 
-        mockMvc.perform(get("/api/v1/short-urls/"+shortCode+"/stats"))
+        String eTag = mockMvc.perform(get("/api/v1/short-urls/"+shortCode+"/stats"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.clickCount").value(1));
+                .andExpect(jsonPath("$.clickCount").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        Assertions.assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/v1/short-urls/"+shortCode+"/stats").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
     }
     @Test
     void shouldReturnBadRequest_whenInvalidUrlProvided() throws Exception {
@@ -90,7 +95,7 @@ class ShortUrlControllerImplTest {
     @Test
     void shouldReturnNotFound_whenShortCodeDoesNotExist() throws Exception {
         mockMvc.perform(get("/"+"randomInvalid"))
-                .andExpect(status().isBadRequest())
+                .andExpect(status().isNotFound())
                 .andExpect(content().string(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE));
     }
 
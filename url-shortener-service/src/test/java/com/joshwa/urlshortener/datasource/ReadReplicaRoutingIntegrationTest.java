@@ -0,0 +1,105 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import com.joshwa.urlshortener.service.ShortUrlService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against two independent MySQL servers, one configured as the primary and
+ * one as a replica. They do not replicate, which makes it visible which server a read went to.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> primary = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static MySQLContainer<?> replica = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("joshwa.shorturlapp.datasource.replica-urls", replica::getJdbcUrl);
+    }
+
+    @Autowired
+    private ShortUrlRepository shortUrlRepository;
+
+    @Autowired
+    private ShortUrlService shortUrlService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        primaryJdbc = new JdbcTemplate(new DriverManagerDataSource(
+                primary.getJdbcUrl(), primary.getUsername(), primary.getPassword()));
+        replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        Map<String, Object> createTable = primaryJdbc.queryForMap("SHOW CREATE TABLE short_urls");
+        replicaJdbc.execute("DROP TABLE IF EXISTS short_urls");
+        replicaJdbc.execute(createTable.get("Create Table").toString());
+        replicaRoutingDataSource.checkReplicaLag();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica_andWritesToPrimary() {
+        replicaJdbc.update("INSERT INTO short_urls (id, short_code, original_url, original_url_hash, click_count,"
+                + " created_at) VALUES (999999999, 'replica1', 'https://replica.example', 1, 0, NOW())");
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertTrue(readOnly.execute(status -> shortUrlRepository.findByShortCode("replica1")).isPresent());
+        assertTrue(readWrite.execute(status -> shortUrlRepository.findByShortCode("replica1")).isEmpty());
+    }
+
+    @Test
+    void shouldFallBackToPrimary_whenReplicaHasNotCaughtUp() throws Exception {
+        ShortUrlRequestDTO request = new ShortUrlRequestDTO();
+        request.setOriginalUrl("https://primary-only.example");
+        ShortUrlResponseDTO created = shortUrlService.createShortUrl(request);
+
+        assertEquals(0, replicaJdbc.queryForObject("SELECT COUNT(*) FROM short_urls WHERE short_code = ?",
+                Integer.class, created.getShortCode()));
+        assertEquals("https://primary-only.example",
+                shortUrlService.findShortUrlStats(created.getShortCode()).orElseThrow().getOriginalUrl());
+    }
+}
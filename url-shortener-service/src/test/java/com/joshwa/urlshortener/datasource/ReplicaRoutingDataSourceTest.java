@@ -0,0 +1,125 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private HikariDataSource replica;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        when(replica.getPoolName()).thenReturn("replica-1");
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToInSyncReplica() throws SQLException {
+        stubReplicaStatus();
+        routingDataSource.checkReplicaLag();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        assertEquals(0.0, routingDataSource.getReplicaLagSeconds("replica-1"));
+    }
+
+    @Test
+    void shouldRouteToPrimary_whenReadIsPinned() throws SQLException {
+        stubReplicaStatus();
+        routingDataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadRouting readRouting = new ReplicaReadRouting("jdbc:mysql://replica:3306/db");
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY,
+                readRouting.onPrimary(() -> routingDataSource.determineCurrentLookupKey()));
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldRouteToPrimary_untilReplicaIsCheckedOrWhenUnreachable() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routingDataSource.checkReplicaLag();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        assertTrue(Double.isNaN(routingDataSource.getReplicaLagSeconds("replica-1")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMeasureLag_withLegacyStatementAsFallback() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(eq("SHOW REPLICA STATUS"), any(RowMapper.class)))
+                .thenThrow(new BadSqlGrammarException("lag", "SHOW REPLICA STATUS", new SQLException()));
+        when(jdbcTemplate.query(eq("SHOW SLAVE STATUS"), any(RowMapper.class))).thenReturn(List.of(5L));
+
+        assertEquals(5L, ReplicaRoutingDataSource.measureLagSeconds(jdbcTemplate));
+    }
+
+    @Test
+    void shouldRetryOnPrimary_onlyWhenReplicasAreConfiguredAndReadMissed() {
+        AtomicInteger reads = new AtomicInteger();
+        ReplicaReadRouting withReplicas = new ReplicaReadRouting(" jdbc:mysql://a/db , jdbc:mysql://b/db ");
+        ReplicaReadRouting withoutReplicas = new ReplicaReadRouting("");
+
+        assertTrue(withReplicas.readWithPrimaryFallback(
+                () -> reads.incrementAndGet() == 2 && ReplicaReadRouting.isPrimaryOnly(), found -> !found));
+        assertEquals(2, reads.get());
+        assertFalse(withoutReplicas.readWithPrimaryFallback(() -> false, found -> !found));
+        assertEquals(List.of("jdbc:mysql://a/db", "jdbc:mysql://b/db"),
+                ReplicaReadRouting.parseUrls(" jdbc:mysql://a/db , jdbc:mysql://b/db "));
+    }
+
+    private void stubReplicaStatus() throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+    }
+}
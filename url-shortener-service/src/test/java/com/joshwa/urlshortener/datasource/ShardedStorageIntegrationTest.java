@@ -0,0 +1,112 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
+import com.joshwa.urlshortener.scheduler.ShortUrlCleanupScheduler;
+import com.joshwa.urlshortener.service.ShortUrlResolution;
+import com.joshwa.urlshortener.service.ShortUrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against three shards kept as separate schemas of one MySQL server.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+class ShardedStorageIntegrationTest {
+
+    private static final List<String> SHARD_SCHEMAS = List.of("shard0", "shard1", "shard2");
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("shard0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> schemaUrl("shard0"));
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("joshwa.shorturlapp.sharding.shard-urls",
+                () -> schemaUrl("shard1") + "," + schemaUrl("shard2"));
+    }
+
+    @Autowired
+    private ShortUrlService shortUrlService;
+
+    @Autowired
+    private ShortUrlShards shortUrlShards;
+
+    @Autowired
+    private ShortUrlCleanupScheduler cleanupScheduler;
+
+    @Test
+    void shouldStoreEachLinkOnItsShard_andFindItThere() throws Exception {
+        List<ShortUrlResponseDTO> created = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ShortUrlRequestDTO request = new ShortUrlRequestDTO();
+            request.setOriginalUrl("https://sharded.example/" + i);
+            created.add(shortUrlService.createShortUrl(request));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (ShortUrlResponseDTO link : created) {
+            String schema = SHARD_SCHEMAS.get(shortUrlShards.shardOf(link.getShortCode()));
+            ids.add(jdbc(schema).queryForObject("SELECT id FROM short_urls WHERE short_code = ?",
+                    Long.class, link.getShortCode()));
+            assertEquals(ShortUrlResolution.Status.FOUND, shortUrlService.resolveRedirect(link.getShortCode()).status());
+            assertTrue(shortUrlService.findShortUrlStats(link.getShortCode()).isPresent());
+        }
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        for (String schema : SHARD_SCHEMAS) {
+            assertTrue(jdbc(schema).queryForObject("SELECT COUNT(*) FROM short_urls", Integer.class) > 0,
+                    "no links on " + schema);
+        }
+
+        ShortUrlRequestDTO again = new ShortUrlRequestDTO();
+        again.setOriginalUrl("https://sharded.example/7");
+        assertEquals(created.get(7).getShortCode(), shortUrlService.createShortUrl(again).getShortCode());
+    }
+
+    @Test
+    void shouldCleanUpExpiredLinksOnEveryShard() {
+        for (int i = 0; i < SHARD_SCHEMAS.size(); i++) {
+            jdbc(SHARD_SCHEMAS.get(i)).update("INSERT INTO short_urls (id, short_code, original_url, original_url_hash,"
+                    + " click_count, created_at, expiry_date) VALUES (?, ?, 'https://expired.example', 1, 0,"
+                    + " '2020-01-01', '2020-01-02')", 999_000_000L + i, "expired" + i);
+        }
+
+        cleanupScheduler.cleanupExpiredShortUrls();
+
+        for (String schema : SHARD_SCHEMAS) {
+            assertEquals(0, jdbc(schema).queryForObject(
+                    "SELECT COUNT(*) FROM short_urls WHERE short_code LIKE 'expired%'", Integer.class));
+        }
+    }
+
+    private static String schemaUrl(String schema) {
+        return "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT) + "/"
+                + schema + "?createDatabaseIfNotExist=true";
+    }
+
+    private static JdbcTemplate jdbc(String schema) {
+        return new JdbcTemplate(new DriverManagerDataSource(schemaUrl(schema), mysql.getUsername(), mysql.getPassword()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.joshwa.urlshortener.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlShardsTest {
+
+    private static final String SHARD_URLS = "jdbc:mysql://shard1/db, jdbc:mysql://shard2/db,jdbc:mysql://shard3/db";
+
+    @Mock
+    private DataSource firstShard;
+
+    private final ShortUrlShards shards = new ShortUrlShards(null, new ReplicaReadRouting(""), SHARD_URLS, 2);
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void shouldKeepEverythingOnFirstShard_whenNoShardsConfigured() {
+        ShortUrlShards single = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 2);
+
+        assertFalse(single.isSharded());
+        assertEquals(0, single.shardOf("abc123"));
+        assertEquals(List.of(Thread.currentThread().getName()),
+                single.onEveryShard(shard -> Thread.currentThread().getName()));
+    }
+
+    @Test
+    void shouldSpreadSequentialCodesEvenly() {
+        assertEquals(4, shards.getShardCount());
+        int[] counts = new int[shards.getShardCount()];
+        IntStream.range(0, 40_000).forEach(i -> counts[shards.shardOf("code" + i)]++);
+
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "codes on shard: " + count);
+        }
+        assertEquals(shards.shardOf("code7"), shards.shardOf("code7"));
+    }
+
+    @Test
+    void shouldGroupCodesByShard() {
+        List<String> codes = IntStream.range(0, 100).mapToObj(i -> "code" + i).toList();
+
+        Map<Integer, List<String>> groups = shards.groupByShard(codes, Function.identity());
+
+        assertEquals(100, groups.values().stream().mapToInt(List::size).sum());
+        groups.forEach((shard, group) -> group.forEach(code -> assertEquals(shard, shards.shardOf(code))));
+    }
+
+    @Test
+    void shouldRunOncePerShard_withThatShardSelected() {
+        List<Integer> selected = shards.onEveryShard(shard -> ShortUrlShards.currentShard());
+
+        assertEquals(List.of(0, 1, 2, 3), selected);
+        assertEquals(0, ShortUrlShards.currentShard());
+    }
+
+    @Test
+    void shouldRestoreOuterShard_afterNestedWork() {
+        int inner = shards.onShard(2, () -> {
+            int nested = shards.onShard(3, ShortUrlShards::currentShard);
+            assertEquals(2, ShortUrlShards.currentShard());
+            return nested;
+        });
+
+        assertEquals(3, inner);
+        assertEquals(0, ShortUrlShards.currentShard());
+    }
+
+    @Test
+    void shouldRethrowShardFailure() {
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> shards.onEveryShard(shard -> {
+                    if (shard == 1) {
+                        throw new IllegalStateException("shard 1 is down");
+                    }
+                    return shard;
+                }));
+
+        assertEquals("shard 1 is down", failure.getMessage());
+    }
+
+    @Test
+    void shouldRouteConnectionsToSelectedShard() throws SQLException {
+        HikariDataSource secondShard = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(secondShard.getConnection()).thenReturn(connection);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(firstShard, List.of(secondShard));
+        routing.afterPropertiesSet();
+
+        assertSame(connection, shards.onShard(1, () -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        verifyNoInteractions(firstShard);
+    }
+}
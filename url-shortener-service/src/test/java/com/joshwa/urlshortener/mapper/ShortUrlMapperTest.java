@@ -4,6 +4,7 @@ import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.entity.ShortUrl;
+import com.joshwa.urlshortener.utility.UrlUtils;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -30,6 +31,7 @@ class ShortUrlMapperTest {
         ShortUrl shortUrl = shortUrlMapper.toEntity(dto, shortCode, normalizedUrl);
         assertEquals(shortCode, shortUrl.getShortCode());
         assertEquals(normalizedUrl, shortUrl.getOriginalUrl());
+        assertEquals(UrlUtils.hashUrl(normalizedUrl), shortUrl.getOriginalUrlHash());
         assertEquals(expectedExpiryDate, shortUrl.getExpiryDate());
 
     }
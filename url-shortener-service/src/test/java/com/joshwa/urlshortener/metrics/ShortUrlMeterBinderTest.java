@@ -0,0 +1,110 @@
+package com.joshwa.urlshortener.metrics;
+
+import com.joshwa.urlshortener.allocator.ShortCodePool;
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.datasource.ReplicaRoutingDataSource;
+import com.joshwa.urlshortener.service.ClickCountAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlMeterBinderTest {
+
+    @Mock
+    private ShortUrlCache shortUrlCache;
+
+    @Mock
+    private ClickCountAggregator clickCountAggregator;
+
+    @Mock
+    private ClickEventPublisher clickEventPublisher;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldExposeCacheCountersPerLevelAndResult() {
+        when(shortUrlCache.getPinnedHits()).thenReturn(7L);
+        when(shortUrlCache.getL1Hits()).thenReturn(40L);
+        when(shortUrlCache.getL1Misses()).thenReturn(10L);
+        when(shortUrlCache.getL2Hits()).thenReturn(8L);
+        when(shortUrlCache.getL2Misses()).thenReturn(2L);
+        bind(Map.of());
+
+        assertEquals(7.0, cacheRequests("pinned", "hit"));
+        assertEquals(40.0, cacheRequests("l1", "hit"));
+        assertEquals(10.0, cacheRequests("l1", "miss"));
+        assertEquals(8.0, cacheRequests("l2", "hit"));
+        assertEquals(2.0, cacheRequests("l2", "miss"));
+    }
+
+    @Test
+    void shouldReportPendingClicksNotPendingCodes() {
+        when(clickCountAggregator.getPendingClicks()).thenReturn(1_250L);
+        when(shortUrlCache.getL1Size()).thenReturn(300L);
+        when(shortUrlCache.getPinnedSize()).thenReturn(4L);
+        when(clickEventPublisher.getQueuedEvents()).thenReturn(12);
+        bind(Map.of());
+
+        assertEquals(1_250.0, registry.get("shorturl.clicks.pending").gauge().value());
+        assertEquals(300.0, registry.get("shorturl.cache.l1.size").gauge().value());
+        assertEquals(4.0, registry.get("shorturl.cache.pinned.size").gauge().value());
+        assertEquals(12.0, registry.get("shorturl.click-events.queued").gauge().value());
+    }
+
+    @Test
+    void shouldRegisterPoolAndReplicaGauges_onlyWhenThoseBeansExist() {
+        bind(Map.of());
+
+        assertNull(registry.find("shorturl.short-code.pool.depth").gauge());
+        assertNull(registry.find("shorturl.db.replica.lag").gauge());
+    }
+
+    @Test
+    void shouldTagReplicaLagWithReplicaName() {
+        ShortCodePool pool = mock(ShortCodePool.class);
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(pool.getDepth()).thenReturn(900);
+        when(routing.getReplicaNames()).thenReturn(List.of("replica-0", "replica-1"));
+        when(routing.getReplicaLagSeconds("replica-0")).thenReturn(0.5);
+        when(routing.getReplicaLagSeconds("replica-1")).thenReturn(Double.NaN);
+        bind(Map.of("shortCodePool", pool, "replicaRoutingDataSource", routing));
+
+        assertEquals(900.0, registry.get("shorturl.short-code.pool.depth").gauge().value());
+        assertEquals(0.5, registry.get("shorturl.db.replica.lag").tag("replica", "replica-0").gauge().value());
+        assertTrue(Double.isNaN(registry.get("shorturl.db.replica.lag").tag("replica", "replica-1").gauge().value()));
+    }
+
+    private void bind(Map<String, Object> optionalBeans) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(optionalBeans);
+        ObjectProvider<ShortCodePool> pool = beans.getBeanProvider(ShortCodePool.class);
+        ObjectProvider<ReplicaRoutingDataSource> routing = beans.getBeanProvider(ReplicaRoutingDataSource.class);
+        new ShortUrlMeterBinder(shortUrlCache, clickCountAggregator, clickEventPublisher, pool, routing)
+                .bindTo(registry);
+    }
+
+    private double cacheRequests(String level, String result) {
+        return registry.get(ShortUrlMeterBinder.CACHE_REQUESTS_COUNTER)
+                .tags("level", level, "result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,66 @@
+package com.joshwa.urlshortener.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortUrlMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ShortUrlMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ShortUrlMetrics(registry);
+    }
+
+    @Test
+    void shouldTimeEachStageUnderItsOwnTag() {
+        String url = metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_GET, () -> "https://example.com");
+        metrics.recordStage(ShortUrlMetrics.STAGE_REDIS_GET, () -> { });
+        metrics.recordStage(ShortUrlMetrics.STAGE_FIND_BY_SHORT_CODE, () -> { });
+        Timer.Sample sample = metrics.startStage();
+        metrics.stopStage(sample, ShortUrlMetrics.STAGE_ALLOCATE_SHORT_CODE);
+
+        assertEquals("https://example.com", url);
+        assertEquals(2, stageTimer(ShortUrlMetrics.STAGE_REDIS_GET).count());
+        assertEquals(1, stageTimer(ShortUrlMetrics.STAGE_FIND_BY_SHORT_CODE).count());
+        assertEquals(1, stageTimer(ShortUrlMetrics.STAGE_ALLOCATE_SHORT_CODE).count());
+        assertEquals(3, registry.find(ShortUrlMetrics.STAGE_TIMER).timers().size());
+    }
+
+    @Test
+    void shouldCountRedirectsByOutcomeAndSource() {
+        metrics.countRedirect(ShortUrlMetrics.OUTCOME_FOUND, ShortUrlMetrics.SOURCE_CACHE);
+        metrics.countRedirect(ShortUrlMetrics.OUTCOME_FOUND, ShortUrlMetrics.SOURCE_CACHE);
+        metrics.countRedirect(ShortUrlMetrics.OUTCOME_NOT_FOUND, ShortUrlMetrics.SOURCE_NEGATIVE_CACHE);
+
+        assertEquals(2.0, registry.get(ShortUrlMetrics.REDIRECT_COUNTER)
+                .tags("outcome", "found", "source", "cache").counter().count());
+        assertEquals(1.0, registry.get(ShortUrlMetrics.REDIRECT_COUNTER)
+                .tags("outcome", "not_found", "source", "negative_cache").counter().count());
+        assertNull(registry.find(ShortUrlMetrics.REDIRECT_COUNTER).tags("outcome", "expired").counter());
+    }
+
+    @Test
+    void shouldAccumulateCleanupDropsAndAllocationAttempts() {
+        metrics.countCleanupRowsDeleted(500);
+        metrics.countCleanupRowsDeleted(20);
+        metrics.countDroppedClickEvents(3);
+        metrics.recordAllocationAttempts(1);
+        metrics.recordAllocationAttempts(3);
+
+        assertEquals(520.0, registry.get("shorturl.cleanup.rows.deleted").counter().count());
+        assertEquals(3.0, registry.get("shorturl.click-events.dropped").counter().count());
+        assertEquals(2, registry.get("shorturl.short-code.allocation.attempts").summary().count());
+        assertEquals(4.0, registry.get("shorturl.short-code.allocation.attempts").summary().totalAmount());
+    }
+
+    private Timer stageTimer(String stage) {
+        return registry.get("shorturl.stage").tag("stage", stage).timer();
+    }
+}
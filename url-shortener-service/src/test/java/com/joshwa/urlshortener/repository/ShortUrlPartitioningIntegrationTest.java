@@ -0,0 +1,86 @@
+package com.joshwa.urlshortener.repository;
+
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.service.ShortUrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partitions {@code short_urls} by expiry date on startup and drops a daily partition.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+class ShortUrlPartitioningIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("joshwa.shorturlapp.partitioning.enabled", () -> "true");
+    }
+
+    @Autowired
+    private ShortUrlService shortUrlService;
+
+    @Autowired
+    private ShortUrlPartitionRepository partitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldPartitionByExpiryDay_andDropADay() throws Exception {
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        String tomorrowPartition = ShortUrlPartitionRepository.toPartitionName(tomorrow);
+        List<String> partitions = partitionRepository.findPartitions().stream().map(ShortUrlPartition::name).toList();
+        assertEquals(ShortUrlPartitionRepository.NEVER_EXPIRES, partitions.get(0));
+        assertEquals(ShortUrlPartitionRepository.FUTURE, partitions.get(partitions.size() - 1));
+        assertTrue(partitions.contains(tomorrowPartition), partitions.toString());
+        assertEquals("datetime", jdbcTemplate.queryForObject("SELECT DATA_TYPE FROM information_schema.COLUMNS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'short_urls' AND COLUMN_NAME = 'expiry_date'",
+                String.class));
+
+        String expiring = create("https://partitioned.example/expiring", tomorrow.atTime(12, 0).atOffset(ZoneOffset.UTC));
+        String permanent = create("https://partitioned.example/permanent", null);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM short_urls PARTITION (" + tomorrowPartition
+                + ") WHERE short_code = ?", Integer.class, expiring));
+
+        partitionRepository.dropPartitions(List.of(tomorrowPartition));
+
+        assertEquals(0, countByCode(expiring));
+        assertEquals(1, countByCode(permanent));
+        assertFalse(partitionRepository.findPartitions().stream()
+                .anyMatch(partition -> partition.name().equals(tomorrowPartition)));
+    }
+
+    private String create(String originalUrl, OffsetDateTime expiryDate) throws Exception {
+        ShortUrlRequestDTO request = new ShortUrlRequestDTO();
+        request.setOriginalUrl(originalUrl);
+        request.setExpiryDate(expiryDate);
+        return shortUrlService.createShortUrl(request).getShortCode();
+    }
+
+    private int countByCode(String shortCode) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM short_urls WHERE short_code = ?", Integer.class, shortCode);
+    }
+}
@@ -0,0 +1,78 @@
+package com.joshwa.urlshortener.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlRepositoryCustomImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T23:30:00Z");
+    private static final LocalDateTime NOW_UTC = LocalDateTime.parse("2026-03-01T23:30:00");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ShortUrlRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ShortUrlRepositoryCustomImpl(jdbcTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldCompareExpiryWithUtcTime_whenCountingClicks() {
+        repository.incrementClickCounts(Map.of("2gU8SHsz", 3L));
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), args.capture());
+        Object[] bound = args.getValue();
+        assertEquals(NOW_UTC, bound[2]);
+        assertEquals(NOW_UTC, bound[bound.length - 1]);
+    }
+
+    @Test
+    void shouldBindAndReadExpiryAsUtc_whenStreamingMostClicked() throws Exception {
+        List<ShortUrlTarget> targets = new ArrayList<>();
+
+        repository.streamMostClicked(NOW, 10, targets::add);
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        verify(jdbcTemplate).query(creator.capture(), handler.capture());
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        creator.getValue().createPreparedStatement(connection);
+        verify(statement).setObject(1, NOW_UTC);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("2gU8SHsz");
+        when(rs.getString(2)).thenReturn("https://example.com");
+        when(rs.getObject(3, LocalDateTime.class)).thenReturn(LocalDateTime.parse("2026-03-02T01:00:00"));
+        handler.getValue().processRow(rs);
+        assertEquals(List.of(new ShortUrlTarget("2gU8SHsz", "https://example.com", Instant.parse("2026-03-02T01:00:00Z"))),
+                targets);
+    }
+}
@@ -0,0 +1,63 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortCodeBloomFilterSchedulerTest {
+
+    private static final Clock clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    private NegativeLookupCache negativeLookupCache;
+    private ShortCodeBloomFilterScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        negativeLookupCache = new NegativeLookupCache(mock(StringRedisTemplate.class), 1000, 0.01,
+                Duration.ofSeconds(30), 1000);
+        scheduler = new ShortCodeBloomFilterScheduler(shortUrlRepository, negativeLookupCache,
+                new ReplicaReadRouting(""), new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1),
+                clock, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldNotCatchUp_beforeFirstRebuild() {
+        scheduler.catchUpBloomFilter();
+
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldAddCodesCreatedSinceLastRun_whoseAnnouncementWasMissed() {
+        when(shortUrlRepository.streamAllShortCodes()).thenReturn(Stream.of("known001"));
+        scheduler.rebuildBloomFilter();
+        assertEquals(NegativeLookupCache.Outcome.NOT_FOUND, negativeLookupCache.check("missed01"));
+
+        when(shortUrlRepository.streamShortCodesCreatedSince(clock.instant().minus(Duration.ofMinutes(1))))
+                .thenReturn(Stream.of("missed01"));
+        scheduler.catchUpBloomFilter();
+
+        assertNull(negativeLookupCache.check("missed01"));
+        assertNull(negativeLookupCache.check("known001"));
+    }
+}
@@ -1,15 +1,28 @@
 package com.joshwa.urlshortener.scheduler;
 
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlKey;
+import com.joshwa.urlshortener.repository.ShortUrlPartition;
+import com.joshwa.urlshortener.repository.ShortUrlPartitionRepository;
 import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -18,9 +31,20 @@ class ShortUrlCleanupSchedulerTest {
     @Mock
     private ShortUrlRepository repository;
 
+    @Mock
+    private ShortUrlPartitionRepository partitionRepository;
+
     @Mock
     private Clock clock;
 
+    @Mock
+    private ShortUrlCache shortUrlCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Test
     void shouldDeleteExpiredUrls_usingRetentionDuration() {
 
@@ -29,14 +53,87 @@ class ShortUrlCleanupSchedulerTest {
 
         when(clock.instant()).thenReturn(now);
 
-        ShortUrlCleanupScheduler scheduler =
-                new ShortUrlCleanupScheduler(repository, clock, retention);
+        ShortUrlCleanupScheduler scheduler = newScheduler(retention, 1000);
+
+        Instant expectedThreshold = now.minus(retention);
+        when(repository.findExpiredKeys(expectedThreshold, Limit.of(1000))).thenReturn(List.of());
 
         scheduler.cleanupExpiredShortUrls();
 
+        verify(repository).findExpiredKeys(expectedThreshold, Limit.of(1000));
+        verifyNoMoreInteractions(repository);
+        verifyNoInteractions(shortUrlCache);
+    }
+
+    @Test
+    void shouldDeleteInChunks_andEvictDeletedCodes() {
+
+        Duration retention = Duration.ofHours(1);
+        Instant now = Instant.parse("2026-02-23T10:00:00Z");
         Instant expectedThreshold = now.minus(retention);
 
-        verify(repository).deleteByExpiryDateBefore(expectedThreshold);
-        verifyNoMoreInteractions(repository);
+        when(clock.instant()).thenReturn(now);
+        when(repository.findExpiredKeys(expectedThreshold, Limit.of(2)))
+                .thenReturn(List.of(new ShortUrlKey(1L, "aaa"), new ShortUrlKey(2L, "bbb")))
+                .thenReturn(List.of(new ShortUrlKey(3L, "ccc")));
+
+        ShortUrlCleanupScheduler scheduler = newScheduler(retention, 2);
+
+        scheduler.cleanupExpiredShortUrls();
+
+        verify(repository).deleteByIdIn(List.of(1L, 2L));
+        verify(repository).deleteByIdIn(List.of(3L));
+        verify(shortUrlCache).invalidate(List.of("aaa", "bbb"));
+        verify(shortUrlCache).invalidate(List.of("ccc"));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, meterRegistry.counter(ShortUrlMetrics.CLEANUP_ROWS_COUNTER).count());
+    }
+
+    @Test
+    void shouldDropPartitionsBeforeThreshold_whenTableIsPartitioned() {
+
+        Duration retention = Duration.ofHours(2);
+        when(clock.instant()).thenReturn(Instant.parse("2026-02-23T01:00:00Z"));
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                new ShortUrlPartition(ShortUrlPartitionRepository.NEVER_EXPIRES,
+                        LocalDateTime.parse("1970-01-02T00:00"), 500),
+                new ShortUrlPartition(ShortUrlPartitionRepository.EXPIRED, LocalDateTime.parse("2026-02-21T00:00"), 40),
+                new ShortUrlPartition("p20260221", LocalDateTime.parse("2026-02-22T00:00"), 2),
+                new ShortUrlPartition("p20260222", LocalDateTime.parse("2026-02-23T00:00"), 7),
+                new ShortUrlPartition("p20260223", LocalDateTime.parse("2026-02-24T00:00"), 9),
+                new ShortUrlPartition(ShortUrlPartitionRepository.FUTURE, null, 3)));
+
+        newScheduler(retention, 1000, true).cleanupExpiredShortUrls();
+
+        verify(partitionRepository).dropPartitions(
+                List.of(ShortUrlPartitionRepository.EXPIRED, "p20260221"));
+        verifyNoInteractions(repository, shortUrlCache);
+        assertEquals(42, meterRegistry.counter(ShortUrlMetrics.CLEANUP_ROWS_COUNTER).count());
+    }
+
+    @Test
+    void shouldDeleteInChunks_whenPartitioningEnabledButTableNotPartitioned() {
+
+        Duration retention = Duration.ofHours(1);
+        Instant now = Instant.parse("2026-02-23T10:00:00Z");
+        when(clock.instant()).thenReturn(now);
+        when(partitionRepository.findPartitions()).thenReturn(List.of());
+        when(repository.findExpiredKeys(now.minus(retention), Limit.of(1000))).thenReturn(List.of());
+
+        newScheduler(retention, 1000, true).cleanupExpiredShortUrls();
+
+        verify(repository).findExpiredKeys(now.minus(retention), Limit.of(1000));
+        verify(partitionRepository, never()).dropPartitions(anyList());
+    }
+
+    private ShortUrlCleanupScheduler newScheduler(Duration retention, int chunkSize) {
+        return newScheduler(retention, chunkSize, false);
+    }
+
+    private ShortUrlCleanupScheduler newScheduler(Duration retention, int chunkSize, boolean partitioningEnabled) {
+        return new ShortUrlCleanupScheduler(repository, partitionRepository, clock, retention, shortUrlCache,
+                new ShortUrlMetrics(meterRegistry),
+                new ShortUrlShards(transactionManager, new ReplicaReadRouting(""), "", 1), transactionManager,
+                chunkSize, Duration.ZERO, Duration.ofSeconds(1), partitioningEnabled);
     }
-}
\ No newline at end of file
+}
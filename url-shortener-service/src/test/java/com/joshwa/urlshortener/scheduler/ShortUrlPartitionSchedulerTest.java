@@ -0,0 +1,87 @@
+package com.joshwa.urlshortener.scheduler;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.repository.ShortUrlPartition;
+import com.joshwa.urlshortener.repository.ShortUrlPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlPartitionSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-02-23");
+
+    @Mock
+    private ShortUrlPartitionRepository partitionRepository;
+
+    private ShortUrlPartitionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-02-23T22:30:00Z"), ZoneOffset.UTC);
+        scheduler = new ShortUrlPartitionScheduler(partitionRepository,
+                new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1), clock, Duration.ofDays(3), "sequence");
+    }
+
+    @Test
+    void shouldRefuseToStart_whenCodesMayRepeat() {
+        ShortUrlShards shards = new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1);
+
+        assertThrows(IllegalStateException.class, () -> new ShortUrlPartitionScheduler(partitionRepository, shards,
+                Clock.systemUTC(), Duration.ofDays(3), "random"));
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    void shouldPartitionTable_whenNotPartitionedYet() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of());
+
+        scheduler.maintainPartitions();
+
+        verify(partitionRepository).partitionByExpiry(TODAY, TODAY.plusDays(3));
+        verify(partitionRepository, never()).addDailyPartitions(any(), any());
+    }
+
+    @Test
+    void shouldAddMissingDaysAfterLastDailyPartition() {
+        when(partitionRepository.findPartitions()).thenReturn(partitionsUpTo(TODAY.plusDays(1)));
+
+        scheduler.maintainPartitions();
+
+        verify(partitionRepository).addDailyPartitions(TODAY.plusDays(1), TODAY.plusDays(3));
+    }
+
+    @Test
+    void shouldDoNothing_whenPartitionsReachFarEnough() {
+        when(partitionRepository.findPartitions()).thenReturn(partitionsUpTo(TODAY.plusDays(4)));
+
+        scheduler.maintainPartitions();
+
+        verify(partitionRepository, never()).addDailyPartitions(any(), any());
+        verify(partitionRepository, never()).partitionByExpiry(any(), any());
+    }
+
+    private static List<ShortUrlPartition> partitionsUpTo(LocalDate bound) {
+        return List.of(
+                new ShortUrlPartition(ShortUrlPartitionRepository.NEVER_EXPIRES, LocalDateTime.parse("1970-01-02T00:00"), 0),
+                new ShortUrlPartition(ShortUrlPartitionRepository.toPartitionName(bound.minusDays(1)),
+                        bound.atStartOfDay(), 0),
+                new ShortUrlPartition(ShortUrlPartitionRepository.FUTURE, null, 0));
+    }
+}
@@ -0,0 +1,117 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.analytics.ClickRollupGranularity;
+import com.joshwa.urlshortener.analytics.UniqueVisitorCounter;
+import com.joshwa.urlshortener.analytics.UserAgentClass;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.dto.ClickSeriesResponseDTO;
+import com.joshwa.urlshortener.exception.InvalidTimeRangeException;
+import com.joshwa.urlshortener.repository.ClickRollupRepository;
+import com.joshwa.urlshortener.repository.ClickRollupRepository.ClickRollupRow;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickAnalyticsServiceImplTest {
+
+    private static final String SHORT_CODE = "abc12345";
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private ClickRollupRepository clickRollupRepository;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private UniqueVisitorCounter uniqueVisitorCounter;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-03-01T12:30:00Z"), ZoneOffset.UTC);
+
+    private ClickAnalyticsServiceImpl clickAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        clickAnalyticsService = new ClickAnalyticsServiceImpl(shortUrlRepository, clickRollupRepository,
+                negativeLookupCache, uniqueVisitorCounter, new ReplicaReadRouting(""),
+                new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1), clock);
+    }
+
+    @Test
+    void shouldReturnOnePointPerBucket_withBreakdowns() throws InvalidTimeRangeException {
+        Instant from = Instant.parse("2026-03-01T09:20:00Z");
+        Instant to = Instant.parse("2026-03-01T12:00:00Z");
+        when(shortUrlRepository.existsByShortCode(SHORT_CODE)).thenReturn(true);
+        when(clickRollupRepository.findClicks(ClickRollupGranularity.HOUR, SHORT_CODE,
+                Instant.parse("2026-03-01T09:00:00Z"), to)).thenReturn(List.of(
+                new ClickRollupRow(Instant.parse("2026-03-01T09:00:00Z"), UserAgentClass.MOBILE, "DE", 4),
+                new ClickRollupRow(Instant.parse("2026-03-01T09:00:00Z"), UserAgentClass.DESKTOP, "DE", 1),
+                new ClickRollupRow(Instant.parse("2026-03-01T11:00:00Z"), UserAgentClass.MOBILE, "US", 2)));
+        when(uniqueVisitorCounter.count(SHORT_CODE, LocalDate.parse("2026-03-01"), LocalDate.parse("2026-03-01")))
+                .thenReturn(4L);
+
+        ClickSeriesResponseDTO series = clickAnalyticsService
+                .getClickSeries(SHORT_CODE, ClickRollupGranularity.HOUR, from, to).orElseThrow();
+
+        assertEquals(7, series.getTotalClicks());
+        assertEquals(4, series.getUniqueVisitors());
+        assertEquals(3, series.getPoints().size());
+        assertEquals(5, series.getPoints().get(0).getClicks());
+        assertEquals(Map.of(UserAgentClass.MOBILE, 4L, UserAgentClass.DESKTOP, 1L),
+                series.getPoints().get(0).getClicksByUserAgentClass());
+        assertEquals(Map.of("DE", 5L), series.getPoints().get(0).getClicksByRegion());
+        assertEquals(0, series.getPoints().get(1).getClicks());
+        assertEquals(2, series.getPoints().get(2).getClicks());
+        assertEquals(Instant.parse("2026-03-01T11:00:00Z"), series.getPoints().get(2).getBucketStart().toInstant());
+    }
+
+    @Test
+    void shouldDefaultToLastThirtyDays_forDailySeries() throws InvalidTimeRangeException {
+        when(shortUrlRepository.existsByShortCode(SHORT_CODE)).thenReturn(true);
+        when(clickRollupRepository.findClicks(ClickRollupGranularity.DAY, SHORT_CODE,
+                Instant.parse("2026-01-30T00:00:00Z"), clock.instant())).thenReturn(List.of());
+
+        ClickSeriesResponseDTO series = clickAnalyticsService
+                .getClickSeries(SHORT_CODE, ClickRollupGranularity.DAY, null, null).orElseThrow();
+
+        assertEquals(31, series.getPoints().size());
+        assertEquals(0, series.getTotalClicks());
+    }
+
+    @Test
+    void shouldRejectEmptyOrTooLongRanges() {
+        Instant now = clock.instant();
+        assertThrows(InvalidTimeRangeException.class, () -> clickAnalyticsService
+                .getClickSeries(SHORT_CODE, ClickRollupGranularity.HOUR, now, now.minusSeconds(3600)));
+        assertThrows(InvalidTimeRangeException.class, () -> clickAnalyticsService
+                .getClickSeries(SHORT_CODE, ClickRollupGranularity.DAY, now.minusSeconds(400L * 86400), now));
+        verifyNoInteractions(shortUrlRepository, clickRollupRepository);
+    }
+
+    @Test
+    void shouldReturnEmpty_whenShortCodeDoesNotExist() throws InvalidTimeRangeException {
+        when(negativeLookupCache.check(SHORT_CODE)).thenReturn(NegativeLookupCache.Outcome.NOT_FOUND);
+
+        assertTrue(clickAnalyticsService
+                .getClickSeries(SHORT_CODE, ClickRollupGranularity.HOUR, null, null).isEmpty());
+        verifyNoInteractions(shortUrlRepository, clickRollupRepository);
+    }
+}
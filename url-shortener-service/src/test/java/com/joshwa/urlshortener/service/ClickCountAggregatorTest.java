@@ -0,0 +1,180 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickCountAggregatorTest {
+
+    private static final String SHORT_CODE_A = "2gU8SHsz";
+    private static final String SHORT_CODE_B = "Zx81Kq0p";
+    private static final String SHORT_CODE_C = "aB3dE5fG";
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    private ClickCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new ClickCountAggregator(shortUrlRepository,
+                new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1), new ShortUrlMetrics(new SimpleMeterRegistry()),
+                Clock.fixed(NOW, ZoneOffset.UTC), 2, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldAccumulateClicksPerShortCode() {
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.recordClick(SHORT_CODE_B);
+
+        assertEquals(2L, aggregator.getPendingClicks(SHORT_CODE_A));
+        assertEquals(1L, aggregator.getPendingClicks(SHORT_CODE_B));
+        assertEquals(0L, aggregator.getPendingClicks(SHORT_CODE_C));
+        assertEquals(3L, aggregator.getPendingClicks());
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushInBatchesAndResetCounters() {
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.recordClick(SHORT_CODE_B);
+        aggregator.recordClick(SHORT_CODE_C);
+
+        long flushed = aggregator.flush();
+
+        ArgumentCaptor<Map<String, Long>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(shortUrlRepository, times(2)).incrementClickCounts(batches.capture());
+        List<Map<String, Long>> written = batches.getAllValues();
+        assertEquals(2, written.get(0).size());
+        assertEquals(1, written.get(1).size());
+        assertEquals(4L, flushed);
+        assertEquals(0L, aggregator.getPendingClicks(SHORT_CODE_A));
+    }
+
+    @Test
+    void shouldNotTouchDatabase_whenNothingPending() {
+        assertEquals(0L, aggregator.flush());
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldKeepClicks_whenFlushFails() {
+        aggregator.recordClick(SHORT_CODE_A);
+        when(shortUrlRepository.incrementClickCounts(anyMap())).thenThrow(new IllegalStateException("db down"));
+
+        assertEquals(0L, aggregator.flush());
+        assertEquals(1L, aggregator.getPendingClicks(SHORT_CODE_A));
+        assertEquals(Long.MIN_VALUE, aggregator.getLastFlushedAtMillis(SHORT_CODE_A));
+    }
+
+    @Test
+    void shouldCountClicksAsPending_untilTheirBatchCommits() {
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.recordClick(SHORT_CODE_A);
+        long[] pendingDuringWrite = new long[1];
+        when(shortUrlRepository.incrementClickCounts(anyMap())).thenAnswer(invocation -> {
+            pendingDuringWrite[0] = aggregator.getPendingClicks(SHORT_CODE_A);
+            return 1;
+        });
+
+        aggregator.flush();
+
+        assertEquals(2L, pendingDuringWrite[0]);
+        assertEquals(0L, aggregator.getPendingClicks(SHORT_CODE_A));
+        assertEquals(NOW.toEpochMilli(), aggregator.getLastFlushedAtMillis(SHORT_CODE_A));
+        assertEquals(Long.MIN_VALUE, aggregator.getLastFlushedAtMillis(SHORT_CODE_B));
+    }
+
+    @Test
+    void shouldCountEveryClick_whenOneCodeIsClickedConcurrently() throws InterruptedException {
+        ExecutorService clickers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            clickers.execute(() -> {
+                for (int click = 0; click < 10_000; click++) {
+                    aggregator.recordClick(SHORT_CODE_A);
+                }
+            });
+        }
+        clickers.shutdown();
+        assertTrue(clickers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(80_000L, aggregator.getPendingClicks(SHORT_CODE_A));
+        assertEquals(80_000L, aggregator.flush());
+    }
+
+    @Test
+    void shouldNotLoseClicks_whenIdleCountersAreEvictedConcurrently() throws InterruptedException {
+        AtomicLong written = new AtomicLong();
+        when(shortUrlRepository.incrementClickCounts(anyMap())).thenAnswer(invocation -> {
+            Map<String, Long> batch = invocation.getArgument(0);
+            batch.values().forEach(written::addAndGet);
+            return batch.size();
+        });
+        AtomicBoolean clicking = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (clicking.get()) {
+                aggregator.flush();
+            }
+        });
+        flusher.start();
+        ExecutorService clickers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            clickers.execute(() -> {
+                for (int click = 0; click < 20_000; click++) {
+                    aggregator.recordClick("code" + ThreadLocalRandom.current().nextInt(64));
+                }
+            });
+        }
+        clickers.shutdown();
+        assertTrue(clickers.awaitTermination(30, TimeUnit.SECONDS));
+        clicking.set(false);
+        flusher.join();
+
+        aggregator.flush();
+
+        assertEquals(160_000L, written.get());
+        assertEquals(0L, aggregator.getPendingClicks());
+    }
+
+    @Test
+    void shouldDropCounter_afterAFlushWithoutClicks() {
+        aggregator.recordClick(SHORT_CODE_A);
+        aggregator.flush();
+        assertEquals(1, aggregator.getPendingShortCodes());
+
+        aggregator.flush();
+
+        assertEquals(0, aggregator.getPendingShortCodes());
+        verify(shortUrlRepository, times(1)).incrementClickCounts(anyMap());
+    }
+}
@@ -0,0 +1,101 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.analytics.ClickEventPublisher;
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectTierClickCollectorTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private HotKeyDetector hotKeyDetector;
+
+    private ClickCountAggregator aggregator;
+    private RedirectTierClickCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new ClickCountAggregator(shortUrlRepository,
+                new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1), new ShortUrlMetrics(new SimpleMeterRegistry()),
+                Clock.systemUTC(), 100, Duration.ofSeconds(10));
+        collector = new RedirectTierClickCollector(redisTemplate, hotKeyDetector);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMoveDrainedClicksIntoAggregator() {
+        aggregator.recordClick("2gU8SHsz");
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(RedirectTierClickCollector.REDIRECT_CLICKS_KEY))))
+                .thenReturn(List.of("2gU8SHsz", "3", "Zx81Kq0p", "1"));
+
+        long collected = collector.collectInto(aggregator);
+
+        assertEquals(4L, collected);
+        assertEquals(4L, aggregator.getPendingClicks("2gU8SHsz"));
+        assertEquals(1L, aggregator.getPendingClicks("Zx81Kq0p"));
+        verify(hotKeyDetector).record("2gU8SHsz", 3);
+        verify(hotKeyDetector).record("Zx81Kq0p", 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipCollection_whenRedisUnavailable() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(0L, collector.collectInto(aggregator));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRelayTierClickEventsToPublisher() {
+        ClickEventPublisher publisher = mock(ClickEventPublisher.class);
+        when(publisher.isEnabled()).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of(RedirectTierClickCollector.REDIRECT_CLICK_EVENTS_KEY)), any(Object[].class)))
+                .thenReturn(List.of(
+                        "1700000000000", "2gU8SHsz", "203.0.113.7", "https://t.co/x", "Mozilla/5.0", "DE",
+                        "1700000000500", "Zx81Kq0p", "", "", "", "",
+                        "", "", "", "", "", ""));
+
+        long relayed = collector.relayEventsTo(publisher);
+
+        assertEquals(2L, relayed);
+        verify(publisher).publish(1_700_000_000_000L, "2gU8SHsz", "203.0.113.7", "https://t.co/x", "Mozilla/5.0", "DE");
+        verify(publisher).publish(1_700_000_000_500L, "Zx81Kq0p", null, null, null, null);
+    }
+
+    @Test
+    void shouldLeaveTierClickEvents_whenAnalyticsDisabled() {
+        ClickEventPublisher publisher = mock(ClickEventPublisher.class);
+
+        assertEquals(0L, collector.relayEventsTo(publisher));
+        verifyNoInteractions(redisTemplate);
+    }
+}
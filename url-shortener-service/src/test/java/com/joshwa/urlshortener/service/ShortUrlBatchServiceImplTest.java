@@ -0,0 +1,172 @@
+package com.joshwa.urlshortener.service;
+
+import com.joshwa.urlshortener.allocator.ShortCodeAllocator;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
+import com.joshwa.urlshortener.dto.ShortUrlBatchItemResultDTO;
+import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
+import com.joshwa.urlshortener.entity.ShortUrl;
+import com.joshwa.urlshortener.exception.InvalidBatchException;
+import com.joshwa.urlshortener.exception.ShortCodeGenerationException;
+import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.joshwa.urlshortener.utility.UrlUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlBatchServiceImplTest {
+
+    private static final Clock clock = Clock.fixed(Instant.parse("2026-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private static final String BASE_URL = "http://localhost:8081";
+
+    @Mock
+    private ShortUrlRepository shortUrlRepository;
+
+    @Mock
+    private ShortCodeAllocator shortCodeAllocator;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ShortUrlBatchServiceImpl batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = newBatchService(500);
+    }
+
+    @Test
+    void shouldReturnPerItemResults_forMixedBatch() throws Exception {
+        ShortUrl existing = new ShortUrl();
+        existing.setShortCode("existing1");
+        existing.setOriginalUrl("https://b.com");
+        existing.setCreatedAt(clock.instant());
+        when(shortUrlRepository.findActiveByOriginalUrlHashes(anyList(), eq(clock.instant())))
+                .thenReturn(List.of(existing));
+        when(shortCodeAllocator.allocate(2)).thenReturn(List.of("new00001", "unused01"));
+        when(shortUrlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ShortUrl> saved = invocation.getArgument(0);
+            saved.forEach(shortUrl -> shortUrl.setCreatedAt(clock.instant()));
+            return saved;
+        });
+
+        List<ShortUrlBatchItemResultDTO> results = batchService.createShortUrls(List.of(
+                request("a.com", null),
+                request(" ", null),
+                request("https://b.com", null),
+                request("a.com", null),
+                request("c.com", OffsetDateTime.parse("2025-12-31T10:00:00Z"))));
+
+        assertEquals(5, results.size());
+        assertEquals("new00001", results.get(0).getResult().getShortCode());
+        assertEquals(BASE_URL + "/new00001", results.get(0).getResult().getShortUrl());
+        assertEquals("Required parameters are missing.", results.get(1).getError());
+        assertEquals("existing1", results.get(2).getResult().getShortCode());
+        assertEquals("new00001", results.get(3).getResult().getShortCode());
+        assertEquals(INVALID_EXPIRY_EXCEPTION_MESSAGE, results.get(4).getError());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        verify(negativeLookupCache).registerCreated(List.of("new00001"));
+    }
+
+    @Test
+    void shouldProcessBatchInChunks() throws Exception {
+        batchService = newBatchService(2);
+        when(shortCodeAllocator.allocate(anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(0);
+            List<String> codes = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                codes.add("code" + i);
+            }
+            return codes;
+        });
+        when(shortUrlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ShortUrl> saved = invocation.getArgument(0);
+            saved.forEach(shortUrl -> shortUrl.setCreatedAt(clock.instant()));
+            return saved;
+        });
+        List<List<ShortUrlBatchItemResultDTO>> chunks = new ArrayList<>();
+
+        batchService.createShortUrls(List.of(request("a.com", null), request("b.com", null),
+                request("c.com", null)), chunks::add);
+
+        assertEquals(2, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(2, chunks.get(1).get(0).getIndex());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void shouldAllocateCodes_beforeOpeningTheChunkTransaction() throws Exception {
+        when(shortCodeAllocator.allocate(1)).thenReturn(List.of("new00001"));
+        when(shortUrlRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ShortUrl> saved = invocation.getArgument(0);
+            saved.forEach(shortUrl -> shortUrl.setCreatedAt(clock.instant()));
+            return saved;
+        });
+
+        batchService.createShortUrls(List.of(request("a.com", null)));
+
+        InOrder order = inOrder(shortCodeAllocator, transactionManager);
+        order.verify(shortCodeAllocator).allocate(1);
+        order.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void shouldReportAllocationFailure_perItem() throws Exception {
+        when(shortCodeAllocator.allocate(1)).thenThrow(new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE));
+
+        List<ShortUrlBatchItemResultDTO> results = batchService.createShortUrls(List.of(request("a.com", null)));
+
+        assertEquals(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE, results.get(0).getError());
+        verify(shortUrlRepository, never()).saveAll(anyList());
+        verify(negativeLookupCache).registerCreated(List.of());
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        batchService = newBatchService(500);
+        assertThrows(InvalidBatchException.class, () -> batchService.createShortUrls(List.of()));
+        List<ShortUrlRequestDTO> oversized = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            oversized.add(request("a.com", null));
+        }
+        assertThrows(InvalidBatchException.class, () -> batchService.createShortUrls(oversized));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    private ShortUrlBatchServiceImpl newBatchService(int chunkSize) {
+        return new ShortUrlBatchServiceImpl(shortUrlRepository, clock, new ShortUrlMapper(), shortCodeAllocator,
+                negativeLookupCache,
+                new ShortUrlShards(transactionManager, new ReplicaReadRouting(""), "", 1), transactionManager, BASE_URL, 10, chunkSize);
+    }
+
+    private static ShortUrlRequestDTO request(String originalUrl, OffsetDateTime expiryDate) {
+        ShortUrlRequestDTO request = new ShortUrlRequestDTO();
+        request.setOriginalUrl(originalUrl);
+        request.setExpiryDate(expiryDate);
+        return request;
+    }
+}
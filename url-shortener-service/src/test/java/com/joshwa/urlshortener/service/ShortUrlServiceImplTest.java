@@ -1,12 +1,23 @@
 package com.joshwa.urlshortener.service;
 
+import com.joshwa.urlshortener.allocator.ShortCodeAllocator;
+import com.joshwa.urlshortener.analytics.UniqueVisitorCounter;
+import com.joshwa.urlshortener.cache.DistributedLoadLock;
+import com.joshwa.urlshortener.cache.HotKeyDetector;
+import com.joshwa.urlshortener.cache.NegativeLookupCache;
+import com.joshwa.urlshortener.cache.ShortUrlCache;
+import com.joshwa.urlshortener.cache.ShortUrlStatsCache;
+import com.joshwa.urlshortener.datasource.ReplicaReadRouting;
+import com.joshwa.urlshortener.datasource.ShortUrlShards;
 import com.joshwa.urlshortener.dto.ShortUrlRequestDTO;
 import com.joshwa.urlshortener.dto.ShortUrlResponseDTO;
 import com.joshwa.urlshortener.dto.ShortUrlStatsResponseDTO;
 import com.joshwa.urlshortener.entity.ShortUrl;
 import com.joshwa.urlshortener.exception.*;
 import com.joshwa.urlshortener.mapper.ShortUrlMapper;
+import com.joshwa.urlshortener.metrics.ShortUrlMetrics;
 import com.joshwa.urlshortener.repository.ShortUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import static com.joshwa.urlshortener.utility.UrlUtils.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +27,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 
 import java.time.*;
@@ -23,7 +35,11 @@ import java.time.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +49,6 @@ class ShortUrlServiceImplTest {
     private ShortUrlRepository shortUrlRepository;
     private static final String VALID_URL_FOR_TEST="https://www.love.com";
     private static final String VALID_SHORT_CODE_FOR_TEST="2gU8SHsz";
-    private static final String VALID_CACHE_KEY_FOR_TEST="shorturl:"+VALID_SHORT_CODE_FOR_TEST;
     private static final Clock clock=Clock.fixed(
             Instant.parse("2026-01-01T10:00:00Z"),
             ZoneOffset.UTC
@@ -43,19 +58,42 @@ class ShortUrlServiceImplTest {
 
 
     @Mock
-    private ValueOperations<String, String> valueOps;
+    private ShortUrlMapper shortUrlMapper;
 
     @Mock
-    private ShortUrlMapper shortUrlMapper;
+    private ShortUrlCache shortUrlCache;
+
+    @Mock
+    private ClickCountAggregator clickCountAggregator;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
+    private NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private ShortCodeAllocator shortCodeAllocator;
+
+    @Mock
+    private ShortUrlStatsCache shortUrlStatsCache;
+
+    @Mock
+    private UniqueVisitorCounter uniqueVisitorCounter;
 
     ShortUrlServiceImpl shortUrlServiceImpl;
 
     @BeforeEach
     void setUp() {
-       shortUrlServiceImpl= new ShortUrlServiceImpl(shortUrlRepository,clock,shortUrlMapper,redisTemplate);
+       shortUrlServiceImpl=newService(mock(StringRedisTemplate.class),false);
+    }
+
+    private ShortUrlServiceImpl newService(StringRedisTemplate lockRedisTemplate, boolean lockEnabled) {
+       ShortUrlServiceImpl service= new ShortUrlServiceImpl(shortUrlRepository,clock,shortUrlMapper,shortUrlCache,clickCountAggregator,negativeLookupCache,
+                       new DistributedLoadLock(lockRedisTemplate,lockEnabled,
+                               Duration.ofSeconds(2),Duration.ofMillis(200),Duration.ofMillis(20)),
+                       shortCodeAllocator,shortUrlStatsCache,uniqueVisitorCounter,new ReplicaReadRouting(""),
+                       new ShortUrlShards(null, new ReplicaReadRouting(""), "", 1),
+                       new HotKeyDetector(clock, 1024, 4, 10, 1000), new ShortUrlMetrics(new SimpleMeterRegistry()));
+       ReflectionTestUtils.setField(service,"maxStatsBatchSize",3);
+       return service;
     }
 
     @Test
@@ -64,7 +102,7 @@ class ShortUrlServiceImplTest {
         requestDTO.setOriginalUrl(VALID_URL_FOR_TEST);
         ShortUrl shortUrl=new ShortUrl();
         ShortUrlResponseDTO expectedResponseDTO=new ShortUrlResponseDTO();
-        when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.empty());
+        when(shortCodeAllocator.allocate()).thenReturn(VALID_SHORT_CODE_FOR_TEST);
         when(shortUrlMapper.toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString()))
                 .thenReturn(shortUrl);
         when(shortUrlRepository.save(any(ShortUrl.class))).thenReturn(shortUrl);
@@ -75,7 +113,8 @@ class ShortUrlServiceImplTest {
         verify(shortUrlMapper).toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString());
         verify(shortUrlMapper).toResponseDTO(any(ShortUrl.class),anyString());
         verify(shortUrlRepository).save(any(ShortUrl.class));
-        verify(shortUrlRepository).findByShortCode(anyString());
+        verify(shortCodeAllocator).allocate();
+        verify(negativeLookupCache).registerCreated(anyList());
 
 
     }
@@ -88,7 +127,7 @@ class ShortUrlServiceImplTest {
         shortUrl.setOriginalUrl(VALID_URL_FOR_TEST);
         ShortUrlResponseDTO expectedResponseDTO=new ShortUrlResponseDTO();
         expectedResponseDTO.setExpiryDate(FUTURE_VALID_EXPIRY);
-        when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.empty());
+        when(shortCodeAllocator.allocate()).thenReturn(VALID_SHORT_CODE_FOR_TEST);
         when(shortUrlMapper.toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString()))
                 .thenReturn(shortUrl);
         when(shortUrlRepository.save(any(ShortUrl.class))).thenReturn(shortUrl);
@@ -99,11 +138,11 @@ class ShortUrlServiceImplTest {
         verify(shortUrlMapper).toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString());
         verify(shortUrlMapper).toResponseDTO(any(ShortUrl.class),anyString());
         verify(shortUrlRepository).save(any(ShortUrl.class));
-        verify(shortUrlRepository).findByShortCode(anyString());
+        verify(shortCodeAllocator).allocate();
     }
 
     @Test
-    void shouldThrowInvalidExpiryException_whenExpiryIsBeforeNow(){
+    void shouldThrowInvalidExpiryException_whenExpiryIsBeforeNow() throws ShortCodeGenerationException {
 
         ShortUrlRequestDTO requestDTO=new ShortUrlRequestDTO();
         requestDTO.setExpiryDate(PAST_INVALID_EXPIRY);
@@ -116,12 +155,12 @@ class ShortUrlServiceImplTest {
         verify(shortUrlMapper,never()).toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString());
         verify(shortUrlMapper,never()).toResponseDTO(any(ShortUrl.class),anyString());
         verify(shortUrlRepository,never()).save(any(ShortUrl.class));
-        verify(shortUrlRepository,never()).findByShortCode(anyString());
+        verify(shortCodeAllocator,never()).allocate();
 
 
     }
     @Test
-    void shouldThrowInvalidUrlException_whenUrlIsInvalid(){
+    void shouldThrowInvalidUrlException_whenUrlIsInvalid() throws ShortCodeGenerationException {
         ShortUrlRequestDTO requestDTO=new ShortUrlRequestDTO();
         requestDTO.setOriginalUrl("1.23/ioe");
         InvalidUrlException exception=
@@ -132,17 +171,16 @@ class ShortUrlServiceImplTest {
         verify(shortUrlMapper,never()).toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString());
         verify(shortUrlMapper,never()).toResponseDTO(any(ShortUrl.class),anyString());
         verify(shortUrlRepository,never()).save(any(ShortUrl.class));
-        verify(shortUrlRepository,never()).findByShortCode(anyString());
+        verify(shortCodeAllocator,never()).allocate();
 
     }
 
     @Test
-    void shouldThrowShortCodeGenerationException_whenAllAttemptsCollide(){
+    void shouldThrowShortCodeGenerationException_whenAllocatorFails() throws ShortCodeGenerationException {
         ShortUrlRequestDTO requestDTO=new ShortUrlRequestDTO();
         requestDTO.setOriginalUrl(VALID_URL_FOR_TEST);
-        ShortUrl shortUrlForCollision=new ShortUrl();
-        shortUrlForCollision.setOriginalUrl(VALID_URL_FOR_TEST);
-        when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.of(shortUrlForCollision));
+        when(shortCodeAllocator.allocate())
+                .thenThrow(new ShortCodeGenerationException(SHORT_CODE_GENERATION_EXCEPTION_MESSAGE));
         ShortCodeGenerationException exception=
                 assertThrows(ShortCodeGenerationException.class,
                         ()->shortUrlServiceImpl.createShortUrl(requestDTO)
@@ -151,116 +189,174 @@ class ShortUrlServiceImplTest {
         verify(shortUrlMapper,never()).toEntity(any(ShortUrlRequestDTO.class),anyString(),anyString());
         verify(shortUrlMapper,never()).toResponseDTO(any(ShortUrl.class),anyString());
         verify(shortUrlRepository,never()).save(any(ShortUrl.class));
-        verify(shortUrlRepository,times(ShortUrlServiceImpl.MAX_SHORT_CODE_GENERATION_ATTEMPTS)).findByShortCode(anyString());
+        verify(shortUrlRepository,never()).findByShortCode(anyString());
 
     }
     @Test
-    void shouldReturnCachedUrlAndIncrementClickCount_whenCacheHit() throws ShortUrlNotFoundException, ShortUrlExpiredException {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get(anyString())).thenReturn(VALID_URL_FOR_TEST);
-        String resultUrl=shortUrlServiceImpl.getOriginalUrlForRedirect(VALID_SHORT_CODE_FOR_TEST);
-        assertEquals(VALID_URL_FOR_TEST,resultUrl);
-        verify(shortUrlRepository).atomicUpdateClickCount(VALID_SHORT_CODE_FOR_TEST);
-        verify(shortUrlRepository, never()).findByShortCode(anyString());
-        verify(valueOps).get(VALID_CACHE_KEY_FOR_TEST);
+    void shouldReturnCachedUrlAndIncrementClickCount_whenCacheHit() {
+        when(shortUrlCache.get(anyString())).thenReturn(VALID_URL_FOR_TEST);
+        ShortUrlResolution resolution=shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(ShortUrlResolution.found(VALID_URL_FOR_TEST),resolution);
+        verify(clickCountAggregator).recordClick(VALID_SHORT_CODE_FOR_TEST);
+        verifyNoInteractions(shortUrlRepository);
+        verify(shortUrlCache).get(VALID_SHORT_CODE_FOR_TEST);
     }
 
     @Test
-    void shouldFetchFromDbCacheWithTtlAndIncrement_whenCacheMissAndNotExpired() throws ShortUrlNotFoundException, ShortUrlExpiredException {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get(anyString())).thenReturn(null);
+    void shouldFetchFromDbCacheWithTtlAndIncrement_whenCacheMissAndNotExpired() {
+        when(shortUrlCache.get(anyString())).thenReturn(null);
         ShortUrl shortUrl=new ShortUrl();
         shortUrl.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         shortUrl.setOriginalUrl(VALID_URL_FOR_TEST);
         shortUrl.setExpiryDate(FUTURE_VALID_EXPIRY.toInstant());
         when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.of(shortUrl));
-        String resultUrl=shortUrlServiceImpl.getOriginalUrlForRedirect(VALID_SHORT_CODE_FOR_TEST);
-        assertEquals(VALID_URL_FOR_TEST,resultUrl);
-        verify(shortUrlRepository).atomicUpdateClickCount(VALID_SHORT_CODE_FOR_TEST);
+        ShortUrlResolution resolution=shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(ShortUrlResolution.found(VALID_URL_FOR_TEST),resolution);
+        verify(clickCountAggregator).recordClick(VALID_SHORT_CODE_FOR_TEST);
         verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
-        verify(valueOps).set(anyString(),anyString(),any(Duration.class));
-        verify(valueOps).get(VALID_CACHE_KEY_FOR_TEST);
+        verify(shortUrlCache).put(VALID_SHORT_CODE_FOR_TEST,VALID_URL_FOR_TEST,FUTURE_VALID_EXPIRY.toInstant());
+        verify(shortUrlCache).get(VALID_SHORT_CODE_FOR_TEST);
 
     }
     @Test
-    void shouldCacheWithoutTtl_whenNoExpiryAndCacheMiss() throws ShortUrlNotFoundException, ShortUrlExpiredException {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get(anyString())).thenReturn(null);
+    void shouldCacheWithoutTtl_whenNoExpiryAndCacheMiss() {
+        when(shortUrlCache.get(anyString())).thenReturn(null);
         ShortUrl shortUrl=new ShortUrl();
         shortUrl.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         shortUrl.setOriginalUrl(VALID_URL_FOR_TEST);
         when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.of(shortUrl));
-        String resultUrl=shortUrlServiceImpl.getOriginalUrlForRedirect(VALID_SHORT_CODE_FOR_TEST);
-        assertEquals(VALID_URL_FOR_TEST,resultUrl);
-        verify(shortUrlRepository).atomicUpdateClickCount(VALID_SHORT_CODE_FOR_TEST);
+        ShortUrlResolution resolution=shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(ShortUrlResolution.found(VALID_URL_FOR_TEST),resolution);
+        verify(clickCountAggregator).recordClick(VALID_SHORT_CODE_FOR_TEST);
         verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
-        verify(valueOps).set(VALID_CACHE_KEY_FOR_TEST,VALID_URL_FOR_TEST);
-        verify(valueOps).get(VALID_CACHE_KEY_FOR_TEST);
+        verify(shortUrlCache).put(VALID_SHORT_CODE_FOR_TEST,VALID_URL_FOR_TEST,null);
+        verify(shortUrlCache).get(VALID_SHORT_CODE_FOR_TEST);
     }
 
     @Test
-    void shouldThrowShortUrlNotFoundException_whenCacheMissAndDbMiss(){
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get(anyString())).thenReturn(null);
+    void shouldResolveNotFound_whenCacheMissAndDbMiss(){
+        when(shortUrlCache.get(anyString())).thenReturn(null);
         when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.empty());
-        ShortUrlNotFoundException exception=
-                assertThrows(ShortUrlNotFoundException.class,()->
-                    shortUrlServiceImpl.getOriginalUrlForRedirect(VALID_SHORT_CODE_FOR_TEST)
-                );
-        assertEquals(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE,exception.getMessage());
-        verify(shortUrlRepository,never()).atomicUpdateClickCount(VALID_SHORT_CODE_FOR_TEST);
+        ShortUrlResolution resolution=shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(ShortUrlResolution.Status.NOT_FOUND,resolution.status());
+        verify(clickCountAggregator,never()).recordClick(VALID_SHORT_CODE_FOR_TEST);
         verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
-        verify(valueOps,never()).set(VALID_CACHE_KEY_FOR_TEST,VALID_URL_FOR_TEST);
-        verify(valueOps).get(VALID_CACHE_KEY_FOR_TEST);
+        verify(negativeLookupCache).recordNotFound(VALID_SHORT_CODE_FOR_TEST);
+        verify(shortUrlCache,never()).put(anyString(),anyString(),any());
+        verify(shortUrlCache).get(VALID_SHORT_CODE_FOR_TEST);
     }
     @Test
-    void shouldThrowShortUrlExpiredException_whenExpired(){
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get(anyString())).thenReturn(null);
+    void shouldResolveExpired_whenExpired(){
+        when(shortUrlCache.get(anyString())).thenReturn(null);
         ShortUrl shortUrl=new ShortUrl();
         shortUrl.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         shortUrl.setOriginalUrl(VALID_URL_FOR_TEST);
         shortUrl.setExpiryDate(clock.instant());
         when(shortUrlRepository.findByShortCode(anyString())).thenReturn(Optional.of(shortUrl));
-        ShortUrlExpiredException exception=
-                assertThrows(ShortUrlExpiredException.class,()->
-                shortUrlServiceImpl.getOriginalUrlForRedirect(VALID_SHORT_CODE_FOR_TEST)
-                );
-        assertEquals(SHORT_URL_EXPIRED_EXCEPTION_MESSAGE,exception.getMessage());
-        verify(shortUrlRepository,never()).atomicUpdateClickCount(VALID_SHORT_CODE_FOR_TEST);
+        ShortUrlResolution resolution=shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(ShortUrlResolution.Status.EXPIRED,resolution.status());
+        verify(clickCountAggregator,never()).recordClick(VALID_SHORT_CODE_FOR_TEST);
+        verify(negativeLookupCache).recordExpired(VALID_SHORT_CODE_FOR_TEST);
         verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
-        verify(valueOps,never()).set(anyString(),anyString(),any(Duration.class));
-        verify(valueOps).get(VALID_CACHE_KEY_FOR_TEST);
+        verify(shortUrlCache,never()).put(anyString(),anyString(),any());
+        verify(shortUrlCache).get(VALID_SHORT_CODE_FOR_TEST);
+    }
+    @Test
+    void shouldResolveNotFoundWithoutDbQuery_whenKnownMissing(){
+        when(shortUrlCache.get(anyString())).thenReturn(null);
+        when(negativeLookupCache.check(VALID_SHORT_CODE_FOR_TEST)).thenReturn(NegativeLookupCache.Outcome.NOT_FOUND);
+        assertEquals(ShortUrlResolution.notFound(),
+                shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldResolveExpiredWithoutDbQuery_whenKnownExpired(){
+        when(shortUrlCache.get(anyString())).thenReturn(null);
+        when(negativeLookupCache.check(VALID_SHORT_CODE_FOR_TEST)).thenReturn(NegativeLookupCache.Outcome.EXPIRED);
+        assertEquals(ShortUrlResolution.expired(),
+                shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldResolveExpiredWithoutDbQuery_whenLockWinnerPublishesMiss(){
+        StringRedisTemplate lockRedisTemplate=mock(StringRedisTemplate.class);
+        ValueOperations<String,String> valueOps=mock(ValueOperations.class);
+        when(lockRedisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq("shorturl:lock:"+VALID_SHORT_CODE_FOR_TEST),anyString(),any(Duration.class)))
+                .thenReturn(false);
+        when(valueOps.get("shorturl:miss:"+VALID_SHORT_CODE_FOR_TEST)).thenReturn("EXPIRED");
+        shortUrlServiceImpl=newService(lockRedisTemplate,true);
+
+        assertEquals(ShortUrlResolution.expired(),
+                shortUrlServiceImpl.resolveRedirect(VALID_SHORT_CODE_FOR_TEST));
+        verifyNoInteractions(shortUrlRepository);
     }
+
     @Test
-    void shouldReturnStats_whenShortUrlExists() throws ShortUrlNotFoundException {
+    void shouldReturnStats_whenShortUrlExists() {
         ShortUrl shortUrl=new ShortUrl();
         shortUrl.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         shortUrl.setOriginalUrl(VALID_URL_FOR_TEST);
         ShortUrlStatsResponseDTO expectedResponseDTO=new ShortUrlStatsResponseDTO();
         expectedResponseDTO.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         expectedResponseDTO.setOriginalUrl(VALID_URL_FOR_TEST);
-        when(shortUrlRepository.findByShortCode(VALID_SHORT_CODE_FOR_TEST)).thenReturn(Optional.of(shortUrl));
+        stubLoadingStatsCache(Map.of());
+        when(shortUrlRepository.findByShortCodeIn(List.of(VALID_SHORT_CODE_FOR_TEST))).thenReturn(List.of(shortUrl));
         when(shortUrlMapper.toStatsDTO(any(ShortUrl.class))).thenReturn(expectedResponseDTO);
-        ShortUrlStatsResponseDTO resultResponseDTO=
-                shortUrlServiceImpl.getShortUrlStats(VALID_SHORT_CODE_FOR_TEST);
-        assertEquals(expectedResponseDTO,resultResponseDTO);
-        verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
+        Optional<ShortUrlStatsResponseDTO> resultResponseDTO=
+                shortUrlServiceImpl.findShortUrlStats(VALID_SHORT_CODE_FOR_TEST);
+        assertEquals(Optional.of(expectedResponseDTO),resultResponseDTO);
+        verify(shortUrlRepository).findByShortCodeIn(List.of(VALID_SHORT_CODE_FOR_TEST));
         verify(shortUrlMapper).toStatsDTO(shortUrl);
     }
 
     @Test
-    void shouldThrowShortUrlNotFoundException_whenStatsNotFound(){
-        when(shortUrlRepository.findByShortCode(VALID_SHORT_CODE_FOR_TEST)).thenReturn(Optional.empty());
-        ShortUrlNotFoundException exception=
-                assertThrows(ShortUrlNotFoundException.class,()->
-                        shortUrlServiceImpl.getShortUrlStats(VALID_SHORT_CODE_FOR_TEST)
-                        );
-        assertEquals(SHORT_URL_NOT_FOUND_EXCEPTION_MESSAGE,exception.getMessage());
-        verify(shortUrlRepository).findByShortCode(VALID_SHORT_CODE_FOR_TEST);
+    void shouldAddPendingClicksToStats_whenClicksNotYetFlushed() {
+        ShortUrl shortUrl=new ShortUrl();
+        shortUrl.setShortCode(VALID_SHORT_CODE_FOR_TEST);
+        ShortUrlStatsResponseDTO statsDTO=new ShortUrlStatsResponseDTO();
+        statsDTO.setShortCode(VALID_SHORT_CODE_FOR_TEST);
+        statsDTO.setClickCount(5L);
+        stubLoadingStatsCache(Map.of());
+        when(shortUrlRepository.findByShortCodeIn(List.of(VALID_SHORT_CODE_FOR_TEST))).thenReturn(List.of(shortUrl));
+        when(shortUrlMapper.toStatsDTO(shortUrl)).thenReturn(statsDTO);
+        when(clickCountAggregator.getPendingClicks(VALID_SHORT_CODE_FOR_TEST)).thenReturn(3L);
+        when(uniqueVisitorCounter.countRecent(List.of(VALID_SHORT_CODE_FOR_TEST)))
+                .thenReturn(Map.of(VALID_SHORT_CODE_FOR_TEST,2L));
+        ShortUrlStatsResponseDTO resultResponseDTO=
+                shortUrlServiceImpl.findShortUrlStats(VALID_SHORT_CODE_FOR_TEST).orElseThrow();
+        assertEquals(8L,resultResponseDTO.getClickCount());
+        assertEquals(2L,resultResponseDTO.getUniqueVisitors());
+    }
+
+    @Test
+    void shouldServeStatsFromCache_withoutDatabaseRead() {
+        ShortUrlStatsResponseDTO cachedStats=new ShortUrlStatsResponseDTO();
+        cachedStats.setShortCode(VALID_SHORT_CODE_FOR_TEST);
+        cachedStats.setClickCount(9L);
+        stubLoadingStatsCache(Map.of(VALID_SHORT_CODE_FOR_TEST,cachedStats));
+        assertEquals(Optional.of(cachedStats),shortUrlServiceImpl.findShortUrlStats(VALID_SHORT_CODE_FOR_TEST));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    @Test
+    void shouldReturnEmptyStats_whenStatsNotFound(){
+        stubLoadingStatsCache(Map.of());
+        when(shortUrlRepository.findByShortCodeIn(List.of(VALID_SHORT_CODE_FOR_TEST))).thenReturn(List.of());
+        assertTrue(shortUrlServiceImpl.findShortUrlStats(VALID_SHORT_CODE_FOR_TEST).isEmpty());
+        verify(shortUrlRepository).findByShortCodeIn(List.of(VALID_SHORT_CODE_FOR_TEST));
         verify(shortUrlMapper,never()).toStatsDTO(any(ShortUrl.class));
     }
 
+    @Test
+    void shouldReturnEmptyStats_whenKnownMissing(){
+        when(negativeLookupCache.check(VALID_SHORT_CODE_FOR_TEST)).thenReturn(NegativeLookupCache.Outcome.NOT_FOUND);
+        assertTrue(shortUrlServiceImpl.findShortUrlStats(VALID_SHORT_CODE_FOR_TEST).isEmpty());
+        verifyNoInteractions(shortUrlStatsCache,shortUrlRepository);
+    }
+
     @Test
     void shouldReuseExistingUrl_whenExistingAndRequestExpiryAreNull() throws Exception {
         ShortUrlRequestDTO request = new ShortUrlRequestDTO();
@@ -271,8 +367,8 @@ class ShortUrlServiceImplTest {
         existing.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         existing.setExpiryDate(null);
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.of(existing));
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of(existing));
 
         ShortUrlResponseDTO responseDTO = new ShortUrlResponseDTO();
         when(shortUrlMapper.toResponseDTO(eq(existing), anyString()))
@@ -295,8 +391,8 @@ class ShortUrlServiceImplTest {
         existing.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         existing.setExpiryDate(FUTURE_VALID_EXPIRY.toInstant());
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.of(existing));
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of(existing));
 
         ShortUrlResponseDTO responseDTO = new ShortUrlResponseDTO();
         when(shortUrlMapper.toResponseDTO(eq(existing), anyString()))
@@ -319,10 +415,10 @@ class ShortUrlServiceImplTest {
         existing.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         existing.setExpiryDate(null);
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.of(existing));
-        when(shortUrlRepository.findByShortCode(anyString()))
-                .thenReturn(Optional.empty());
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of(existing));
+        when(shortCodeAllocator.allocate())
+                .thenReturn(VALID_SHORT_CODE_FOR_TEST);
 
         ShortUrl entity = new ShortUrl();
         when(shortUrlMapper.toEntity(any(), anyString(), anyString()))
@@ -347,10 +443,10 @@ class ShortUrlServiceImplTest {
         existing.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         existing.setExpiryDate(Instant.now(clock).plusSeconds(3600));
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.of(existing));
-        when(shortUrlRepository.findByShortCode(anyString()))
-                .thenReturn(Optional.empty());
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of(existing));
+        when(shortCodeAllocator.allocate())
+                .thenReturn(VALID_SHORT_CODE_FOR_TEST);
 
         ShortUrl entity = new ShortUrl();
         when(shortUrlMapper.toEntity(any(), anyString(), anyString()))
@@ -374,10 +470,10 @@ class ShortUrlServiceImplTest {
         existing.setShortCode(VALID_SHORT_CODE_FOR_TEST);
         existing.setExpiryDate(FUTURE_VALID_EXPIRY.toInstant());
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.of(existing));
-        when(shortUrlRepository.findByShortCode(anyString()))
-                .thenReturn(Optional.empty());
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of(existing));
+        when(shortCodeAllocator.allocate())
+                .thenReturn(VALID_SHORT_CODE_FOR_TEST);
 
         ShortUrl entity = new ShortUrl();
         when(shortUrlMapper.toEntity(any(), anyString(), anyString()))
@@ -396,10 +492,10 @@ class ShortUrlServiceImplTest {
         ShortUrlRequestDTO request = new ShortUrlRequestDTO();
         request.setOriginalUrl(VALID_URL_FOR_TEST);
 
-        when(shortUrlRepository.findActiveByOriginalUrl(eq(VALID_URL_FOR_TEST), any()))
-                .thenReturn(Optional.empty());
-        when(shortUrlRepository.findByShortCode(anyString()))
-                .thenReturn(Optional.empty());
+        when(shortUrlRepository.findActiveByOriginalUrl(eq(hashUrl(VALID_URL_FOR_TEST)), eq(VALID_URL_FOR_TEST), any()))
+                .thenReturn(List.of());
+        when(shortCodeAllocator.allocate())
+                .thenReturn(VALID_SHORT_CODE_FOR_TEST);
 
         ShortUrl entity = new ShortUrl();
         when(shortUrlMapper.toEntity(any(), anyString(), anyString()))
@@ -413,4 +509,55 @@ class ShortUrlServiceImplTest {
         verify(shortUrlRepository).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldReturnBulkStats_fromCacheAndSingleQuery() throws InvalidBatchException {
+        ShortUrlStatsResponseDTO cachedStats=new ShortUrlStatsResponseDTO();
+        cachedStats.setShortCode("cached01");
+        cachedStats.setClickCount(4L);
+        ShortUrl stored=new ShortUrl();
+        stored.setShortCode("stored01");
+        ShortUrlStatsResponseDTO storedStats=new ShortUrlStatsResponseDTO();
+        storedStats.setShortCode("stored01");
+        storedStats.setClickCount(7L);
+        when(negativeLookupCache.check(anyString())).thenAnswer(invocation->
+                "unknown1".equals(invocation.getArgument(0)) ? NegativeLookupCache.Outcome.NOT_FOUND : null);
+        stubLoadingStatsCache(Map.of("cached01",cachedStats));
+        when(shortUrlRepository.findByShortCodeIn(List.of("stored01"))).thenReturn(List.of(stored));
+        when(shortUrlMapper.toStatsDTO(stored)).thenReturn(storedStats);
+        when(clickCountAggregator.getPendingClicks(anyString())).thenAnswer(invocation->
+                "cached01".equals(invocation.getArgument(0)) ? 2L : 0L);
+        when(uniqueVisitorCounter.countRecent(List.of("stored01"))).thenReturn(Map.of("stored01",5L));
+
+        List<ShortUrlStatsResponseDTO> result=
+                shortUrlServiceImpl.getShortUrlStats(List.of("stored01","cached01","unknown1"));
+
+        assertEquals(List.of(storedStats,cachedStats),result);
+        assertEquals(6L,cachedStats.getClickCount());
+        assertEquals(5L,storedStats.getUniqueVisitors());
+        verify(shortUrlStatsCache).getAll(eq(List.of("stored01","cached01")),any(),any());
+    }
+
+    @Test
+    void shouldRejectBulkStats_whenTooManyCodes(){
+        assertThrows(InvalidBatchException.class,
+                ()->shortUrlServiceImpl.getShortUrlStats(List.of("a","b","c","d")));
+        verifyNoInteractions(shortUrlRepository);
+    }
+
+    /**
+     * Makes the stats cache mock hold {@code cached} and load everything else through the
+     * service's loader, like the real cache does on a miss.
+     */
+    private void stubLoadingStatsCache(Map<String,ShortUrlStatsResponseDTO> cached){
+        when(shortUrlStatsCache.getAll(anyList(),any(),any())).thenAnswer(invocation->{
+            List<String> shortCodes=invocation.getArgument(0);
+            Function<List<String>,List<ShortUrlStatsResponseDTO>> loader=invocation.getArgument(1);
+            Map<String,ShortUrlStatsResponseDTO> result=new HashMap<>(cached);
+            List<String> missing=shortCodes.stream().filter(shortCode->!cached.containsKey(shortCode)).toList();
+            if(!missing.isEmpty()){
+                loader.apply(missing).forEach(stats->result.put(stats.getShortCode(),stats));
+            }
+            return result;
+        });
+    }
+}